@@ -1,6 +1,6 @@
 package com.medical.wiki.bootstrap;
 
-import com.medical.wiki.service.PaidLeaveService;
+import com.medical.wiki.service.BalanceRepairJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -11,16 +11,16 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class FixBalanceRunner implements CommandLineRunner {
 
-    private final PaidLeaveService paidLeaveService;
+    private final BalanceRepairJob balanceRepairJob;
 
     @Override
     public void run(String... args) throws Exception {
-        log.info("Starting one-time paid leave balance consistency fix...");
+        // Runs in the background; progress: GET /api/admin/system/fix-balance-consistency
+        log.info("Starting paid leave balance consistency fix in the background...");
         try {
-            paidLeaveService.fixBalanceConsistency();
-            log.info("Paid leave balance consistency fix completed successfully.");
+            balanceRepairJob.start();
         } catch (Exception e) {
-            log.error("Failed to fix paid leave balance consistency", e);
+            log.error("Failed to start paid leave balance consistency fix", e);
         }
     }
 }
@@ -1,7 +1,6 @@
 package com.medical.wiki.config;
 
-import com.medical.wiki.entity.User;
-import com.medical.wiki.repository.UserRepository;
+import com.medical.wiki.service.UserActivityTracker;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -12,14 +11,12 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.time.LocalDateTime;
-
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class UserActivityInterceptor implements HandlerInterceptor {
 
-    private final UserRepository userRepository;
+    private final UserActivityTracker userActivityTracker;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
@@ -40,19 +37,8 @@ public class UserActivityInterceptor implements HandlerInterceptor {
                 }
 
                 if (employeeId != null) {
-                    // Optimized: Only update if strictly necessary or use async event in production
-                    // For MVP/Demo: Direct update is acceptable but potentially heavy on high load
-                    // Using SQL directly could be faster: "UPDATE users SET last_seen_at = NOW()
-                    // WHERE ..."
-                    // For now, assume JPA overhead is acceptable for this scale
-                    userRepository.findByEmployeeId(employeeId).ifPresent(user -> {
-                        // Debounce: Update only if > 5 minutes since last update to reduce DB writes
-                        if (user.getLastSeenAt() == null ||
-                                user.getLastSeenAt().isBefore(LocalDateTime.now().minusMinutes(5))) {
-                            user.setLastSeenAt(LocalDateTime.now());
-                            userRepository.save(user);
-                        }
-                    });
+                    // In-memory only; last_seen_at is written by the tracker's flusher
+                    userActivityTracker.recordActivity(employeeId);
                 }
             } catch (Exception e) {
                 // Don't block request if activity tracking fails
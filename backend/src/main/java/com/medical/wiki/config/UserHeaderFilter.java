@@ -1,6 +1,6 @@
 package com.medical.wiki.config;
 
-import com.medical.wiki.repository.UserRepository;
+import com.medical.wiki.service.UserPrincipalCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,7 +20,7 @@ import java.util.Collections;
 @lombok.extern.slf4j.Slf4j
 public class UserHeaderFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(@org.springframework.lang.NonNull HttpServletRequest request,
@@ -33,18 +33,18 @@ public class UserHeaderFilter extends OncePerRequestFilter {
         if (userIdStr != null && !userIdStr.isEmpty()) {
             try {
                 Long userId = Long.parseLong(userIdStr);
-                userRepository.findById(userId).ifPresent(user -> {
+                principalCache.get(userId).ifPresent(user -> {
                     try {
-                        String role = "ROLE_" + user.getRole().name();
+                        String role = "ROLE_" + user.role().name();
                         UserPrincipal principal = new UserPrincipal(
-                                user.getId(),
-                                user.getEmployeeId(),
-                                user.getPassword(),
+                                user.id(),
+                                user.employeeId(),
+                                user.passwordHash(),
                                 Collections.singletonList(new SimpleGrantedAuthority(role)));
                         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                                 principal, null, principal.getAuthorities());
                         SecurityContextHolder.getContext().setAuthentication(auth);
-                        log.debug("Authenticated user: {} with role: {}", user.getEmployeeId(), role);
+                        log.debug("Authenticated user: {} with role: {}", user.employeeId(), role);
                     } catch (Exception e) {
                         log.error("Error setting authentication for user {}: {}", userId, e.getMessage(), e);
                     }
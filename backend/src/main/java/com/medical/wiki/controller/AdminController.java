@@ -1,21 +1,26 @@
 package com.medical.wiki.controller;
 
 import com.medical.wiki.dto.AuditLogDto;
+import com.medical.wiki.dto.AuditLogFilter;
+import com.medical.wiki.dto.AuditLogPageDto;
 import com.medical.wiki.dto.UserDto;
 import com.medical.wiki.entity.Manual;
 import com.medical.wiki.repository.ManualRepository;
-import com.medical.wiki.repository.ProgressRepository;
-import com.medical.wiki.repository.SystemLogRepository;
 import com.medical.wiki.repository.UserRepository;
+import com.medical.wiki.service.AuditLogQueryService;
+import com.medical.wiki.service.CompletionMatrix;
 import com.medical.wiki.service.ComplianceExportService;
 import com.medical.wiki.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -24,19 +29,46 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AdminController {
 
-    private final SystemLogRepository logRepository;
     private final UserService userService;
     private final ManualRepository manualRepository;
-    private final ProgressRepository progressRepository;
     private final UserRepository userRepository;
     private final ComplianceExportService exportService;
+    private final AuditLogQueryService auditLogQueryService;
+    private final CompletionMatrix completionMatrix;
     private final com.medical.wiki.service.PaidLeaveService paidLeaveService;
 
+    // Legacy list: newest MAX_PAGE_SIZE entries only (was the whole table); the admin screens page via /audit-logs/page
     @GetMapping("/audit-logs")
     public List<AuditLogDto> getAuditLogs() {
-        return logRepository.findAllByOrderByTimestampDesc().stream()
-                .map(AuditLogDto::fromEntity)
-                .collect(Collectors.toList());
+        return auditLogQueryService.findPage(new AuditLogFilter(null, null, null, null, null), null,
+                AuditLogQueryService.MAX_PAGE_SIZE).items();
+    }
+
+    @GetMapping("/audit-logs/page")
+    public AuditLogPageDto getAuditLogPage(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String performedBy,
+            @RequestParam(required = false) String target,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return auditLogQueryService.findPage(new AuditLogFilter(action, performedBy, target, from, to), cursor, size);
+    }
+
+    @GetMapping("/audit-logs/export")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String performedBy,
+            @RequestParam(required = false) String target,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        AuditLogFilter filter = new AuditLogFilter(action, performedBy, target, from, to);
+        StreamingResponseBody body = out -> auditLogQueryService.exportNdjson(filter, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=audit_logs.ndjson")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @PostMapping("/users/{id}/restore")
@@ -62,16 +94,12 @@ public class AdminController {
     public List<Map<String, Object>> getLaggingManuals() {
         long totalUsers = userRepository.countByDeletedAtIsNull();
         List<Manual> manuals = manualRepository.findAll();
-        List<Object[]> stats = progressRepository.countCompletionsPerManual();
-
-        Map<Long, Long> completionCounts = stats.stream()
-                .collect(Collectors.toMap(
-                        row -> (Long) row[0],
-                        row -> (Long) row[1]));
+        // Completions by active users: matrix popcount minus deleted users
+        BitSet deletedUsers = completionMatrix.userMask(userRepository.findDeletedIds());
 
         return manuals.stream()
                 .map(m -> {
-                    long count = completionCounts.getOrDefault(m.getId(), 0L);
+                    long count = completionMatrix.completionCount(m.getId(), deletedUsers);
                     double rate = totalUsers > 0 ? (double) count / totalUsers * 100 : 0;
                     Map<String, Object> map = new HashMap<>();
                     map.put("id", m.getId());
@@ -86,7 +114,7 @@ public class AdminController {
     }
 
     @GetMapping("/export/compliance")
-    public ResponseEntity<byte[]> exportComplianceCsv(
+    public ResponseEntity<StreamingResponseBody> exportComplianceCsv(
             @RequestParam(required = false) String facility,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
@@ -94,12 +122,12 @@ public class AdminController {
         LocalDate start = startDate != null && !startDate.isEmpty() ? LocalDate.parse(startDate) : null;
         LocalDate end = endDate != null && !endDate.isEmpty() ? LocalDate.parse(endDate) : null;
 
-        byte[] csvData = exportService.exportProgressCsv(facility, start, end);
+        StreamingResponseBody body = out -> exportService.writeProgressCsv(facility, start, end, out);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=compliance_report.csv")
                 .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-                .body(csvData);
+                .body(body);
     }
 
     @PatchMapping("/users/{id}/leave-settings")
@@ -10,7 +10,6 @@ import java.time.LocalDate;
 import java.util.List;
 
 import com.medical.wiki.dto.AnnouncementDto;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -22,17 +21,13 @@ public class AnnouncementController {
     // Existing users (Dashboard)
     @GetMapping("/announcements")
     public List<AnnouncementDto> getMyAnnouncements(@RequestHeader(value = "X-User-Id") Long userId) {
-        return announcementService.getAnnouncementsForUser(userId).stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return announcementService.getAnnouncementsForUser(userId);
     }
 
     // Admin/Developer Management API
     @GetMapping("/admin/announcements")
     public List<AnnouncementDto> getManageableAnnouncements(@RequestHeader(value = "X-User-Id") Long userId) {
-        return announcementService.getManageableAnnouncements(userId).stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return announcementService.toDtos(announcementService.getManageableAnnouncements(userId));
     }
 
     @PostMapping("/admin/announcements")
@@ -78,22 +73,7 @@ public class AnnouncementController {
     }
 
     private AnnouncementDto toDto(Announcement announcement) {
-        String wikiTitle = announcementService.getWikiTitle(announcement.getRelatedWikiId());
-        return AnnouncementDto.builder()
-                .id(announcement.getId())
-                .title(announcement.getTitle())
-                .content(announcement.getContent())
-                .priority(announcement.getPriority())
-                .displayUntil(announcement.getDisplayUntil())
-                .facilityId(announcement.getFacilityId())
-                .createdAt(announcement.getCreatedAt())
-                .createdByName(announcement.getCreatedBy() != null ? announcement.getCreatedBy().getName() : "Unknown")
-                .relatedWikiId(announcement.getRelatedWikiId())
-                .relatedWikiTitle(wikiTitle)
-                .relatedEventId(announcement.getRelatedEventId())
-                .relatedEventTitle(announcementService.getEventTitle(announcement.getRelatedEventId()))
-                .relatedType(announcement.getRelatedType())
-                .build();
+        return announcementService.toDtos(List.of(announcement)).get(0);
     }
 
     @Data
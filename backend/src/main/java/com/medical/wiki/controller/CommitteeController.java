@@ -2,9 +2,11 @@ package com.medical.wiki.controller;
 
 import com.medical.wiki.entity.Committee;
 import com.medical.wiki.service.CommitteeService;
+import com.medical.wiki.service.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.util.List;
 
@@ -14,9 +16,14 @@ import java.util.List;
 public class CommitteeController {
 
     private final CommitteeService committeeService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
-    public List<Committee> getAllCommittees() {
+    public List<Committee> getAllCommittees(NativeWebRequest webRequest) {
+        if (resourceVersions.checkNotModified(webRequest,
+                resourceVersions.etag(ResourceVersions.Resource.COMMITTEES))) {
+            return null;
+        }
         return committeeService.getAllCommittees();
     }
 
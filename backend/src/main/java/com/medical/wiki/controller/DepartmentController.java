@@ -4,9 +4,12 @@ import com.medical.wiki.dto.DepartmentDto;
 import com.medical.wiki.entity.Department;
 import com.medical.wiki.repository.DepartmentRepository;
 import com.medical.wiki.repository.FacilityRepository;
+import com.medical.wiki.service.FacilityDirectory;
+import com.medical.wiki.service.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,27 +21,30 @@ import java.util.Map;
 public class DepartmentController {
     private final DepartmentRepository departmentRepository;
     private final FacilityRepository facilityRepository;
+    private final ResourceVersions resourceVersions;
+    private final FacilityDirectory facilityDirectory;
 
     @GetMapping
-    public List<DepartmentDto> getAll() {
-        return departmentRepository.findByDeletedAtIsNullOrderByNameAsc()
-                .stream()
-                .map(DepartmentDto::from)
-                .toList();
+    public List<DepartmentDto> getAll(NativeWebRequest webRequest) {
+        if (resourceVersions.checkNotModified(webRequest,
+                resourceVersions.etag(ResourceVersions.Resource.DEPARTMENTS))) {
+            return null;
+        }
+        return facilityDirectory.departments();
     }
 
     @GetMapping("/by-facility/{facilityId}")
-    public List<DepartmentDto> getByFacility(@PathVariable Long facilityId) {
-        return departmentRepository.findByFacilityIdAndDeletedAtIsNullOrderByNameAsc(facilityId)
-                .stream()
-                .map(DepartmentDto::from)
-                .toList();
+    public List<DepartmentDto> getByFacility(@PathVariable Long facilityId, NativeWebRequest webRequest) {
+        if (resourceVersions.checkNotModified(webRequest,
+                resourceVersions.etag(ResourceVersions.Resource.DEPARTMENTS))) {
+            return null;
+        }
+        return facilityDirectory.departmentsOf(facilityId);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<DepartmentDto> getById(@PathVariable Long id) {
-        return departmentRepository.findByIdAndDeletedAtIsNull(id)
-                .map(DepartmentDto::from)
+        return facilityDirectory.findDepartment(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -65,6 +71,8 @@ public class DepartmentController {
                             .facility(facility)
                             .build();
                     departmentRepository.save(department);
+                    resourceVersions.bump(ResourceVersions.Resource.DEPARTMENTS);
+                    facilityDirectory.refresh();
                     return ResponseEntity.ok(DepartmentDto.from(department));
                 })
                 .orElse(ResponseEntity.badRequest().body(Map.of("error", "指定された施設が見つかりません")));
@@ -80,6 +88,8 @@ public class DepartmentController {
                     }
                     department.setName(name.trim());
                     departmentRepository.save(department);
+                    resourceVersions.bump(ResourceVersions.Resource.DEPARTMENTS);
+                    facilityDirectory.refresh();
                     return ResponseEntity.ok(DepartmentDto.from(department));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -91,6 +101,8 @@ public class DepartmentController {
                 .map(department -> {
                     department.setDeletedAt(LocalDateTime.now());
                     departmentRepository.save(department);
+                    resourceVersions.bump(ResourceVersions.Resource.DEPARTMENTS);
+                    facilityDirectory.refresh();
                     return ResponseEntity.ok(Map.of("message", "部署を削除しました"));
                 })
                 .orElse(ResponseEntity.notFound().build());
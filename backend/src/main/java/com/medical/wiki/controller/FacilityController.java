@@ -4,9 +4,12 @@ import com.medical.wiki.dto.FacilityDto;
 import com.medical.wiki.entity.Facility;
 import com.medical.wiki.repository.FacilityRepository;
 import com.medical.wiki.repository.DepartmentRepository;
+import com.medical.wiki.service.FacilityDirectory;
+import com.medical.wiki.service.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,35 +22,40 @@ public class FacilityController {
     private final FacilityRepository facilityRepository;
     private final DepartmentRepository departmentRepository;
 
-    private final com.medical.wiki.repository.UserRepository userRepository;
+    private final com.medical.wiki.service.AnnouncementFeedCache announcementFeedCache;
+    private final com.medical.wiki.service.UserPrincipalCache userPrincipalCache;
+    private final ResourceVersions resourceVersions;
+    private final FacilityDirectory facilityDirectory;
 
     @GetMapping
-    public List<FacilityDto> getAll() {
+    public List<FacilityDto> getAll(NativeWebRequest webRequest) {
         org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder
                 .getContext().getAuthentication();
 
+        com.medical.wiki.service.UserPrincipalCache.CachedPrincipal user = null;
         if (auth.getPrincipal() instanceof com.medical.wiki.config.UserPrincipal principal) {
-            com.medical.wiki.entity.User user = userRepository.findById(principal.getId())
+            user = userPrincipalCache.get(principal.getId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
+        }
 
-            if (user.getRole() == com.medical.wiki.entity.User.Role.ADMIN) {
-                return facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
-                        .map(FacilityDto::from)
-                        .map(List::of)
-                        .orElse(List.of());
-            }
+        // Admins only see their own facility: the tag varies by role and facility
+        Object[] scope = user != null ? new Object[] { user.role(), user.facility() } : new Object[0];
+        if (resourceVersions.checkNotModified(webRequest,
+                resourceVersions.etag(ResourceVersions.Resource.FACILITIES, scope))) {
+            return null;
         }
 
-        return facilityRepository.findByDeletedAtIsNullOrderByNameAsc()
-                .stream()
-                .map(FacilityDto::from)
-                .toList();
+        if (user != null && user.role() == com.medical.wiki.entity.User.Role.ADMIN) {
+            return facilityDirectory.findFacilityByName(user.facility())
+                    .map(List::of)
+                    .orElse(List.of());
+        }
+        return facilityDirectory.facilities();
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<FacilityDto> getById(@PathVariable Long id) {
-        return facilityRepository.findByIdAndDeletedAtIsNull(id)
-                .map(FacilityDto::from)
+        return facilityDirectory.findFacility(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -63,6 +71,10 @@ public class FacilityController {
         }
         Facility facility = Facility.builder().name(name.trim()).build();
         facilityRepository.save(facility);
+        // Feeds are keyed by facility name
+        announcementFeedCache.invalidateAll();
+        resourceVersions.bump(ResourceVersions.Resource.FACILITIES);
+        facilityDirectory.refresh();
         return ResponseEntity.ok(FacilityDto.from(facility));
     }
 
@@ -76,6 +88,11 @@ public class FacilityController {
                     }
                     facility.setName(name.trim());
                     facilityRepository.save(facility);
+                    announcementFeedCache.invalidateAll();
+                    // Departments carry the facility name
+                    resourceVersions.bump(ResourceVersions.Resource.FACILITIES);
+                    resourceVersions.bump(ResourceVersions.Resource.DEPARTMENTS);
+                    facilityDirectory.refresh();
                     return ResponseEntity.ok(FacilityDto.from(facility));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -93,6 +110,10 @@ public class FacilityController {
                             });
                     facility.setDeletedAt(LocalDateTime.now());
                     facilityRepository.save(facility);
+                    announcementFeedCache.invalidateAll();
+                    resourceVersions.bump(ResourceVersions.Resource.FACILITIES);
+                    resourceVersions.bump(ResourceVersions.Resource.DEPARTMENTS);
+                    facilityDirectory.refresh();
                     return ResponseEntity.ok(Map.of("message", "施設を削除しました"));
                 })
                 .orElse(ResponseEntity.notFound().build());
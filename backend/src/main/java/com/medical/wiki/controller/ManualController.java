@@ -1,34 +1,70 @@
 package com.medical.wiki.controller;
 
 import com.medical.wiki.dto.*;
+import com.medical.wiki.service.FileRangeSender;
+import com.medical.wiki.service.ManualCatalogService;
 import com.medical.wiki.service.ManualService;
+import com.medical.wiki.service.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.core.io.Resource;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/manuals")
 @RequiredArgsConstructor
 public class ManualController {
     private final ManualService manualService;
+    private final FileRangeSender fileRangeSender;
+    private final ManualCatalogService manualCatalogService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
     public ResponseEntity<List<ManualDto>> getAllManuals(
             @RequestParam(required = false) String category,
-            @RequestHeader("X-User-Id") Long userId) {
+            @RequestHeader("X-User-Id") Long userId,
+            NativeWebRequest webRequest) {
+        if (resourceVersions.checkNotModified(webRequest, manualListEtag(userId))) {
+            return null;
+        }
         if (category != null && !category.isEmpty()) {
             return ResponseEntity.ok(manualService.getManualsByCategory(category, userId));
         }
         return ResponseEntity.ok(manualService.getAllManuals(userId));
     }
 
+    // Lightweight list without content; sort = updated | created | title
+    @GetMapping("/catalog")
+    public ResponseEntity<ManualCatalogPageDto> getCatalog(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            NativeWebRequest webRequest) {
+        if (resourceVersions.checkNotModified(webRequest, manualListEtag(userId))) {
+            return null;
+        }
+        return ResponseEntity.ok(manualCatalogService.findPage(userId, category,
+                ManualCatalogService.Sort.from(sort), cursor, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ManualSearchResultDto>> searchManuals(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(manualService.searchManuals(query, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ManualDto> getManual(
             @PathVariable Long id,
@@ -56,31 +92,57 @@ public class ManualController {
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<List<String>> getCategories() {
+    public ResponseEntity<List<String>> getCategories(NativeWebRequest webRequest) {
+        if (resourceVersions.checkNotModified(webRequest,
+                resourceVersions.etag(ResourceVersions.Resource.MANUALS))) {
+            return null;
+        }
         return ResponseEntity.ok(manualService.getAllCategories());
     }
 
-    @PostMapping("/{id}/pdf")
+    @PostMapping(value = "/{id}/pdf", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<String> uploadPdf(
             @PathVariable Long id,
             @RequestParam("file") MultipartFile file,
             @RequestHeader("X-User-Id") Long userId) throws IOException {
         // Basic check for ADMIN role could be added here or via SecurityConfig
-        String filename = manualService.savePdf(id, file);
-        return ResponseEntity.ok(filename);
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(manualService.savePdf(id, in));
+        }
+    }
+
+    // Raw PDF body: streamed straight from the request without multipart spooling
+    @PostMapping(value = "/{id}/pdf", consumes = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<String> uploadPdfStream(
+            @PathVariable Long id,
+            @RequestHeader("X-User-Id") Long userId,
+            HttpServletRequest request) throws IOException {
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(manualService.savePdf(id, in));
+        }
     }
 
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<Resource> getPdf(
+    public void getPdf(
             @PathVariable Long id,
             @RequestHeader(value = "X-User-Id", required = false) Long userId,
-            jakarta.servlet.http.HttpServletRequest request) {
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<ManualService.PdfFile> pdf = manualService.getPdfFile(id);
+        if (pdf.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
         String ipAddress = request.getRemoteAddr();
-        return manualService.getPdfResource(id, userId, ipAddress)
-                .map(resource -> ResponseEntity.ok()
-                        .contentType(MediaType.APPLICATION_PDF)
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource))
-                .orElse(ResponseEntity.notFound().build());
+        String etag = pdf.get().sha256() != null ? "\"" + pdf.get().sha256() + "\"" : null;
+        fileRangeSender.send(request, response, pdf.get().path(), MediaType.APPLICATION_PDF_VALUE, etag,
+                "inline; filename=\"manual_" + id + ".pdf\"",
+                () -> manualService.recordPdfDownload(id, userId, ipAddress));
+    }
+
+    // Lists carry the caller's read flags, so the tag includes their progress version
+    private String manualListEtag(Long userId) {
+        return resourceVersions.etag(ResourceVersions.Resource.MANUALS, userId,
+                resourceVersions.progressVersion(userId));
     }
 }
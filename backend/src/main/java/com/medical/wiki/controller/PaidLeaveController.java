@@ -1,8 +1,10 @@
 package com.medical.wiki.controller;
 
+import com.medical.wiki.dto.BalanceRepairStatusDto;
 import com.medical.wiki.dto.PaidLeaveDto;
 import com.medical.wiki.entity.PaidLeave;
 import com.medical.wiki.entity.PaidLeaveAccrual;
+import com.medical.wiki.service.BalanceRepairJob;
 import com.medical.wiki.service.PaidLeaveService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +20,7 @@ import java.util.List;
 public class PaidLeaveController {
 
     private final PaidLeaveService service;
+    private final BalanceRepairJob balanceRepairJob;
 
     @PostMapping("/leaves/apply")
     public PaidLeaveDto submitRequest(
@@ -89,8 +92,14 @@ public class PaidLeaveController {
 
     @PostMapping("/admin/system/fix-balance-consistency")
     @PreAuthorize("hasAnyRole('ADMIN', 'DEVELOPER')")
-    public void fixBalanceConsistency() {
-        service.fixBalanceConsistency();
+    public BalanceRepairStatusDto fixBalanceConsistency() {
+        return balanceRepairJob.start();
+    }
+
+    @GetMapping("/admin/system/fix-balance-consistency")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DEVELOPER')")
+    public BalanceRepairStatusDto getFixBalanceConsistencyStatus() {
+        return balanceRepairJob.getStatus();
     }
 
     @Data
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/progress")
@@ -31,4 +32,9 @@ public class ProgressController {
     public ResponseEntity<List<UserProgressDto>> getAllUsersProgress() {
         return ResponseEntity.ok(progressService.getAllUsersProgress());
     }
+
+    @GetMapping("/admin/facility-rates")
+    public ResponseEntity<Map<String, Double>> getFacilityCompletionRates() {
+        return ResponseEntity.ok(progressService.getFacilityCompletionRates());
+    }
 }
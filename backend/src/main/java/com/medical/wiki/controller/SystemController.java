@@ -12,6 +12,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.lang.management.ManagementFactory;
 import java.time.LocalDate;
@@ -98,21 +99,20 @@ public class SystemController {
     }
 
     @GetMapping("/compliance/export/csv")
-    public ResponseEntity<byte[]> exportProgressCsv(
+    public ResponseEntity<StreamingResponseBody> exportProgressCsv(
             @RequestParam(required = false) String facility,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
 
-        byte[] csvData = complianceExportService.exportProgressCsv(facility, start, end);
+        StreamingResponseBody body = out -> complianceExportService.writeProgressCsv(facility, start, end, out);
 
         String filename = String.format("compliance_report_%s.csv",
                 LocalDate.now().toString());
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(csvData.length))
                 .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-                .body(csvData);
+                .body(body);
     }
 
     // ============ User Management APIs ============
@@ -157,8 +157,8 @@ public class SystemController {
             @RequestHeader(value = "X-User-Id", required = false) Long executorId) {
         try {
             // Backward compatibility: passing null for restoreIds
-            userService.bulkRegisterUsers(dtos, executorId, null);
-            return ResponseEntity.ok(Map.of("success", true));
+            return ResponseEntity.ok(Map.of("success", true,
+                    "result", userService.bulkRegisterUsers(dtos, executorId, null)));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
@@ -168,8 +168,8 @@ public class SystemController {
     public ResponseEntity<?> bulkRegisterV2(@RequestBody BulkRegisterRequest request,
             @RequestHeader(value = "X-User-Id", required = false) Long executorId) {
         try {
-            userService.bulkRegisterUsers(request.users, executorId, request.restoreIds);
-            return ResponseEntity.ok(Map.of("success", true));
+            return ResponseEntity.ok(Map.of("success", true,
+                    "result", userService.bulkRegisterUsers(request.users, executorId, request.restoreIds)));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
@@ -1,12 +1,19 @@
 package com.medical.wiki.controller;
 
+import com.medical.wiki.dto.CheckInReceiptDto;
+import com.medical.wiki.dto.TrainingResponseAggregateDto;
 import com.medical.wiki.entity.TrainingResponse;
+import com.medical.wiki.service.TrainingCheckInQueue;
+import com.medical.wiki.service.TrainingResponseExportService;
 import com.medical.wiki.service.TrainingResponseService;
 import com.medical.wiki.config.UserPrincipal;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -17,13 +24,17 @@ import java.util.Map;
 public class TrainingResponseController {
 
     private final TrainingResponseService trainingResponseService;
+    private final TrainingCheckInQueue trainingCheckInQueue;
+    private final TrainingResponseExportService trainingResponseExportService;
 
+    // Acknowledged once queued; the response row is written asynchronously in a batch
     @PostMapping("/{eventId}")
-    public TrainingResponse submitResponse(@AuthenticationPrincipal UserPrincipal userPrincipal,
+    public ResponseEntity<CheckInReceiptDto> submitResponse(@AuthenticationPrincipal UserPrincipal userPrincipal,
             @PathVariable Long eventId,
             @RequestBody Map<String, String> payload) {
         String answersJson = payload.get("answersJson");
-        return trainingResponseService.submitResponse(userPrincipal.getId(), eventId, answersJson);
+        return ResponseEntity.accepted()
+                .body(trainingCheckInQueue.submit(userPrincipal.getId(), eventId, answersJson));
     }
 
     @GetMapping("/{eventId}")
@@ -38,7 +49,34 @@ public class TrainingResponseController {
     }
 
     @GetMapping("/{eventId}/export")
-    public String getExport(@PathVariable Long eventId) {
-        return trainingResponseService.exportResponses(eventId);
+    public ResponseEntity<StreamingResponseBody> getExport(@PathVariable Long eventId) {
+        StreamingResponseBody body = out -> trainingResponseExportService.writeText(eventId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/plain; charset=UTF-8"))
+                .body(body);
+    }
+
+    @GetMapping("/{eventId}/export/csv")
+    public ResponseEntity<StreamingResponseBody> getExportCsv(@PathVariable Long eventId) {
+        StreamingResponseBody body = out -> trainingResponseExportService.writeCsv(eventId, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=training_responses_" + eventId + ".csv")
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
+    }
+
+    @GetMapping("/{eventId}/export/ndjson")
+    public ResponseEntity<StreamingResponseBody> getExportNdjson(@PathVariable Long eventId) {
+        StreamingResponseBody body = out -> trainingResponseExportService.writeNdjson(eventId, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=training_responses_" + eventId + ".ndjson")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/{eventId}/aggregate")
+    public TrainingResponseAggregateDto getAggregate(@PathVariable Long eventId) {
+        return trainingResponseExportService.aggregate(eventId);
     }
 }
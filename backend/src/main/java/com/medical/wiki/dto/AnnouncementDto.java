@@ -27,4 +27,23 @@ public class AnnouncementDto {
     private Long relatedEventId;
     private String relatedEventTitle;
     private String relatedType; // "WIKI" or "TRAINING_EVENT" or null
+
+    public static AnnouncementDto fromEntity(Announcement announcement, String relatedWikiTitle,
+            String relatedEventTitle) {
+        return AnnouncementDto.builder()
+                .id(announcement.getId())
+                .title(announcement.getTitle())
+                .content(announcement.getContent())
+                .priority(announcement.getPriority())
+                .displayUntil(announcement.getDisplayUntil())
+                .facilityId(announcement.getFacilityId())
+                .createdAt(announcement.getCreatedAt())
+                .createdByName(announcement.getCreatedBy() != null ? announcement.getCreatedBy().getName() : "Unknown")
+                .relatedWikiId(announcement.getRelatedWikiId())
+                .relatedWikiTitle(relatedWikiTitle)
+                .relatedEventId(announcement.getRelatedEventId())
+                .relatedEventTitle(relatedEventTitle)
+                .relatedType(announcement.getRelatedType())
+                .build();
+    }
 }
@@ -0,0 +1,14 @@
+package com.medical.wiki.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit log filters; null fields are ignored. Time range is [from, to).
+ */
+public record AuditLogFilter(
+        String action,
+        String performedBy,
+        String target,
+        LocalDateTime from,
+        LocalDateTime to) {
+}
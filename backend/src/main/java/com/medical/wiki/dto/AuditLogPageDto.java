@@ -0,0 +1,11 @@
+package com.medical.wiki.dto;
+
+import java.util.List;
+
+/**
+ * One page of audit logs, newest first. nextCursor is null on the last page.
+ */
+public record AuditLogPageDto(
+        List<AuditLogDto> items,
+        String nextCursor) {
+}
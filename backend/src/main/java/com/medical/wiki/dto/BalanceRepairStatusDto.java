@@ -0,0 +1,29 @@
+package com.medical.wiki.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the background paid leave balance repair job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceRepairStatusDto {
+    private String status; // IDLE, RUNNING, COMPLETED, FAILED
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long resumedFromUserId; // 0 = fresh run
+    private Long checkpointUserId;
+    private long totalUsers;
+    private long processedUsers;
+    private long failedUsers;
+    private double usersPerSecond;
+    private int chunkSize;
+    private int workers;
+}
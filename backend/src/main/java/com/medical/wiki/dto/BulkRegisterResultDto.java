@@ -0,0 +1,19 @@
+package com.medical.wiki.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of a bulk user import with per-phase wall-clock timings.
+ */
+@Data
+@Builder
+public class BulkRegisterResultDto {
+    private int newCount;
+    private int restoredCount;
+    private int hashWorkers;
+    private long validateMillis;
+    private long hashMillis;
+    private long writeMillis;
+    private long totalMillis;
+}
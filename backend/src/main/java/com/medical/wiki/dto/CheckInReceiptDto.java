@@ -0,0 +1,18 @@
+package com.medical.wiki.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class CheckInReceiptDto {
+    private String receiptId;
+    private Long eventId;
+    private Long userId;
+    // ACCEPTED: queued for writing / DUPLICATE: the same check-in is already queued
+    // (an already stored check-in is answered with 409 instead of a receipt)
+    private String status;
+    private LocalDateTime acceptedAt;
+}
@@ -0,0 +1,16 @@
+package com.medical.wiki.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Manual list entry without the body; the content is served by GET /api/manuals/{id}.
+ */
+public record ManualCatalogItemDto(
+        Long id,
+        String title,
+        String category,
+        String authorName,
+        LocalDateTime updatedAt,
+        boolean hasPdf,
+        boolean isRead) {
+}
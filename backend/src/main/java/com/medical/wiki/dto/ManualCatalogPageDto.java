@@ -0,0 +1,11 @@
+package com.medical.wiki.dto;
+
+import java.util.List;
+
+/**
+ * One page of the manual catalog. nextCursor is null on the last page.
+ */
+public record ManualCatalogPageDto(
+        List<ManualCatalogItemDto> items,
+        String nextCursor) {
+}
@@ -0,0 +1,21 @@
+package com.medical.wiki.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One manual search hit. highlights are [start, end) offsets into snippet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ManualSearchResultDto {
+    private Long id;
+    private String title;
+    private String category;
+    private double score;
+    private String snippet;
+    private List<int[]> highlights;
+}
@@ -0,0 +1,30 @@
+package com.medical.wiki.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class TrainingResponseAggregateDto {
+    private Long eventId;
+    private String eventTitle;
+    private long responseCount;
+    private List<QuestionAggregate> questions;
+
+    @Data
+    @Builder
+    public static class QuestionAggregate {
+        private String question;
+        private long answeredCount;
+        // Numeric answers only (e.g. 1-5 ratings); null when none
+        private Long numericCount;
+        private Double mean;
+        private Double min;
+        private Double max;
+        // Answer -> count for choice-like questions; null once there are too many distinct answers (free text)
+        private Map<String, Long> distribution;
+    }
+}
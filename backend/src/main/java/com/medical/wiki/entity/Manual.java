@@ -5,7 +5,13 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "manuals")
+@Table(name = "manuals", indexes = {
+        @Index(name = "idx_manual_pdf_path", columnList = "pdf_path"),
+        // Catalog keyset paging (ManualCatalogService.Sort)
+        @Index(name = "idx_manual_updated_id", columnList = "updated_at, id"),
+        @Index(name = "idx_manual_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_manual_title_id", columnList = "title, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -28,13 +34,18 @@ public class Manual {
     @Column(name = "pdf_path")
     private String pdfPath;
 
+    // SHA-256 (hex) of the stored PDF; also the PDF's ETag
+    @Column(name = "pdf_sha256", length = 64)
+    private String pdfSha256;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
-    @Column(name = "updated_at")
+    // Set on create too, so never-updated manuals sort by creation time
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 }
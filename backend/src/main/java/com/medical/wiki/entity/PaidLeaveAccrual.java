@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "paid_leave_accruals")
+@Table(name = "paid_leave_accruals", indexes = {
+        @Index(name = "idx_accrual_user_granted", columnList = "user_id, granted_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,6 +38,10 @@ public class PaidLeaveAccrual {
     @Column(name = "deadline")
     private java.time.LocalDate deadline;
 
+    // Ledger: days still available in this grant. Null until the ledger is built.
+    @Column(name = "remaining_days")
+    private Double remainingDays;
+
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
@@ -5,7 +5,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "system_logs")
+@Table(name = "system_logs", indexes = {
+        @Index(name = "idx_log_ts_id", columnList = "timestamp, id"),
+        @Index(name = "idx_log_action_ts", columnList = "action, timestamp"),
+        @Index(name = "idx_log_performed_by_ts", columnList = "performed_by, timestamp"),
+        @Index(name = "idx_log_target_ts", columnList = "target, timestamp")
+})
 @Getter
 @Setter
 @NoArgsConstructor
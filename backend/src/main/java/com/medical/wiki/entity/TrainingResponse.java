@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "training_responses")
+// One response per (event, user); enforced by the database for concurrent check-ins
+@Table(name = "training_responses", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_training_response_event_user", columnNames = { "event_id", "user_id" })
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,6 +1,7 @@
 package com.medical.wiki.repository;
 
 import com.medical.wiki.entity.Announcement;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,6 +25,7 @@ public interface AnnouncementRepository extends JpaRepository<Announcement, Long
     // For Admin Management (No date filter, logic deleted excluded)
     // Admin sees only their facility's announcements (or global if they are
     // developer/superadmin - handled in service calling different methods)
+    @EntityGraph(attributePaths = "createdBy")
     List<Announcement> findByFacilityIdAndDeletedAtIsNullOrderByCreatedAtDesc(Long facilityId);
 
     // For Developer (Global + All Facilities)
@@ -35,5 +37,6 @@ public interface AnnouncementRepository extends JpaRepository<Announcement, Long
 
     // For Developer (Global announcements) - keeping existing method if needed, but
     // likely replaced by above for "viewing all"
+    @EntityGraph(attributePaths = "createdBy")
     List<Announcement> findByFacilityIdIsNullAndDeletedAtIsNullOrderByCreatedAtDesc();
 }
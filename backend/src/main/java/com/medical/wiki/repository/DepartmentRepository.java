@@ -1,11 +1,13 @@
 package com.medical.wiki.repository;
 
 import com.medical.wiki.entity.Department;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import java.util.Optional;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+    @EntityGraph(attributePaths = "facility")
     List<Department> findByDeletedAtIsNullOrderByNameAsc();
 
     List<Department> findByFacilityIdAndDeletedAtIsNullOrderByNameAsc(Long facilityId);
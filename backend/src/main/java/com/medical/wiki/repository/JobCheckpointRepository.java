@@ -0,0 +1,7 @@
+package com.medical.wiki.repository;
+
+import com.medical.wiki.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -1,11 +1,28 @@
 package com.medical.wiki.repository;
 
 import com.medical.wiki.entity.Manual;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ManualRepository extends JpaRepository<Manual, Long> {
+    // Author is fetched with the manual (ManualDto reads its name)
+    @EntityGraph(attributePaths = "author")
     List<Manual> findByCategory(String category);
 
+    @EntityGraph(attributePaths = "author")
     List<Manual> findAllByOrderByCreatedAtDesc();
+
+    // Every stored PDF still referenced, for the orphan sweep
+    @Query("SELECT DISTINCT m.pdfPath FROM Manual m WHERE m.pdfPath IS NOT NULL")
+    Set<String> findAllPdfPaths();
+
+    // [id, title] for batch title resolution
+    @Query("SELECT m.id, m.title FROM Manual m WHERE m.id IN :ids")
+    List<Object[]> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
 }
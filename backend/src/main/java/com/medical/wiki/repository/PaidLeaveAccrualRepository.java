@@ -1,7 +1,14 @@
 package com.medical.wiki.repository;
 
 import com.medical.wiki.entity.PaidLeaveAccrual;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PaidLeaveAccrualRepository extends JpaRepository<PaidLeaveAccrual, Long> {
@@ -9,6 +16,42 @@ public interface PaidLeaveAccrualRepository extends JpaRepository<PaidLeaveAccru
 
     List<PaidLeaveAccrual> findByUserIdAndDeletedAtIsNullOrderByGrantedAtAsc(Long userId);
 
+    // Ledger rebuild: row locks serialize it with approvals of the same user
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PaidLeaveAccrual p WHERE p.user.id = :userId AND p.deletedAt IS NULL ORDER BY p.grantedAt ASC")
+    List<PaidLeaveAccrual> findForUpdateByUserId(@Param("userId") Long userId);
+
     @org.springframework.data.jpa.repository.Query("SELECT SUM(p.daysGranted) FROM PaidLeaveAccrual p WHERE p.user.id = :userId AND p.deletedAt IS NULL")
     Double sumGrantedDays(@org.springframework.data.repository.query.Param("userId") Long userId);
+
+    // Deadlines of existing grants (grantMissingAccruals existence check)
+    @Query("SELECT p.deadline FROM PaidLeaveAccrual p WHERE p.user.id = :userId " +
+            "AND p.deletedAt IS NULL AND p.deadline IS NOT NULL")
+    List<LocalDate> findDeadlinesByUserId(@Param("userId") Long userId);
+
+    // Leave monitoring: grants of many users in one query
+    List<PaidLeaveAccrual> findByUser_IdInAndDeletedAtIsNullOrderByGrantedAtAsc(List<Long> userIds);
+
+    // Ledger queries
+    // Grants without a deadline (legacy rows) expire 2 years after grantedAt.
+    long countByUserIdAndDeletedAtIsNullAndRemainingDaysIsNull(Long userId);
+
+    @Query("SELECT COALESCE(SUM(p.remainingDays), 0) FROM PaidLeaveAccrual p WHERE p.user.id = :userId " +
+            "AND p.deletedAt IS NULL " +
+            "AND (p.deadline > :today OR (p.deadline IS NULL AND p.grantedAt >= :legacyGrantedFrom))")
+    Double sumRemainingDays(@Param("userId") Long userId,
+            @Param("today") LocalDate today,
+            @Param("legacyGrantedFrom") LocalDateTime legacyGrantedFrom);
+
+    // Locked: concurrent approvals for the same user must not both deduct from the same remaining days
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PaidLeaveAccrual p WHERE p.user.id = :userId " +
+            "AND p.deletedAt IS NULL AND p.remainingDays > 0 " +
+            "AND p.grantedAt < :grantedBefore " +
+            "AND (p.deadline > :leaveDate OR (p.deadline IS NULL AND p.grantedAt >= :legacyGrantedFrom)) " +
+            "ORDER BY p.grantedAt ASC")
+    List<PaidLeaveAccrual> findConsumableBuckets(@Param("userId") Long userId,
+            @Param("leaveDate") LocalDate leaveDate,
+            @Param("grantedBefore") LocalDateTime grantedBefore,
+            @Param("legacyGrantedFrom") LocalDateTime legacyGrantedFrom);
 }
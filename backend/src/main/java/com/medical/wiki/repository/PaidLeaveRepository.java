@@ -12,6 +12,17 @@ public interface PaidLeaveRepository extends JpaRepository<PaidLeave, Long> {
 
         List<PaidLeave> findByUserIdAndStatusOrderByStartDateAsc(Long userId, PaidLeave.Status status);
 
+        // Locking read so approvals committed after this transaction's snapshot are still seen
+        @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_READ)
+        List<PaidLeave> findByUserIdAndStatusAndStartDateAfter(Long userId, PaidLeave.Status status,
+                        LocalDate startDate);
+
+        // Leave monitoring: approved leaves of many users in one query
+        List<PaidLeave> findByUser_IdInAndStatusOrderByStartDateAsc(List<Long> userIds, PaidLeave.Status status);
+
+        List<PaidLeave> findByUserIdAndStatusAndStartDateBetweenOrderByStartDateAsc(Long userId,
+                        PaidLeave.Status status, LocalDate from, LocalDate to);
+
         List<PaidLeave> findAllByOrderByStartDateDesc();
 
         long countByUserIdAndStatus(Long userId, PaidLeave.Status status);
@@ -11,8 +11,6 @@ import java.util.List;
 public interface SystemLogRepository extends JpaRepository<SystemLog, Long> {
     List<SystemLog> findTop100ByOrderByTimestampDesc();
 
-    List<SystemLog> findAllByOrderByTimestampDesc();
-
     long countByPerformedByAndActionAndTimestampAfter(String performedBy, String action, LocalDateTime timestamp);
 
     List<SystemLog> findTop3ByPerformedByOrderByTimestampDesc(String performedBy);
@@ -6,11 +6,16 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 public interface TrainingEventRepository extends JpaRepository<TrainingEvent, Long> {
 
+        // [id, title] for batch title resolution
+        @Query("SELECT e.id, e.title FROM TrainingEvent e WHERE e.id IN :ids")
+        List<Object[]> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+
         @Query("SELECT e FROM TrainingEvent e WHERE " +
                         "(e.facilityId IS NULL OR e.facilityId = :facilityId OR e.isAllFacilities = true) AND " +
                         "(e.targetCommitteeId IS NULL OR e.targetCommitteeId IN :committeeIds) AND " +
@@ -24,6 +29,9 @@ public interface TrainingEventRepository extends JpaRepository<TrainingEvent, Lo
                         @Param("jobType") String jobType,
                         @Param("now") LocalDateTime now);
 
+        // Current and upcoming events for TrainingEventAudienceIndex
+        List<TrainingEvent> findByDeletedAtIsNullAndEndTimeGreaterThanEqual(LocalDateTime now);
+
         // For Admin: Facility-specific events
         List<TrainingEvent> findByFacilityIdAndDeletedAtIsNullOrderByCreatedAtDesc(Long facilityId);
 
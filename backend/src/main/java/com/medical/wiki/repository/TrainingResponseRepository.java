@@ -8,6 +8,4 @@ public interface TrainingResponseRepository extends JpaRepository<TrainingRespon
     List<TrainingResponse> findByTrainingEventId(Long trainingEventId);
 
     List<TrainingResponse> findByUserId(Long userId);
-
-    boolean existsByTrainingEventIdAndUserId(Long trainingEventId, Long userId);
 }
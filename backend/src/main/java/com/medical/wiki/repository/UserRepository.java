@@ -23,6 +23,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @org.springframework.data.jpa.repository.Query(value = "SELECT * FROM users WHERE employee_id = :employeeId", nativeQuery = true)
     Optional<User> findByEmployeeIdIncludingDeleted(@Param("employeeId") String employeeId);
 
+    // Bulk import prefetch; callers chunk the id list
+    @org.springframework.data.jpa.repository.Query(value = "SELECT * FROM users WHERE employee_id IN (:employeeIds)", nativeQuery = true)
+    List<User> findByEmployeeIdInIncludingDeleted(@Param("employeeIds") java.util.Collection<String> employeeIds);
+
     // Compliance export queries
     List<User> findByFacilityAndDeletedAtIsNull(String facility);
 
@@ -36,4 +40,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByResetToken(String resetToken);
 
     List<User> findByFacilityInAndDeletedAtIsNull(List<String> facilities);
+
+    // Keyset paging over all users (including deleted) for background jobs
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
+
+    long countByIdGreaterThan(Long id);
+
+    @org.springframework.data.jpa.repository.Query("SELECT c.id FROM User u JOIN u.committees c WHERE u.id = :userId")
+    List<Long> findCommitteeIds(@Param("userId") Long userId);
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM User u WHERE u.deletedAt IS NOT NULL")
+    List<Long> findDeletedIds();
 }
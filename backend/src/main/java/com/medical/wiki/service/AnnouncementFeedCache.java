@@ -0,0 +1,118 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.AnnouncementDto;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Active announcement feeds, one per facility name (global announcements included) plus one
+ * for developers who see everything. A hit is served from memory. Entries are dropped when an
+ * announcement of their facility (or a global one) changes, and are only valid for the day
+ * they were built on, so announcements past displayUntil disappear at day rollover.
+ * Each entry records the generation its load started at and is checked on read against the
+ * last invalidation that covers it, so a load racing with an invalidation is never served.
+ */
+@Service
+public class AnnouncementFeedCache {
+
+    /**
+     * @param facilityName the user's facility name, "" when none; ignored when {@code all}
+     * @param all          developer feed (all facilities)
+     */
+    public record FeedKey(String facilityName, boolean all) {
+        public static final FeedKey ALL = new FeedKey("", true);
+
+        public static FeedKey of(String facilityName) {
+            return new FeedKey(facilityName == null ? "" : facilityName, false);
+        }
+    }
+
+    /**
+     * A loaded feed. {@code facilityId} is the facility the name resolved to (null when none).
+     */
+    public record Feed(Long facilityId, List<AnnouncementDto> items) {
+        public Feed {
+            items = List.copyOf(items);
+        }
+    }
+
+    private record Entry(Feed feed, LocalDate day, long generation) {
+    }
+
+    private final Map<FeedKey, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped on every invalidation
+    private final AtomicLong generation = new AtomicLong();
+    // Generation of the last invalidation of every feed / of any facility / per facility id
+    private final AtomicLong globalInvalidated = new AtomicLong();
+    private final AtomicLong anyInvalidated = new AtomicLong();
+    private final Map<Long, Long> facilityInvalidated = new ConcurrentHashMap<>();
+
+    public Feed get(FeedKey key, Function<FeedKey, Feed> loader) {
+        LocalDate today = LocalDate.now();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.day().equals(today) && isCurrent(key, entry)) {
+            return entry.feed();
+        }
+        long gen = generation.get();
+        Feed feed = loader.apply(key);
+        // Keep whichever load started later; a stale one is rejected by isCurrent on read
+        entries.merge(key, new Entry(feed, today, gen), (old, loaded) -> old.generation() > gen ? old : loaded);
+        return feed;
+    }
+
+    /**
+     * Drop feeds that can contain an announcement of {@code facilityId} (null = global, i.e. every feed),
+     * now and again after the current transaction commits.
+     */
+    public void invalidate(Long facilityId) {
+        evict(facilityId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(facilityId);
+                }
+            });
+        }
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void invalidateAll() {
+        evict(null);
+    }
+
+    private boolean isCurrent(FeedKey key, Entry entry) {
+        long gen = entry.generation();
+        if (gen < globalInvalidated.get()) {
+            return false;
+        }
+        if (key.all()) {
+            return gen >= anyInvalidated.get();
+        }
+        Long facilityId = entry.feed().facilityId();
+        return facilityId == null || gen >= facilityInvalidated.getOrDefault(facilityId, 0L);
+    }
+
+    private void evict(Long facilityId) {
+        long gen = generation.incrementAndGet();
+        anyInvalidated.accumulateAndGet(gen, Math::max);
+        if (facilityId == null) {
+            globalInvalidated.accumulateAndGet(gen, Math::max);
+            entries.clear();
+            return;
+        }
+        facilityInvalidated.merge(facilityId, gen, Math::max);
+        entries.entrySet().removeIf(e -> e.getKey().all()
+                || Objects.equals(e.getValue().feed().facilityId(), facilityId));
+    }
+}
@@ -1,10 +1,10 @@
 package com.medical.wiki.service;
 
+import com.medical.wiki.dto.AnnouncementDto;
+import com.medical.wiki.dto.FacilityDto;
 import com.medical.wiki.entity.Announcement;
-import com.medical.wiki.entity.Facility;
 import com.medical.wiki.entity.User;
 import com.medical.wiki.repository.AnnouncementRepository;
-import com.medical.wiki.repository.FacilityRepository;
 import com.medical.wiki.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -12,7 +12,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -20,31 +25,75 @@ public class AnnouncementService {
 
     private final AnnouncementRepository announcementRepository;
     private final UserRepository userRepository;
-    private final FacilityRepository facilityRepository;
+    private final FacilityDirectory facilityDirectory;
     private final com.medical.wiki.repository.ManualRepository manualRepository;
     private final com.medical.wiki.repository.TrainingEventRepository trainingEventRepository;
+    private final UserPrincipalCache principalCache;
+    private final AnnouncementFeedCache feedCache;
 
-    // Get active announcements for a specific user (Dashboard view)
-    @Transactional(readOnly = true)
-    public List<Announcement> getAnnouncementsForUser(Long userId) {
-        User user = userRepository.findById(userId)
+    // Get active announcements for a specific user (Dashboard view), served from the feed cache
+    public List<AnnouncementDto> getAnnouncementsForUser(Long userId) {
+        return feedFor(userId).items();
+    }
+
+    public int countAnnouncementsForUser(Long userId) {
+        return feedFor(userId).items().size();
+    }
+
+    private AnnouncementFeedCache.Feed feedFor(Long userId) {
+        UserPrincipalCache.CachedPrincipal user = principalCache.get(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Developer sees all active announcements
-        if (user.getRole() == User.Role.DEVELOPER) {
-            return announcementRepository.findAllActiveAnnouncements(LocalDate.now());
+        AnnouncementFeedCache.FeedKey key = user.role() == User.Role.DEVELOPER
+                ? AnnouncementFeedCache.FeedKey.ALL
+                : AnnouncementFeedCache.FeedKey.of(user.facility());
+        return feedCache.get(key, this::loadFeed);
+    }
+
+    private AnnouncementFeedCache.Feed loadFeed(AnnouncementFeedCache.FeedKey key) {
+        LocalDate today = LocalDate.now();
+        if (key.all()) {
+            return new AnnouncementFeedCache.Feed(null, toDtos(announcementRepository.findAllActiveAnnouncements(today)));
         }
 
-        Long facilityId = null;
-        if (user.getFacility() != null && !user.getFacility().isEmpty()) {
-            Facility facility = facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
-                    .orElse(null);
-            if (facility != null) {
-                facilityId = facility.getId();
+        Long facilityId = facilityDirectory.facilityIdOf(key.facilityName());
+        return new AnnouncementFeedCache.Feed(facilityId,
+                toDtos(announcementRepository.findActiveAnnouncements(facilityId, today)));
+    }
+
+    /**
+     * Convert announcements to DTOs, resolving related wiki and event titles with
+     * one IN query each instead of a lookup per announcement.
+     */
+    public List<AnnouncementDto> toDtos(List<Announcement> announcements) {
+        Set<Long> wikiIds = new HashSet<>();
+        Set<Long> eventIds = new HashSet<>();
+        for (Announcement a : announcements) {
+            if (a.getRelatedWikiId() != null) {
+                wikiIds.add(a.getRelatedWikiId());
+            }
+            if (a.getRelatedEventId() != null) {
+                eventIds.add(a.getRelatedEventId());
             }
         }
+        Map<Long, String> wikiTitles = wikiIds.isEmpty() ? Collections.<Long, String>emptyMap()
+                : titleMap(manualRepository.findTitlesByIdIn(wikiIds));
+        Map<Long, String> eventTitles = eventIds.isEmpty() ? Collections.<Long, String>emptyMap()
+                : titleMap(trainingEventRepository.findTitlesByIdIn(eventIds));
+
+        return announcements.stream()
+                .map(a -> AnnouncementDto.fromEntity(a, wikiTitles.get(a.getRelatedWikiId()),
+                        eventTitles.get(a.getRelatedEventId())))
+                .toList();
+    }
 
-        return announcementRepository.findActiveAnnouncements(facilityId, LocalDate.now());
+    private static Map<Long, String> titleMap(List<Object[]> rows) {
+        Map<Long, String> titles = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            titles.put((Long) row[0], (String) row[1]);
+        }
+        return titles;
     }
 
     // Get announcements for management (Admin view)
@@ -59,9 +108,10 @@ public class AnnouncementService {
             if (user.getFacility() == null || user.getFacility().isEmpty()) {
                 return List.of();
             }
-            Facility facility = facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
+            Long facilityId = facilityDirectory.findFacilityByName(user.getFacility())
+                    .map(FacilityDto::getId)
                     .orElseThrow(() -> new RuntimeException("Admin facility not found"));
-            return announcementRepository.findByFacilityIdAndDeletedAtIsNullOrderByCreatedAtDesc(facility.getId());
+            return announcementRepository.findByFacilityIdAndDeletedAtIsNullOrderByCreatedAtDesc(facilityId);
         }
     }
 
@@ -78,9 +128,10 @@ public class AnnouncementService {
                 throw new RuntimeException("Admin user has no facility assigned.");
             }
             // Admin can only create for their own facility
-            Facility facility = facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
+            Long facilityId = facilityDirectory.findFacilityByName(user.getFacility())
+                    .map(FacilityDto::getId)
                     .orElseThrow(() -> new RuntimeException("Admin facility not found"));
-            targetFacilityId = facility.getId();
+            targetFacilityId = facilityId;
         } else if (user.getRole() == User.Role.DEVELOPER) {
             // Developer - targetFacilityId can be null (Global) or specific if they pass
             // it.
@@ -100,7 +151,9 @@ public class AnnouncementService {
                 .createdBy(user)
                 .build();
 
-        return announcementRepository.save(announcement);
+        Announcement saved = announcementRepository.save(announcement);
+        feedCache.invalidate(saved.getFacilityId());
+        return saved;
     }
 
     @Transactional
@@ -115,10 +168,11 @@ public class AnnouncementService {
 
         // Permission check
         if (user.getRole() == User.Role.ADMIN) {
-            Facility facility = facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
+            Long facilityId = facilityDirectory.findFacilityByName(user.getFacility())
+                    .map(FacilityDto::getId)
                     .orElseThrow(() -> new RuntimeException("Admin facility not found"));
 
-            if (!facility.getId().equals(announcement.getFacilityId())) {
+            if (!facilityId.equals(announcement.getFacilityId())) {
                 throw new RuntimeException("Unauthorized to edit this announcement");
             }
         } else if (user.getRole() == User.Role.DEVELOPER) {
@@ -135,7 +189,9 @@ public class AnnouncementService {
         announcement.setRelatedEventId(relatedEventId);
         announcement.setRelatedType(relatedType);
 
-        return announcementRepository.save(announcement);
+        Announcement saved = announcementRepository.save(announcement);
+        feedCache.invalidate(saved.getFacilityId());
+        return saved;
     }
 
     @Transactional
@@ -148,31 +204,17 @@ public class AnnouncementService {
 
         // Permission check
         if (user.getRole() == User.Role.ADMIN) {
-            Facility facility = facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
+            Long facilityId = facilityDirectory.findFacilityByName(user.getFacility())
+                    .map(FacilityDto::getId)
                     .orElseThrow(() -> new RuntimeException("Admin facility not found"));
 
-            if (!facility.getId().equals(announcement.getFacilityId())) {
+            if (!facilityId.equals(announcement.getFacilityId())) {
                 throw new RuntimeException("Unauthorized to delete this announcement");
             }
         }
 
         announcement.setDeletedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
-    }
-
-    public String getWikiTitle(Long wikiId) {
-        if (wikiId == null)
-            return null;
-        return manualRepository.findById(wikiId)
-                .map(com.medical.wiki.entity.Manual::getTitle)
-                .orElse(null);
-    }
-
-    public String getEventTitle(Long eventId) {
-        if (eventId == null)
-            return null;
-        return trainingEventRepository.findById(eventId)
-                .map(com.medical.wiki.entity.TrainingEvent::getTitle)
-                .orElse(null);
+        feedCache.invalidate(announcement.getFacilityId());
     }
 }
@@ -0,0 +1,92 @@
+package com.medical.wiki.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Flattens a questionnaire answers JSON into question -> value with the streaming parser
+ * (no tree is built). Nested objects become dotted keys ("q1.reason"), arrays are joined
+ * with "; ". Values are String, Long, Double or Boolean. Unparseable input is returned
+ * under {@link #RAW_KEY}.
+ */
+final class AnswerFlattener {
+
+    static final String RAW_KEY = "_raw";
+
+    private AnswerFlattener() {
+    }
+
+    static Map<String, Object> flatten(JsonFactory factory, String json) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (json == null || json.isBlank()) {
+            return result;
+        }
+        try (JsonParser parser = factory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                result.put(RAW_KEY, json);
+                return result;
+            }
+            Deque<String> path = new ArrayDeque<>();
+            readObject(parser, path, result);
+        } catch (IOException e) {
+            result.clear();
+            result.put(RAW_KEY, json);
+        }
+        return result;
+    }
+
+    // Parser is positioned on START_OBJECT
+    private static void readObject(JsonParser parser, Deque<String> path, Map<String, Object> out)
+            throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            path.addLast(parser.getCurrentName());
+            JsonToken token = parser.nextToken();
+            String key = String.join(".", path);
+            if (token == JsonToken.START_OBJECT) {
+                readObject(parser, path, out);
+            } else if (token == JsonToken.START_ARRAY) {
+                out.put(key, readArray(parser));
+            } else {
+                out.put(key, scalar(parser, token));
+            }
+            path.removeLast();
+        }
+    }
+
+    // Parser is positioned on START_ARRAY; nested structures inside arrays are not expanded
+    private static String readArray(JsonParser parser) throws IOException {
+        StringBuilder joined = new StringBuilder();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (joined.length() > 0) {
+                joined.append("; ");
+            }
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                joined.append(token == JsonToken.START_OBJECT ? "{...}" : "[...]");
+            } else {
+                Object value = scalar(parser, token);
+                joined.append(value == null ? "" : value);
+            }
+        }
+        return joined.toString();
+    }
+
+    private static Object scalar(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            default -> parser.getText();
+        };
+    }
+}
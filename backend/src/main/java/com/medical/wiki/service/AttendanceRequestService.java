@@ -25,11 +25,13 @@ public class AttendanceRequestService {
     private final AttendanceRequestRepository repository;
     private final UserRepository userRepository;
     private final UserFacilityMappingRepository facilityMappingRepository;
+    private final PersonalDashboardService personalDashboardService;
 
     @Transactional
     public AttendanceRequestDto submitRequest(Long userId, AttendanceRequest.RequestType type,
             AttendanceRequest.DurationType durationType, LocalDate startDate, LocalDate endDate, LocalTime startTime,
             LocalTime endTime, String reason) {
+        personalDashboardService.invalidate(userId);
         if (startDate.isAfter(endDate)) {
             throw new IllegalArgumentException("開始日は終了日以前の日付を入力してください。");
         }
@@ -144,6 +146,8 @@ public class AttendanceRequestService {
         if (request.getStatus() != AttendanceRequest.Status.PENDING) {
             throw new IllegalStateException("申請中のステータスのみ更新可能です。");
         }
+        // Pending count in the requester's summary
+        personalDashboardService.invalidate(request.getUser().getId());
 
         if (status == AttendanceRequest.Status.APPROVED) {
             // Deduct Logic - MOVED TO PaidLeaveService for PAID_LEAVE types.
@@ -0,0 +1,142 @@
+package com.medical.wiki.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.wiki.dto.AuditLogDto;
+import com.medical.wiki.dto.AuditLogFilter;
+import com.medical.wiki.dto.AuditLogPageDto;
+import com.medical.wiki.entity.SystemLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Audit log reads: keyset pages on (timestamp, id) and a streaming NDJSON export.
+ * Neither path loads the whole system_logs table.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditLogQueryService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String SELECT = "SELECT id, timestamp, action, target, description, performed_by, ip_address "
+            + "FROM system_logs";
+    private static final String ORDER = " ORDER BY timestamp DESC, id DESC";
+
+    private static final RowMapper<SystemLog> ROW_MAPPER = (rs, rowNum) -> SystemLog.builder()
+            .id(rs.getLong("id"))
+            .timestamp(rs.getTimestamp("timestamp").toLocalDateTime())
+            .action(rs.getString("action"))
+            .target(rs.getString("target"))
+            .description(rs.getString("description"))
+            .performedBy(rs.getString("performed_by"))
+            .ipAddress(rs.getString("ip_address"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StreamingQueries streamingQueries;
+    private final ObjectMapper objectMapper;
+
+    public AuditLogPageDto findPage(AuditLogFilter filter, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT).append(where(filter, args));
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor c = Cursor.decode(cursor);
+            sql.append(args.isEmpty() ? " WHERE " : " AND ")
+                    .append("(timestamp < ? OR (timestamp = ? AND id < ?))");
+            args.add(Timestamp.valueOf(c.timestamp()));
+            args.add(Timestamp.valueOf(c.timestamp()));
+            args.add(c.id());
+        }
+        // One extra row tells whether there is a next page
+        sql.append(ORDER).append(" LIMIT ?");
+        args.add(limit + 1);
+
+        List<SystemLog> rows = jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            SystemLog last = rows.get(limit - 1);
+            nextCursor = new Cursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new AuditLogPageDto(
+                rows.stream().map(AuditLogDto::fromEntity).collect(Collectors.toList()),
+                nextCursor);
+    }
+
+    /**
+     * Write every matching log as one JSON object per line, newest first.
+     * Rows are streamed from the driver (MySQL row-by-row mode) and written as they arrive.
+     */
+    public void exportNdjson(AuditLogFilter filter, OutputStream out) throws IOException {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT + where(filter, args) + ORDER;
+
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        streamingQueries.write(sql, rs -> {
+            writer.write(objectMapper.writeValueAsString(AuditLogDto.fromEntity(ROW_MAPPER.mapRow(rs, 0))));
+            writer.write('\n');
+        }, args.toArray());
+        writer.flush();
+    }
+
+    private String where(AuditLogFilter filter, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.action() != null && !filter.action().isBlank()) {
+            conditions.add("action = ?");
+            args.add(filter.action());
+        }
+        if (filter.performedBy() != null && !filter.performedBy().isBlank()) {
+            conditions.add("performed_by = ?");
+            args.add(filter.performedBy());
+        }
+        if (filter.target() != null && !filter.target().isBlank()) {
+            conditions.add("target = ?");
+            args.add(filter.target());
+        }
+        if (filter.from() != null) {
+            conditions.add("timestamp >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add("timestamp < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * Opaque page cursor: base64url("timestamp|id") of the last row returned.
+     */
+    record Cursor(LocalDateTime timestamp, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("不正なカーソルです: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.SystemLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue + dedicated writer thread for system_logs.
+ * Events are drained into JDBC batch inserts. When the queue is full the caller either
+ * blocks (BLOCK) or the event is dropped and counted (DROP).
+ * Metrics: audit.log.dropped / .failed / .queue.size
+ */
+@Service
+@Slf4j
+public class AuditLogWriter {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO system_logs "
+            + "(timestamp, action, target, description, performed_by, ip_address) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<SystemLog> queue;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.audit.batch-size:200}") int batchSize,
+            @Value("${app.audit.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.dropped = meterRegistry.counter("audit.log.dropped");
+        this.failed = meterRegistry.counter("audit.log.failed");
+        Gauge.builder("audit.log.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        flush();
+    }
+
+    public void enqueue(SystemLog event) {
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            if (!queue.offer(event)) {
+                dropped.increment();
+                log.warn("Audit log queue full, dropped {} ({})", event.getAction(), event.getTarget());
+            }
+            return;
+        }
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+            log.warn("Interrupted while queueing audit log {} ({})", event.getAction(), event.getTarget());
+        }
+    }
+
+    /**
+     * Write everything queued so far on the calling thread.
+     */
+    public void flush() {
+        List<SystemLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void runWriter() {
+        List<SystemLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                SystemLog first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<SystemLog> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(event.getTimestamp()));
+                ps.setString(2, event.getAction());
+                ps.setString(3, event.getTarget());
+                ps.setString(4, event.getDescription());
+                ps.setString(5, event.getPerformedBy());
+                ps.setString(6, event.getIpAddress());
+            });
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.error("Failed to write {} audit log entries", batch.size(), e);
+        }
+    }
+}
@@ -17,6 +17,7 @@ public class AuthService {
     private final LoggingService loggingService;
     private final SecurityAnomalyService securityAnomalyService;
     private final EmailService emailService;
+    private final UserPrincipalCache principalCache;
 
     @org.springframework.transaction.annotation.Transactional
     public void changePassword(Long userId, String currentPassword, String newPassword) {
@@ -31,7 +32,8 @@ public class AuthService {
         user.setMustChangePassword(false);
         user.setUpdatedAt(java.time.LocalDateTime.now());
         userRepository.save(user);
-        loggingService.log("PASSWORD_CHANGE", user.getName(), "Password changed", user.getEmployeeId());
+        principalCache.invalidate(user.getId());
+        loggingService.logSync("PASSWORD_CHANGE", user.getName(), "Password changed", user.getEmployeeId());
     }
 
     @org.springframework.transaction.annotation.Transactional
@@ -42,7 +44,7 @@ public class AuthService {
             user.setResetTokenExpiry(java.time.LocalDateTime.now().plusHours(1));
             userRepository.save(user);
             emailService.sendPasswordResetEmail(email, token);
-            loggingService.log("PASSWORD_RESET_REQUEST", user.getName(), "Reset requested", user.getEmployeeId());
+            loggingService.logSync("PASSWORD_RESET_REQUEST", user.getName(), "Reset requested", user.getEmployeeId());
         });
     }
 
@@ -58,8 +60,9 @@ public class AuthService {
         user.setMustChangePassword(false);
         user.setUpdatedAt(java.time.LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
 
-        loggingService.log("PASSWORD_RESET_COMPLETE", user.getName(), "Password reset via token", user.getEmployeeId());
+        loggingService.logSync("PASSWORD_RESET_COMPLETE", user.getName(), "Password reset via token", user.getEmployeeId());
     }
 
     @org.springframework.transaction.annotation.Transactional
@@ -72,8 +75,9 @@ public class AuthService {
         user.setMustChangePassword(true);
         user.setUpdatedAt(java.time.LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
 
-        loggingService.log("ADMIN_PASSWORD_RESET", "ADMIN", "Reset password for " + user.getName(),
+        loggingService.logSync("ADMIN_PASSWORD_RESET", "ADMIN", "Reset password for " + user.getName(),
                 user.getEmployeeId());
         return tempPassword;
     }
@@ -88,8 +92,9 @@ public class AuthService {
         user.setInvitationToken(null);
         user.setUpdatedAt(java.time.LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
 
-        loggingService.log("ACCOUNT_SETUP", user.getName(), "Account setup via invitation", user.getEmployeeId());
+        loggingService.logSync("ACCOUNT_SETUP", user.getName(), "Account setup via invitation", user.getEmployeeId());
         return UserDto.fromEntity(user);
     }
 
@@ -99,13 +104,14 @@ public class AuthService {
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             if (passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-                loggingService.log("LOGIN", user.getName(), "Successful login", user.getEmployeeId());
+                loggingService.logSync("LOGIN", user.getName(), "Successful login", user.getEmployeeId());
+                securityAnomalyService.recordLoginSuccess(user.getEmployeeId());
                 return Optional.of(UserDto.fromEntity(user));
             }
         }
 
         // Login failed or user not found
-        loggingService.log("LOGIN_FAILURE", "Auth", "Failed login attempt", request.getEmployeeId());
+        loggingService.logSync("LOGIN_FAILURE", "Auth", "Failed login attempt", request.getEmployeeId());
         securityAnomalyService.checkLoginFailure(request.getEmployeeId(), ipAddress);
         return Optional.empty();
     }
@@ -0,0 +1,209 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.BalanceRepairStatusDto;
+import com.medical.wiki.entity.JobCheckpoint;
+import com.medical.wiki.repository.JobCheckpointRepository;
+import com.medical.wiki.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background paid leave balance repair (ledger rebuild + balance recalculation for every user).
+ * Pages through users by id in fixed-size chunks, runs chunks on a bounded worker pool with
+ * one transaction per chunk, and checkpoints the highest contiguous finished id so an
+ * interrupted run resumes where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceRepairJob {
+
+    static final String JOB_NAME = "fix-balance-consistency";
+
+    private final UserRepository userRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final PaidLeaveService paidLeaveService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.leave.repair.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.leave.repair.workers:2}")
+    private int workers;
+
+    private ExecutorService coordinator;
+    private ThreadPoolExecutor workerPool;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile String status = "IDLE";
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long totalUsers;
+    private volatile long resumedFrom;
+    private volatile long checkpointId;
+
+    @PostConstruct
+    void init() {
+        coordinator = Executors.newSingleThreadExecutor(namedThreads("balance-repair"));
+        // Bounded queue + CallerRunsPolicy: the coordinator runs a chunk itself when workers are busy
+        workerPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers), namedThreads("balance-repair-worker"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Start the job in the background. Does nothing if it is already running.
+     */
+    public BalanceRepairStatusDto start() {
+        if (running.compareAndSet(false, true)) {
+            processed.set(0);
+            failed.set(0);
+            startedAt = LocalDateTime.now();
+            finishedAt = null;
+            status = "RUNNING";
+            coordinator.submit(this::run);
+        }
+        return getStatus();
+    }
+
+    public BalanceRepairStatusDto getStatus() {
+        double seconds = startedAt == null ? 0
+                : Duration.between(startedAt, finishedAt != null ? finishedAt : LocalDateTime.now()).toMillis()
+                        / 1000.0;
+        return BalanceRepairStatusDto.builder()
+                .status(status)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .resumedFromUserId(resumedFrom)
+                .checkpointUserId(checkpointId)
+                .totalUsers(totalUsers)
+                .processedUsers(processed.get())
+                .failedUsers(failed.get())
+                .usersPerSecond(seconds > 0 ? Math.round(processed.get() / seconds * 10.0) / 10.0 : 0.0)
+                .chunkSize(chunkSize)
+                .workers(workers)
+                .build();
+    }
+
+    private void run() {
+        try {
+            long afterId = checkpointRepository.findById(JOB_NAME)
+                    .filter(c -> !Boolean.TRUE.equals(c.getCompleted()))
+                    .map(JobCheckpoint::getLastId)
+                    .orElse(0L);
+            resumedFrom = afterId;
+            checkpointId = afterId;
+            totalUsers = userRepository.countByIdGreaterThan(afterId);
+            log.info("Paid leave balance repair started: {} users, resuming after id {}", totalUsers, afterId);
+
+            // Chunks finish out of order; checkpoint only advances over the contiguous finished prefix
+            Deque<Chunk> inFlight = new ArrayDeque<>();
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Long> ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                inFlight.add(new Chunk(workerPool.submit(() -> processChunk(ids)), afterId));
+                advanceCheckpoint(inFlight, false);
+            }
+            advanceCheckpoint(inFlight, true);
+            saveCheckpoint(checkpointId, true);
+
+            status = "COMPLETED";
+            log.info("Paid leave balance repair completed: {} processed, {} failed", processed.get(), failed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = "FAILED";
+            log.warn("Paid leave balance repair interrupted at checkpoint {}", checkpointId);
+        } catch (Exception e) {
+            status = "FAILED";
+            log.error("Paid leave balance repair failed at checkpoint {}", checkpointId, e);
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    private void processChunk(List<Long> userIds) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> userIds.forEach(paidLeaveService::repairBalance));
+            processed.addAndGet(userIds.size());
+        } catch (Exception e) {
+            // One bad user rolls back the whole chunk; retry each user on its own
+            log.warn("Balance repair chunk {}..{} failed, retrying per user: {}",
+                    userIds.get(0), userIds.get(userIds.size() - 1), e.getMessage());
+            for (Long userId : userIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> paidLeaveService.repairBalance(userId));
+                    processed.incrementAndGet();
+                } catch (Exception ex) {
+                    failed.incrementAndGet();
+                    log.error("Balance repair failed for user {}", userId, ex);
+                }
+            }
+        }
+    }
+
+    private void advanceCheckpoint(Deque<Chunk> inFlight, boolean waitAll) throws Exception {
+        Long advancedTo = null;
+        while (!inFlight.isEmpty() && (waitAll || inFlight.peek().future().isDone())) {
+            Chunk chunk = inFlight.poll();
+            chunk.future().get();
+            advancedTo = chunk.lastId();
+        }
+        if (advancedTo != null) {
+            saveCheckpoint(advancedTo, false);
+        }
+    }
+
+    private void saveCheckpoint(long lastId, boolean completed) {
+        checkpointId = lastId;
+        checkpointRepository.save(JobCheckpoint.builder()
+                .jobName(JOB_NAME)
+                .lastId(lastId)
+                .completed(completed)
+                .build());
+    }
+
+    private static java.util.concurrent.ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private record Chunk(Future<?> future, long lastId) {
+    }
+}
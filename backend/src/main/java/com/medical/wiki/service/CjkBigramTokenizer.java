@@ -0,0 +1,125 @@
+package com.medical.wiki.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tokenizer for mixed Japanese / ASCII text.
+ * Text is NFKC-normalized and lower-cased per character (keeping a map back to the
+ * original offsets). CJK runs (kana, kanji) become overlapping bigrams (a 1-char run
+ * becomes a unigram); Latin letters and digits become whole words; everything else separates.
+ * Indexed text additionally posts every CJK character as a unigram, so one-character
+ * queries (手, 薬, 血) match inside longer words.
+ */
+final class CjkBigramTokenizer {
+
+    record Token(String term, int start, int end) {
+    }
+
+    /**
+     * Normalized text; origin[i] is the index in the original text of normalized char i.
+     */
+    record Normalized(String text, int[] origin) {
+    }
+
+    private CjkBigramTokenizer() {
+    }
+
+    static Normalized normalize(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        int[] origin = new int[text.length() * 2 + 1];
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            int len = Character.charCount(cp);
+            String n = Normalizer.normalize(text.substring(i, i + len), Normalizer.Form.NFKC).toLowerCase();
+            for (int k = 0; k < n.length(); k++) {
+                if (out.length() >= origin.length) {
+                    origin = java.util.Arrays.copyOf(origin, origin.length * 2);
+                }
+                origin[out.length()] = i;
+                out.append(n.charAt(k));
+            }
+            i += len;
+        }
+        return new Normalized(out.toString(), java.util.Arrays.copyOf(origin, out.length()));
+    }
+
+    /**
+     * Query tokens with offsets into the normalized text.
+     */
+    static List<Token> tokenize(String normalized) {
+        return tokenize(normalized, false);
+    }
+
+    /**
+     * Document tokens: query tokens plus a unigram per character of multi-character CJK runs.
+     */
+    static List<Token> indexTokens(String normalized) {
+        return tokenize(normalized, true);
+    }
+
+    private static List<Token> tokenize(String normalized, boolean unigrams) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int n = normalized.length();
+        while (i < n) {
+            char c = normalized.charAt(i);
+            if (isCjk(c)) {
+                int start = i;
+                while (i < n && isCjk(normalized.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    tokens.add(new Token(normalized.substring(start, i), start, i));
+                } else {
+                    for (int k = start; k + 1 < i; k++) {
+                        tokens.add(new Token(normalized.substring(k, k + 2), k, k + 2));
+                    }
+                    if (unigrams) {
+                        for (int k = start; k < i; k++) {
+                            tokens.add(new Token(normalized.substring(k, k + 1), k, k + 1));
+                        }
+                    }
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < n && Character.isLetterOrDigit(normalized.charAt(i)) && !isCjk(normalized.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(normalized.substring(start, i), start, i));
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    static List<String> terms(String text) {
+        return termsOf(tokenize(normalize(text).text()));
+    }
+
+    static List<String> indexTerms(String text) {
+        return termsOf(indexTokens(normalize(text).text()));
+    }
+
+    private static List<String> termsOf(List<Token> tokens) {
+        List<String> terms = new ArrayList<>(tokens.size());
+        for (Token token : tokens) {
+            terms.add(token.term());
+        }
+        return terms;
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+        return block == Character.UnicodeBlock.HIRAGANA
+                || block == Character.UnicodeBlock.KATAKANA
+                || block == Character.UnicodeBlock.KATAKANA_PHONETIC_EXTENSIONS
+                || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
+                || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
+                || block == Character.UnicodeBlock.CJK_COMPATIBILITY_IDEOGRAPHS
+                || c == 'ー' || c == '々';
+    }
+}
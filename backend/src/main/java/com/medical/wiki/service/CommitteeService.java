@@ -13,6 +13,7 @@ import java.util.List;
 public class CommitteeService {
 
     private final CommitteeRepository committeeRepository;
+    private final ResourceVersions resourceVersions;
 
     public List<Committee> getAllCommittees() {
         return committeeRepository.findAll();
@@ -27,6 +28,8 @@ public class CommitteeService {
                 .name(name)
                 .description(description)
                 .build();
-        return committeeRepository.save(committee);
+        Committee saved = committeeRepository.save(committee);
+        resourceVersions.bump(ResourceVersions.Resource.COMMITTEES);
+        return saved;
     }
 }
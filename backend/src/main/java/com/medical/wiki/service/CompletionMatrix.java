@@ -0,0 +1,212 @@
+package com.medical.wiki.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory user x manual completion matrix: one bitset per manual over dense user indices,
+ * plus a per-user completed counter.
+ * Built once from a single scan of progress, then kept current by ProgressService
+ * (applied after commit). Rates are popcounts, no queries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompletionMatrix {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> userIndex = new HashMap<>();
+    private final Map<Long, BitSet> completedByManual = new HashMap<>();
+    private int[] completedPerUser = new int[0];
+    private volatile boolean built;
+
+    public int completedCount(Long userId) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            Integer index = userIndex.get(userId);
+            return index == null ? 0 : completedPerUser[index];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> completedManualIds(Long userId) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            List<Long> manualIds = new ArrayList<>();
+            Integer index = userIndex.get(userId);
+            if (index != null && completedPerUser[index] > 0) {
+                completedByManual.forEach((manualId, bits) -> {
+                    if (bits.get(index)) {
+                        manualIds.add(manualId);
+                    }
+                });
+            }
+            return manualIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bitset of the given users, for per-facility or other group counts.
+     */
+    public BitSet userMask(Collection<Long> userIds) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            BitSet mask = new BitSet();
+            for (Long userId : userIds) {
+                Integer index = userIndex.get(userId);
+                if (index != null) {
+                    mask.set(index);
+                }
+            }
+            return mask;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Completions of a manual, minus users in {@code excluded} (may be null).
+     */
+    public int completionCount(Long manualId, BitSet excluded) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            BitSet bits = completedByManual.get(manualId);
+            if (bits == null) {
+                return 0;
+            }
+            if (excluded == null || excluded.isEmpty()) {
+                return bits.cardinality();
+            }
+            BitSet counted = (BitSet) bits.clone();
+            counted.andNot(excluded);
+            return counted.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Total completions by the users in {@code mask} (e.g. a facility) over all manuals.
+     */
+    public long completionCount(BitSet mask) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (int i = mask.nextSetBit(0); i >= 0 && i < completedPerUser.length; i = mask.nextSetBit(i + 1)) {
+                total += completedPerUser[i];
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void markCompleted(Long userId, Long manualId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                // Not built yet: the initial scan sees the committed rows
+                if (!built) {
+                    return;
+                }
+                int index = indexFor(userId);
+                BitSet bits = completedByManual.computeIfAbsent(manualId, id -> new BitSet());
+                if (!bits.get(index)) {
+                    bits.set(index);
+                    completedPerUser[index]++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void clearUser(Long userId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer index = built ? userIndex.get(userId) : null;
+                if (index != null) {
+                    completedByManual.values().forEach(bits -> bits.clear(index));
+                    completedPerUser[index] = 0;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            long started = System.currentTimeMillis();
+            jdbcTemplate.query("SELECT user_id, manual_id FROM progress WHERE read_at IS NOT NULL", rs -> {
+                int index = indexFor(rs.getLong("user_id"));
+                BitSet bits = completedByManual.computeIfAbsent(rs.getLong("manual_id"), id -> new BitSet());
+                if (!bits.get(index)) {
+                    bits.set(index);
+                    completedPerUser[index]++;
+                }
+            });
+            built = true;
+            log.info("Completion matrix built: {} users, {} manuals in {} ms", userIndex.size(),
+                    completedByManual.size(), System.currentTimeMillis() - started);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private int indexFor(Long userId) {
+        return userIndex.computeIfAbsent(userId, id -> {
+            int index = userIndex.size();
+            if (index >= completedPerUser.length) {
+                completedPerUser = Arrays.copyOf(completedPerUser, Math.max(16, index * 2));
+            }
+            return index;
+        });
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
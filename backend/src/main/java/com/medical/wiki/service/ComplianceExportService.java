@@ -1,20 +1,18 @@
 package com.medical.wiki.service;
 
-import com.medical.wiki.entity.Manual;
-import com.medical.wiki.entity.Progress;
-import com.medical.wiki.entity.User;
-import com.medical.wiki.repository.ManualRepository;
-import com.medical.wiki.repository.ProgressRepository;
-import com.medical.wiki.repository.UserRepository;
 import com.opencsv.CSVWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,100 +20,128 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ComplianceExportService {
 
-    private final UserRepository userRepository;
-    private final ManualRepository manualRepository;
-    private final ProgressRepository progressRepository;
-    private final com.medical.wiki.repository.FacilityRepository facilityRepository;
+    // One row per (user, completed manual), users without progress once with manual_id NULL
+    private static final String PROGRESS_SQL = "SELECT u.id, u.employee_id, u.name, u.facility, u.department, "
+            + "p.manual_id FROM users u "
+            + "LEFT JOIN progress p ON p.user_id = u.id AND p.read_at IS NOT NULL "
+            + "AND p.read_at >= ? AND p.read_at < ? "
+            + "WHERE u.deleted_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StreamingQueries streamingQueries;
+    private final FacilityDirectory facilityDirectory;
 
     /**
      * Get distinct facility list
      */
     public List<String> getDistinctFacilities() {
-        return facilityRepository.findByDeletedAtIsNullOrderByNameAsc().stream()
-                .map(com.medical.wiki.entity.Facility::getName)
+        return facilityDirectory.facilities().stream()
+                .map(com.medical.wiki.dto.FacilityDto::getName)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Export learning progress as CSV
+     * Export learning progress as CSV, written to {@code out} row by row.
+     * Progress is read through a forward-only cursor ordered by user, so memory
+     * is bounded by the manual count, not users x manuals.
      */
-    public byte[] exportProgressCsv(String facility, LocalDate startDate, LocalDate endDate) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                OutputStreamWriter osw = new OutputStreamWriter(baos, StandardCharsets.UTF_8);
-                CSVWriter writer = new CSVWriter(osw)) {
-
-            // BOM for Excel compatibility
-            baos.write(0xEF);
-            baos.write(0xBB);
-            baos.write(0xBF);
-
-            List<User> users = getFilteredUsers(facility);
-            List<Manual> manuals = manualRepository.findAll();
-            Map<Long, Set<Long>> userProgressMap = buildUserProgressMap(users, startDate, endDate);
-
-            // Header row: 職員ID, 氏名, 施設, 部署, [マニュアル名...], 完了率
-            List<String> header = new ArrayList<>();
-            header.add("職員ID");
-            header.add("氏名");
-            header.add("施設");
-            header.add("部署");
-            for (Manual manual : manuals) {
-                header.add(manual.getTitle());
-            }
-            header.add("完了率");
-            writer.writeNext(header.toArray(new String[0]));
-
-            // Data rows
-            for (User user : users) {
-                List<String> row = new ArrayList<>();
-                row.add(user.getEmployeeId());
-                row.add(user.getName());
-                row.add(user.getFacility());
-                row.add(user.getDepartment());
-
-                Set<Long> completedManualIds = userProgressMap.getOrDefault(user.getId(), Collections.emptySet());
-                int completedCount = 0;
-
-                for (Manual manual : manuals) {
-                    if (completedManualIds.contains(manual.getId())) {
-                        row.add("✔");
-                        completedCount++;
-                    } else {
-                        row.add("-");
-                    }
-                }
+    public void writeProgressCsv(String facility, LocalDate startDate, LocalDate endDate, OutputStream out)
+            throws IOException {
+        // BOM for Excel compatibility
+        out.write(0xEF);
+        out.write(0xBB);
+        out.write(0xBF);
+
+        CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        // Titles only; manual content is never loaded
+        List<Long> manualIds = new ArrayList<>();
+        List<String> header = new ArrayList<>(List.of("職員ID", "氏名", "施設", "部署"));
+        jdbcTemplate.query("SELECT id, title FROM manuals ORDER BY id", rs -> {
+            manualIds.add(rs.getLong("id"));
+            header.add(rs.getString("title"));
+        });
+        header.add("完了率");
+        writer.writeNext(header.toArray(new String[0]));
+
+        Map<Long, Integer> columnByManualId = new HashMap<>();
+        for (int i = 0; i < manualIds.size(); i++) {
+            columnByManualId.put(manualIds.get(i), i);
+        }
 
-                double completionRate = manuals.isEmpty() ? 0 : (double) completedCount / manuals.size() * 100;
-                row.add(String.format("%.1f%%", completionRate));
-                writer.writeNext(row.toArray(new String[0]));
-            }
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(startDate != null ? startDate.atStartOfDay() : LocalDate.of(1970, 1, 1).atStartOfDay()));
+        args.add(Timestamp.valueOf(endDate != null ? endDate.plusDays(1).atStartOfDay()
+                : LocalDate.of(9999, 1, 1).atStartOfDay()));
+        StringBuilder sql = new StringBuilder(PROGRESS_SQL);
+        if (facility != null && !facility.isBlank() && !"all".equalsIgnoreCase(facility)) {
+            sql.append(" AND u.facility = ?");
+            args.add(facility);
+        }
+        sql.append(" ORDER BY u.id");
+
+        RowAssembler assembler = new RowAssembler(writer, columnByManualId, manualIds.size());
+        streamingQueries.query(sql.toString(), assembler::accept, args.toArray());
+        assembler.finish();
 
-            writer.flush();
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("CSV出力に失敗しました: " + e.getMessage(), e);
+        writer.flush();
+        if (writer.checkError()) {
+            throw new IOException("CSV出力に失敗しました");
         }
     }
 
-    private List<User> getFilteredUsers(String facility) {
-        if (facility == null || facility.isBlank() || "all".equalsIgnoreCase(facility)) {
-            return userRepository.findAllByDeletedAtIsNull();
+    /**
+     * Folds the user-ordered cursor rows into one CSV line per user.
+     */
+    private static final class RowAssembler {
+        private final CSVWriter writer;
+        private final Map<Long, Integer> columnByManualId;
+        private final boolean[] completed;
+
+        private Long userId;
+        private String[] userColumns;
+        private int completedCount;
+
+        RowAssembler(CSVWriter writer, Map<Long, Integer> columnByManualId, int manualCount) {
+            this.writer = writer;
+            this.columnByManualId = columnByManualId;
+            this.completed = new boolean[manualCount];
         }
-        return userRepository.findByFacilityAndDeletedAtIsNull(facility);
-    }
 
-    private Map<Long, Set<Long>> buildUserProgressMap(List<User> users, LocalDate startDate, LocalDate endDate) {
-        List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
-        List<Progress> allProgress = progressRepository.findByUserIdIn(userIds);
+        void accept(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (userId == null || userId != id) {
+                finish();
+                userId = id;
+                userColumns = new String[] { rs.getString("employee_id"), rs.getString("name"),
+                        rs.getString("facility"), rs.getString("department") };
+            }
+            long manualId = rs.getLong("manual_id");
+            if (!rs.wasNull()) {
+                Integer column = columnByManualId.get(manualId);
+                if (column != null && !completed[column]) {
+                    completed[column] = true;
+                    completedCount++;
+                }
+            }
+        }
 
-        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
-        LocalDateTime endDateTime = endDate != null ? endDate.plusDays(1).atStartOfDay() : LocalDateTime.MAX;
+        void finish() {
+            if (userId == null) {
+                return;
+            }
+            String[] row = new String[4 + completed.length + 1];
+            System.arraycopy(userColumns, 0, row, 0, 4);
+            for (int i = 0; i < completed.length; i++) {
+                row[4 + i] = completed[i] ? "✔" : "-";
+            }
+            double completionRate = completed.length == 0 ? 0 : (double) completedCount / completed.length * 100;
+            row[row.length - 1] = String.format("%.1f%%", completionRate);
+            writer.writeNext(row);
 
-        return allProgress.stream()
-                .filter(p -> p.getReadAt() != null)
-                .filter(p -> !p.getReadAt().isBefore(startDateTime) && p.getReadAt().isBefore(endDateTime))
-                .collect(Collectors.groupingBy(
-                        p -> p.getUser().getId(),
-                        Collectors.mapping(p -> p.getManual().getId(), Collectors.toSet())));
+            Arrays.fill(completed, false);
+            completedCount = 0;
+            userId = null;
+        }
     }
 }
@@ -0,0 +1,141 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.DepartmentDto;
+import com.medical.wiki.dto.FacilityDto;
+import com.medical.wiki.repository.DepartmentRepository;
+import com.medical.wiki.repository.FacilityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Copy-on-write dictionary of active facilities and departments. Users reference their
+ * facility by name, so services resolve name -> id here instead of querying per request.
+ * Loaded at startup and swapped as a whole by {@link #refresh()} after facility or
+ * department writes; readers never lock.
+ * Names are matched trimmed and case-insensitively, like the MySQL _ci collation the
+ * name lookups used to go through.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FacilityDirectory {
+
+    private final FacilityRepository facilityRepository;
+    private final DepartmentRepository departmentRepository;
+
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(List<FacilityDto> facilities, Map<String, FacilityDto> facilitiesByName,
+            Map<Long, FacilityDto> facilitiesById, List<DepartmentDto> departments,
+            Map<Long, List<DepartmentDto>> departmentsByFacility, Map<Long, DepartmentDto> departmentsById) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Rebuild the dictionary now and again after the current transaction commits.
+     */
+    public void refresh() {
+        reload();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        }
+    }
+
+    /** Facilities sorted by name. */
+    public List<FacilityDto> facilities() {
+        return current().facilities();
+    }
+
+    public Optional<FacilityDto> findFacilityByName(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().facilitiesByName().get(nameKey(name)));
+    }
+
+    /** Id of the facility with this name, or null for blank or unknown names. */
+    public Long facilityIdOf(String name) {
+        return findFacilityByName(name).map(FacilityDto::getId).orElse(null);
+    }
+
+    public Optional<FacilityDto> findFacility(Long id) {
+        return Optional.ofNullable(current().facilitiesById().get(id));
+    }
+
+    /** Departments sorted by name. */
+    public List<DepartmentDto> departments() {
+        return current().departments();
+    }
+
+    public List<DepartmentDto> departmentsOf(Long facilityId) {
+        return current().departmentsByFacility().getOrDefault(facilityId, List.of());
+    }
+
+    public Optional<DepartmentDto> findDepartment(Long id) {
+        return Optional.ofNullable(current().departmentsById().get(id));
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        return s != null ? s : reload();
+    }
+
+    // Serialized so a load that read older rows cannot replace a newer snapshot
+    private synchronized Snapshot reload() {
+        List<FacilityDto> facilities = facilityRepository.findByDeletedAtIsNullOrderByNameAsc().stream()
+                .map(FacilityDto::from)
+                .toList();
+        List<DepartmentDto> departments = departmentRepository.findByDeletedAtIsNullOrderByNameAsc().stream()
+                .map(DepartmentDto::from)
+                .toList();
+
+        Map<String, FacilityDto> byName = new HashMap<>();
+        Map<Long, FacilityDto> byId = new HashMap<>();
+        for (FacilityDto facility : facilities) {
+            byName.putIfAbsent(nameKey(facility.getName()), facility);
+            byId.put(facility.getId(), facility);
+        }
+        Map<Long, List<DepartmentDto>> byFacility = new HashMap<>();
+        Map<Long, DepartmentDto> departmentsById = new HashMap<>();
+        for (DepartmentDto department : departments) {
+            byFacility.computeIfAbsent(department.getFacilityId(), id -> new ArrayList<>()).add(department);
+            departmentsById.put(department.getId(), department);
+        }
+        byFacility.replaceAll((id, list) -> List.copyOf(list));
+
+        // unmodifiableMap, not Map.copyOf: lookups with a null id must return null
+        Snapshot loaded = new Snapshot(facilities, Collections.unmodifiableMap(byName),
+                Collections.unmodifiableMap(byId), departments, Collections.unmodifiableMap(byFacility),
+                Collections.unmodifiableMap(departmentsById));
+        snapshot = loaded;
+        log.debug("Facility directory loaded: {} facilities, {} departments", facilities.size(),
+                departments.size());
+        return loaded;
+    }
+}
@@ -0,0 +1,198 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.AdminLeaveMonitoringDto;
+import com.medical.wiki.entity.PaidLeave;
+import com.medical.wiki.entity.PaidLeaveAccrual;
+import com.medical.wiki.entity.User;
+import com.medical.wiki.repository.PaidLeaveAccrualRepository;
+import com.medical.wiki.repository.PaidLeaveRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based computation for the admin leave monitoring list.
+ * Loads approved leaves and grants for all target users in two bulk queries and
+ * computes cycles and balances in memory. Never writes: grants that are due but
+ * not yet persisted are included virtually, the same way calculateCurrentBalance
+ * would create them.
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaveMonitoringService {
+
+    private static final double OBLIGATORY_TARGET = 5.0;
+
+    private final PaidLeaveRepository leaveRepository;
+    private final PaidLeaveAccrualRepository accrualRepository;
+
+    @Transactional(readOnly = true)
+    public List<AdminLeaveMonitoringDto> compute(List<User> targetUsers, LocalDate today) {
+        if (targetUsers.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> userIds = targetUsers.stream().map(User::getId).collect(Collectors.toList());
+
+        Map<Long, List<PaidLeave>> leavesByUser = leaveRepository
+                .findByUser_IdInAndStatusOrderByStartDateAsc(userIds, PaidLeave.Status.APPROVED).stream()
+                .collect(Collectors.groupingBy(l -> l.getUser().getId()));
+        Map<Long, List<PaidLeaveAccrual>> accrualsByUser = accrualRepository
+                .findByUser_IdInAndDeletedAtIsNullOrderByGrantedAtAsc(userIds).stream()
+                .collect(Collectors.groupingBy(a -> a.getUser().getId()));
+
+        return targetUsers.stream()
+                .map(user -> toDto(user,
+                        leavesByUser.getOrDefault(user.getId(), Collections.emptyList()),
+                        accrualsByUser.getOrDefault(user.getId(), Collections.emptyList()),
+                        today))
+                .collect(Collectors.toList());
+    }
+
+    private AdminLeaveMonitoringDto toDto(User user, List<PaidLeave> allLeaves, List<PaidLeaveAccrual> accruals,
+            LocalDate today) {
+        if (user.getJoinedDate() == null) {
+            // If no joined date, cannot calculate. Return empty/null state.
+            return AdminLeaveMonitoringDto.builder()
+                    .userId(user.getId())
+                    .userName(user.getName())
+                    .employeeId(user.getEmployeeId())
+                    .facilityName(user.getFacility())
+                    .joinedDate(null)
+                    .currentPaidLeaveDays(0.0)
+                    .obligatoryDaysTaken(0.0)
+                    .obligatoryTarget(OBLIGATORY_TARGET)
+                    .isObligationMet(false)
+                    .needsAttention(false)
+                    .daysRemainingToObligation(0.0)
+                    .currentCycleStart(null)
+                    .currentCycleEnd(null)
+                    .baseDate(null)
+                    .targetEndDate(null)
+                    .isViolation(false)
+                    .build();
+        }
+
+        // 1. Calculate Base Date (Current Cycle Start)
+        // Latest base date <= today, or the first one if it has not been reached yet.
+        LocalDate firstBaseDate = user.getJoinedDate().plusMonths(6);
+        LocalDate currentCycleStart = firstBaseDate;
+        if (!today.isBefore(firstBaseDate)) {
+            long years = java.time.temporal.ChronoUnit.YEARS.between(firstBaseDate, today);
+            currentCycleStart = firstBaseDate.plusYears(years);
+        }
+
+        LocalDate currentCycleEnd = currentCycleStart.plusYears(1).minusDays(1);
+
+        // Previous Cycle
+        LocalDate previousCycleStart = currentCycleStart.minusYears(1);
+        LocalDate previousCycleEnd = currentCycleStart.minusDays(1);
+
+        // 2. Count Approved Leaves
+        double currentCount = countApprovedDaysInPeriod(allLeaves, currentCycleStart, currentCycleEnd);
+        double previousCount = countApprovedDaysInPeriod(allLeaves, previousCycleStart, previousCycleEnd);
+
+        // 3. Alerts
+        // Violation: previous period valid (started on/after firstBaseDate) AND count < 5.0.
+        // Current achievement (>= 5.0) takes priority over past failure.
+        boolean isViolation = !previousCycleStart.isBefore(firstBaseDate)
+                && previousCount < OBLIGATORY_TARGET
+                && currentCount < OBLIGATORY_TARGET;
+
+        // Warning: current period close to end (< 3 months) AND count < 5.0
+        LocalDate threeMonthsBeforeEnd = currentCycleEnd.minusMonths(3);
+        boolean needsAttention = currentCount < OBLIGATORY_TARGET && today.isAfter(threeMonthsBeforeEnd);
+
+        return AdminLeaveMonitoringDto.builder()
+                .userId(user.getId())
+                .userName(user.getName())
+                .employeeId(user.getEmployeeId())
+                .facilityName(user.getFacility())
+                .joinedDate(user.getJoinedDate())
+                .currentPaidLeaveDays(balance(user, accruals, allLeaves, today))
+                .obligatoryDaysTaken(currentCount)
+                .obligatoryTarget(OBLIGATORY_TARGET)
+                .isObligationMet(currentCount >= OBLIGATORY_TARGET)
+                .needsAttention(needsAttention)
+                .daysRemainingToObligation(Math.max(0, OBLIGATORY_TARGET - currentCount))
+                .currentCycleStart(currentCycleStart)
+                .currentCycleEnd(currentCycleEnd)
+                .baseDate(currentCycleStart) // Alias
+                .targetEndDate(currentCycleEnd) // Alias
+                .isViolation(isViolation)
+                .build();
+    }
+
+    /**
+     * Same result as calculateCurrentBalance, without writing.
+     * Uses the ledger when it is built and complete, otherwise simulates in memory.
+     */
+    private double balance(User user, List<PaidLeaveAccrual> persisted, List<PaidLeave> approvedLeaves,
+            LocalDate today) {
+        List<PaidLeaveAccrual> due = dueGrants(user, persisted, today);
+        boolean ledgerReady = due.isEmpty() && persisted.stream().allMatch(a -> a.getRemainingDays() != null);
+
+        List<PaidLeaveAccrual> accruals = persisted;
+        double[] remaining;
+        if (ledgerReady) {
+            remaining = persisted.stream().mapToDouble(PaidLeaveAccrual::getRemainingDays).toArray();
+        } else {
+            accruals = new ArrayList<>(persisted);
+            accruals.addAll(due);
+            remaining = PaidLeaveLedgerService.simulate(accruals, approvedLeaves);
+        }
+
+        double sum = 0;
+        for (int i = 0; i < accruals.size(); i++) {
+            if (PaidLeaveLedgerService.deadlineOf(accruals.get(i)).isAfter(today)) {
+                sum += remaining[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Automatic grants that grantMissingAccruals would insert today (not persisted).
+     */
+    private List<PaidLeaveAccrual> dueGrants(User user, List<PaidLeaveAccrual> persisted, LocalDate today) {
+        Set<LocalDate> existingDeadlines = new HashSet<>();
+        for (PaidLeaveAccrual a : persisted) {
+            if (a.getDeadline() != null) {
+                existingDeadlines.add(a.getDeadline());
+            }
+        }
+
+        List<PaidLeaveAccrual> due = PaidLeaveGrantSchedule.missingGrants(user, existingDeadlines, today);
+        // Persisted grants get grantedAt = insert time (PaidLeaveAccrual#onCreate)
+        due.forEach(a -> a.setGrantedAt(today.atStartOfDay()));
+        return due;
+    }
+
+    private double countApprovedDaysInPeriod(List<PaidLeave> leaves, LocalDate start, LocalDate end) {
+        return leaves.stream()
+                .filter(l -> !l.getEndDate().isBefore(start) && !l.getStartDate().isAfter(end))
+                .mapToDouble(l -> {
+                    // Precise intersection of the leave with the period.
+                    // LeaveType: FULL=1.0 per day. HALF=0.5 per day.
+                    LocalDate effectiveStart = l.getStartDate().isBefore(start) ? start : l.getStartDate();
+                    LocalDate effectiveEnd = l.getEndDate().isAfter(end) ? end : l.getEndDate();
+
+                    if (effectiveStart.isAfter(effectiveEnd))
+                        return 0.0;
+
+                    long days = java.time.temporal.ChronoUnit.DAYS.between(effectiveStart, effectiveEnd) + 1;
+                    double unit = l.getLeaveType() == PaidLeave.LeaveType.FULL ? 1.0 : 0.5;
+                    return days * unit;
+                })
+                .sum();
+    }
+}
@@ -5,6 +5,9 @@ import com.medical.wiki.repository.SystemLogRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.time.LocalDateTime;
 
@@ -12,13 +15,44 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class LoggingService {
     private final SystemLogRepository logRepository;
+    private final AuditLogWriter auditLogWriter;
     private final jakarta.servlet.http.HttpServletRequest request;
 
-    @Transactional
+    /**
+     * Queue an audit log entry; written asynchronously in batches by {@link AuditLogWriter}.
+     * Inside a transaction the entry is queued only after commit, so a rolled-back action
+     * leaves no audit row.
+     */
     public void log(String action, String target, String description, String performedBy) {
-        String ipAddress = request.getRemoteAddr();
+        // Built now: the IP must be read on the request thread
+        SystemLog entry = build(action, target, description, performedBy);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditLogWriter.enqueue(entry);
+                }
+            });
+        } else {
+            auditLogWriter.enqueue(entry);
+        }
+    }
+
+    /**
+     * Write an audit log entry synchronously in the caller's transaction.
+     * For security-critical actions (login, password and account changes).
+     * Queued entries are not flushed first; rows carry their own timestamp for ordering.
+     */
+    @Transactional
+    public void logSync(String action, String target, String description, String performedBy) {
+        logRepository.save(build(action, target, description, performedBy));
+    }
+
+    private SystemLog build(String action, String target, String description, String performedBy) {
+        // IP must be read on the request thread; null outside a request (startup, scheduled jobs)
+        String ipAddress = RequestContextHolder.getRequestAttributes() != null ? request.getRemoteAddr() : null;
 
-        SystemLog log = SystemLog.builder()
+        return SystemLog.builder()
                 .timestamp(LocalDateTime.now())
                 .action(action)
                 .target(target)
@@ -26,6 +60,5 @@ public class LoggingService {
                 .performedBy(performedBy)
                 .ipAddress(ipAddress)
                 .build();
-        logRepository.save(log);
     }
 }
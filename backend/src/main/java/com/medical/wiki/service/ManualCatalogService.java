@@ -0,0 +1,144 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.ManualCatalogItemDto;
+import com.medical.wiki.dto.ManualCatalogPageDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Manual catalog: id, title, category, author, updatedAt, hasPdf and the caller's read status
+ * from one query (manuals JOIN author LEFT JOIN the user's progress), keyset-paged on
+ * (sort column, id) over the idx_manual_*_id indexes. The content column is never selected.
+ */
+@Service
+@RequiredArgsConstructor
+public class ManualCatalogService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    public enum Sort {
+        // Newest first. Plain NOT NULL columns so (column, id) indexes serve the keyset and ORDER BY
+        UPDATED("m.updated_at", true),
+        CREATED("m.created_at", true),
+        TITLE("m.title", false);
+
+        private final String expression;
+        private final boolean descending;
+
+        Sort(String expression, boolean descending) {
+            this.expression = expression;
+            this.descending = descending;
+        }
+
+        public static Sort from(String value) {
+            if (value == null || value.isBlank()) {
+                return UPDATED;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("不正な並び順です: " + value);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ManualCatalogPageDto findPage(Long userId, String category, Sort sort, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<Object> args = new ArrayList<>();
+        // Distinct manual ids so duplicate progress rows cannot duplicate manuals
+        StringBuilder sql = new StringBuilder("SELECT m.id, m.title, m.category, a.name AS author_name, ")
+                .append("m.updated_at, m.created_at, m.pdf_path IS NOT NULL AS has_pdf, ")
+                .append("p.manual_id IS NOT NULL AS is_read, ")
+                .append(sort.expression).append(" AS sort_key ")
+                .append("FROM manuals m JOIN users a ON a.id = m.author_id ")
+                .append("LEFT JOIN (SELECT DISTINCT manual_id FROM progress WHERE user_id = ?) p ")
+                .append("ON p.manual_id = m.id");
+        args.add(userId);
+
+        List<String> conditions = new ArrayList<>();
+        if (category != null && !category.isBlank()) {
+            conditions.add("m.category = ?");
+            args.add(category);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor c = Cursor.decode(cursor);
+            String op = sort.descending ? "<" : ">";
+            conditions.add("(" + sort.expression + " " + op + " ? OR (" + sort.expression + " = ? AND m.id " + op
+                    + " ?))");
+            Object key = sort == Sort.TITLE ? c.sortKey() : c.timestampKey();
+            args.add(key);
+            args.add(key);
+            args.add(c.id());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        String direction = sort.descending ? " DESC" : " ASC";
+        // One extra row tells whether there is a next page
+        sql.append(" ORDER BY ").append(sort.expression).append(direction).append(", m.id").append(direction).append(" LIMIT ?");
+        args.add(limit + 1);
+
+        List<String> sortKeys = new ArrayList<>();
+        List<ManualCatalogItemDto> items = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            sortKeys.add(sort == Sort.TITLE ? rs.getString("sort_key")
+                    : rs.getTimestamp("sort_key").toLocalDateTime().toString());
+            return new ManualCatalogItemDto(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getString("category"),
+                    rs.getString("author_name"),
+                    updatedAt != null ? updatedAt.toLocalDateTime() : null,
+                    rs.getBoolean("has_pdf"),
+                    rs.getBoolean("is_read"));
+        }, args.toArray());
+
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = new Cursor(sortKeys.get(limit - 1), items.get(limit - 1).id()).encode();
+        }
+        return new ManualCatalogPageDto(List.copyOf(items), nextCursor);
+    }
+
+    /**
+     * Opaque page cursor: base64url("sortKey|id") of the last row returned.
+     */
+    record Cursor(String sortKey, Long id) {
+
+        Timestamp timestampKey() {
+            try {
+                return Timestamp.valueOf(LocalDateTime.parse(sortKey));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("カーソルと並び順が一致しません");
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((sortKey + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                // Titles may contain '|'; the id is after the last one
+                int separator = decoded.lastIndexOf('|');
+                return new Cursor(decoded.substring(0, separator), Long.parseLong(decoded.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("不正なカーソルです: " + value);
+            }
+        }
+    }
+}
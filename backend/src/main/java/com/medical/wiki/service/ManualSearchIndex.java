@@ -0,0 +1,244 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.ManualSearchResultDto;
+import com.medical.wiki.entity.Manual;
+import com.medical.wiki.repository.ManualRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over manual title + content (CJK bigrams, see
+ * {@link CjkBigramTokenizer}) with BM25 ranking. All query terms must match.
+ * Built from the manuals table on first search, then updated by ManualService after commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ManualSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Title terms count as this many occurrences
+    private static final int TITLE_BOOST = 3;
+    private static final int SNIPPET_BEFORE = 30;
+    private static final int SNIPPET_LENGTH = 120;
+
+    private final ManualRepository manualRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private long totalLength;
+    private volatile boolean built;
+
+    private record Doc(Long id, String title, String category, String content,
+            CjkBigramTokenizer.Normalized normalizedContent, Map<String, Integer> termFreqs, int length) {
+    }
+
+    public List<ManualSearchResultDto> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(CjkBigramTokenizer.terms(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        ensureBuilt();
+
+        lock.readLock().lock();
+        try {
+            // Drive the AND from the rarest term
+            List<Map<Long, Integer>> lists = new ArrayList<>();
+            for (String term : terms) {
+                Map<Long, Integer> list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            Map<Long, Integer> rarest = Collections.min(lists, Comparator.comparingInt(Map::size));
+
+            int n = docs.size();
+            double avgLength = n == 0 ? 1 : (double) totalLength / n;
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            candidates: for (Long docId : rarest.keySet()) {
+                Doc doc = docs.get(docId);
+                double score = 0;
+                for (Map<Long, Integer> list : lists) {
+                    Integer tf = list.get(docId);
+                    if (tf == null) {
+                        continue candidates;
+                    }
+                    double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+                    score += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * doc.length() / avgLength));
+                }
+                top.add(Map.entry(docId, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<ManualSearchResultDto> results = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Map.Entry<Long, Double> hit = top.poll();
+                results.add(toResult(docs.get(hit.getKey()), hit.getValue(), terms));
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * (Re)index a manual once the surrounding transaction commits.
+     */
+    public void index(Manual manual) {
+        Long id = manual.getId();
+        String title = manual.getTitle();
+        String category = manual.getCategory();
+        String content = manual.getContent() != null ? manual.getContent() : "";
+        Runnable update = () -> {
+            lock.writeLock().lock();
+            try {
+                // Not built yet: the initial load sees the committed row
+                if (built) {
+                    put(id, title, category, content);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            long started = System.currentTimeMillis();
+            for (Manual manual : manualRepository.findAll()) {
+                put(manual.getId(), manual.getTitle(), manual.getCategory(),
+                        manual.getContent() != null ? manual.getContent() : "");
+            }
+            built = true;
+            log.info("Manual search index built: {} manuals, {} terms in {} ms", docs.size(), postings.size(),
+                    System.currentTimeMillis() - started);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void put(Long id, String title, String category, String content) {
+        remove(id);
+
+        Map<String, Integer> termFreqs = new HashMap<>();
+        int length = 0;
+        for (String term : CjkBigramTokenizer.indexTerms(title != null ? title : "")) {
+            termFreqs.merge(term, TITLE_BOOST, Integer::sum);
+            length += TITLE_BOOST;
+        }
+        CjkBigramTokenizer.Normalized normalized = CjkBigramTokenizer.normalize(content);
+        for (CjkBigramTokenizer.Token token : CjkBigramTokenizer.indexTokens(normalized.text())) {
+            termFreqs.merge(token.term(), 1, Integer::sum);
+            length++;
+        }
+
+        termFreqs.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+        docs.put(id, new Doc(id, title, category, content, normalized, termFreqs, length));
+        totalLength += length;
+    }
+
+    private void remove(Long id) {
+        Doc old = docs.remove(id);
+        if (old == null) {
+            return;
+        }
+        totalLength -= old.length();
+        for (String term : old.termFreqs().keySet()) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private ManualSearchResultDto toResult(Doc doc, double score, List<String> terms) {
+        String text = doc.normalizedContent().text();
+        int[] origin = doc.normalizedContent().origin();
+
+        int first = -1;
+        for (String term : terms) {
+            int pos = text.indexOf(term);
+            if (pos >= 0 && (first < 0 || pos < first)) {
+                first = pos;
+            }
+        }
+        int from = Math.max(0, first - SNIPPET_BEFORE);
+        int to = Math.min(text.length(), from + SNIPPET_LENGTH);
+
+        // Merged [start, end) ranges of term occurrences inside the window
+        List<int[]> ranges = new ArrayList<>();
+        if (first >= 0) {
+            for (String term : terms) {
+                for (int pos = text.indexOf(term, from); pos >= 0 && pos + term.length() <= to;
+                        pos = text.indexOf(term, pos + 1)) {
+                    ranges.add(new int[] { pos, pos + term.length() });
+                }
+            }
+        }
+        ranges.sort(Comparator.comparingInt(r -> r[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] r : ranges) {
+            if (!merged.isEmpty() && r[0] <= merged.get(merged.size() - 1)[1]) {
+                merged.get(merged.size() - 1)[1] = Math.max(merged.get(merged.size() - 1)[1], r[1]);
+            } else {
+                merged.add(r);
+            }
+        }
+
+        // Map normalized offsets back to the original content
+        int originFrom = toOriginal(origin, from, doc.content().length());
+        int originTo = toOriginal(origin, to, doc.content().length());
+        List<int[]> highlights = new ArrayList<>(merged.size());
+        for (int[] r : merged) {
+            highlights.add(new int[] { toOriginal(origin, r[0], doc.content().length()) - originFrom,
+                    toOriginal(origin, r[1], doc.content().length()) - originFrom });
+        }
+
+        return ManualSearchResultDto.builder()
+                .id(doc.id())
+                .title(doc.title())
+                .category(doc.category())
+                .score(Math.round(score * 1000.0) / 1000.0)
+                .snippet(doc.content().substring(originFrom, originTo))
+                .highlights(highlights)
+                .build();
+    }
+
+    private static int toOriginal(int[] origin, int normalizedIndex, int originalLength) {
+        return normalizedIndex < origin.length ? origin[normalizedIndex] : originalLength;
+    }
+}
@@ -4,27 +4,33 @@ import com.medical.wiki.dto.*;
 import com.medical.wiki.entity.*;
 import com.medical.wiki.repository.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.nio.file.*;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 import java.util.stream.Collectors;
-import org.springframework.web.multipart.MultipartFile;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ManualService {
     private final ManualRepository manualRepository;
     private final ProgressRepository progressRepository;
     private final UserRepository userRepository;
     private final LoggingService loggingService;
     private final SecurityAnomalyService securityAnomalyService;
-    private final String uploadDir = "/app/uploads/manuals";
+    private final ManualSearchIndex searchIndex;
+    private final AnnouncementFeedCache announcementFeedCache;
+    private final PdfStorageService pdfStorage;
+    private final ResourceVersions resourceVersions;
+    private final TransactionTemplate transactionTemplate;
 
     public List<ManualDto> getAllManuals(Long userId) {
         List<Manual> manuals = manualRepository.findAllByOrderByCreatedAtDesc();
@@ -73,6 +79,8 @@ public class ManualService {
                 .build();
 
         Manual newManual = manualRepository.save(manual);
+        searchIndex.index(newManual);
+        resourceVersions.bump(ResourceVersions.Resource.MANUALS);
         loggingService.log("MANUAL_CREATE", newManual.getTitle(), "Manual created by " + author.getName(),
                 author.getEmployeeId());
 
@@ -91,6 +99,10 @@ public class ManualService {
                     }
                     manual.setUpdatedAt(LocalDateTime.now());
                     Manual saved = manualRepository.save(manual);
+                    searchIndex.index(saved);
+                    resourceVersions.bump(ResourceVersions.Resource.MANUALS);
+                    // Cached announcement feeds carry related manual titles
+                    announcementFeedCache.invalidate(null);
 
                     String executorName = "ADMIN";
                     if (executorId != null) {
@@ -102,6 +114,13 @@ public class ManualService {
                 });
     }
 
+    public List<ManualSearchResultDto> searchManuals(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return searchIndex.search(query, Math.max(1, Math.min(limit, 100)));
+    }
+
     public List<String> getAllCategories() {
         return manualRepository.findAll().stream()
                 .map(Manual::getCategory)
@@ -110,49 +129,66 @@ public class ManualService {
                 .collect(Collectors.toList());
     }
 
-    public String savePdf(Long manualId, MultipartFile file) throws IOException {
-        Path root = Paths.get(uploadDir);
-        if (!Files.exists(root)) {
-            Files.createDirectories(root);
+    /**
+     * Store an uploaded PDF (streamed, hashed, atomically published) and point the manual at it.
+     * The upload runs outside any transaction, so no connection is held while it streams;
+     * only the pointer update is transactional. Files left unreferenced (the previous PDF,
+     * or this one if the update fails) are removed by {@link #sweepUnreferencedPdfs()}.
+     */
+    public String savePdf(Long manualId, InputStream in) throws IOException {
+        if (!manualRepository.existsById(manualId)) {
+            throw new RuntimeException("Manual not found");
         }
 
-        String filename = "manual_" + manualId + ".pdf";
-        Path filepath = root.resolve(filename);
-        Files.copy(file.getInputStream(), filepath, StandardCopyOption.REPLACE_EXISTING);
+        PdfStorageService.StoredPdf stored = pdfStorage.store(in);
+        transactionTemplate.executeWithoutResult(status -> {
+            Manual manual = manualRepository.findById(manualId)
+                    .orElseThrow(() -> new RuntimeException("Manual not found"));
+            manual.setPdfPath(stored.relativePath());
+            manual.setPdfSha256(stored.sha256());
+            manualRepository.save(manual);
+            // pdfUrl in list entries
+            resourceVersions.bump(ResourceVersions.Resource.MANUALS);
+        });
+        return stored.relativePath();
+    }
 
-        Manual manual = manualRepository.findById(manualId)
-                .orElseThrow(() -> new RuntimeException("Manual not found"));
-        manual.setPdfPath(filename);
-        manualRepository.save(manual);
+    @Scheduled(fixedDelayString = "${app.manual.pdf-sweep-interval-ms:3600000}")
+    public void sweepUnreferencedPdfs() {
+        try {
+            int deleted = pdfStorage.sweep(manualRepository.findAllPdfPaths());
+            if (deleted > 0) {
+                log.info("Deleted {} unreferenced manual PDFs", deleted);
+            }
+        } catch (IOException e) {
+            log.warn("Manual PDF sweep failed: {}", e.getMessage());
+        }
+    }
 
-        return filename;
+    public record PdfFile(Path path, String sha256) {
     }
 
-    public Optional<Resource> getPdfResource(Long manualId, Long userId, String ipAddress) {
+    /**
+     * Resolve the stored PDF of a manual. Empty when the manual has no PDF or the file is missing.
+     */
+    public Optional<PdfFile> getPdfFile(Long manualId) {
         return manualRepository.findById(manualId)
-                .flatMap(manual -> {
-                    if (manual.getPdfPath() == null) {
-                        return Optional.empty();
-                    }
-                    try {
-                        Path file = Paths.get(uploadDir).resolve(manual.getPdfPath());
-                        Resource resource = new UrlResource(file.toUri());
-                        if (resource.exists() || resource.isReadable()) {
-                            // Log and Check Anomaly
-                            if (userId != null) {
-                                userRepository.findById(userId).ifPresent(user -> {
-                                    loggingService.log("MANUAL_DOWNLOAD", manual.getTitle(), "Manual PDF Downloaded",
-                                            user.getEmployeeId());
-                                    securityAnomalyService.checkImportantActionAnomaly(user, "MANUAL_DOWNLOAD",
-                                            ipAddress);
-                                });
-                            }
-                            return Optional.of(resource);
-                        }
-                    } catch (Exception e) {
-                        // Log error
-                    }
-                    return Optional.empty();
-                });
+                .filter(manual -> manual.getPdfPath() != null)
+                .map(manual -> new PdfFile(pdfStorage.resolve(manual.getPdfPath()), manual.getPdfSha256()))
+                .filter(pdf -> Files.isReadable(pdf.path()));
+    }
+
+    /**
+     * Log a PDF open and run the anomaly check. Called once per open, not per range request.
+     */
+    public void recordPdfDownload(Long manualId, Long userId, String ipAddress) {
+        if (userId == null) {
+            return;
+        }
+        manualRepository.findById(manualId).ifPresent(manual -> userRepository.findById(userId).ifPresent(user -> {
+            loggingService.log("MANUAL_DOWNLOAD", manual.getTitle(), "Manual PDF Downloaded",
+                    user.getEmployeeId());
+            securityAnomalyService.checkImportantActionAnomaly(user, "MANUAL_DOWNLOAD", ipAddress);
+        }));
     }
 }
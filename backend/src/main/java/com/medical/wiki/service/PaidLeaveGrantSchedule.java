@@ -0,0 +1,68 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.PaidLeaveAccrual;
+import com.medical.wiki.entity.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Statutory paid leave grant schedule (労働基準法 第39条).
+ * First grant 6 months after joining, then yearly; each grant expires after 2 years.
+ */
+final class PaidLeaveGrantSchedule {
+
+    // 50 years max loop
+    static final int MAX_GRANTS = 50;
+
+    private static final double[] DAYS_BY_INDEX = { 10, 11, 12, 14, 16, 18 };
+    private static final double MAX_DAYS = 20;
+
+    private PaidLeaveGrantSchedule() {
+    }
+
+    static LocalDate grantDate(LocalDate joinedDate, int index) {
+        return joinedDate.plusMonths(6).plusYears(index);
+    }
+
+    static LocalDate deadline(LocalDate grantDate) {
+        return grantDate.plusYears(2);
+    }
+
+    static double daysFor(int index) {
+        return index < DAYS_BY_INDEX.length ? DAYS_BY_INDEX[index] : MAX_DAYS;
+    }
+
+    /**
+     * Automatic grants due on {@code today} whose deadline is not in {@code existingDeadlines}.
+     * One pass over the anniversaries, no queries.
+     */
+    static List<PaidLeaveAccrual> missingGrants(User user, Set<LocalDate> existingDeadlines, LocalDate today) {
+        List<PaidLeaveAccrual> missing = new ArrayList<>();
+        if (user.getJoinedDate() == null) {
+            return missing;
+        }
+        for (int i = 0; i < MAX_GRANTS; i++) {
+            LocalDate grantDate = grantDate(user.getJoinedDate(), i);
+            if (grantDate.isAfter(today)) {
+                break;
+            }
+            // Check if grant exists for this specific date (approximate check by deadline)
+            LocalDate expectedDeadline = deadline(grantDate);
+            if (!existingDeadlines.contains(expectedDeadline)) {
+                double days = daysFor(i);
+                missing.add(PaidLeaveAccrual.builder()
+                        .user(user)
+                        .daysGranted(days)
+                        .remainingDays(days)
+                        .grantedAt(grantDate.atStartOfDay())
+                        .deadline(expectedDeadline)
+                        .reason("Automatic Grant (" + (i + 0.5) + " years)")
+                        .build());
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,190 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.PaidLeave;
+import com.medical.wiki.entity.PaidLeaveAccrual;
+import com.medical.wiki.repository.PaidLeaveAccrualRepository;
+import com.medical.wiki.repository.PaidLeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-accrual "remaining days" ledger for paid leave.
+ * Grants and approvals apply deltas to the affected accrual rows only.
+ * The full FIFO bucket simulation is kept in {@link #rebuild(Long)} as the
+ * verification and repair path.
+ * Ledger writes lock the user's accrual rows, and deductions follow leave start-date
+ * order like the simulation: a backdated approval rebuilds instead of applying a delta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaidLeaveLedgerService {
+
+    private static final double EPSILON = 0.0001;
+
+    private final PaidLeaveAccrualRepository accrualRepository;
+    private final PaidLeaveRepository leaveRepository;
+
+    public static double countDays(PaidLeave leave) {
+        double baseDays = (double) java.time.temporal.ChronoUnit.DAYS.between(leave.getStartDate(),
+                leave.getEndDate()) + 1;
+        return (leave.getLeaveType() == PaidLeave.LeaveType.FULL) ? baseDays : baseDays * 0.5;
+    }
+
+    public boolean isInitialized(Long userId) {
+        return accrualRepository.countByUserIdAndDeletedAtIsNullAndRemainingDaysIsNull(userId) == 0;
+    }
+
+    /**
+     * Sum of remaining days over grants that have not expired on {@code today}.
+     * Expiry needs no write: expired grants simply drop out of the sum.
+     */
+    @Transactional(readOnly = true)
+    public double currentBalance(Long userId, LocalDate today) {
+        Double sum = accrualRepository.sumRemainingDays(userId, today, legacyGrantedFrom(today));
+        return sum != null ? sum : 0.0;
+    }
+
+    /**
+     * Deduct a newly approved leave from the earliest valid grants (FIFO).
+     * Falls back to a rebuild when the user's ledger has not been built yet, or when an
+     * already-approved leave starts later: the simulation deducts in start-date order, so
+     * a delta would leave the ledger disagreeing with {@link #rebuild(Long)}.
+     */
+    @Transactional
+    public void applyApprovedLeave(PaidLeave leave) {
+        Long userId = leave.getUser().getId();
+        if (!isInitialized(userId)) {
+            rebuild(userId);
+            return;
+        }
+
+        LocalDate leaveDate = leave.getStartDate();
+        // Locks the buckets first, so the later-leave check below sees concurrent approvals
+        List<PaidLeaveAccrual> buckets = accrualRepository.findConsumableBuckets(userId, leaveDate,
+                leaveDate.plusDays(1).atStartOfDay(), legacyGrantedFrom(leaveDate));
+        if (!leaveRepository.findByUserIdAndStatusAndStartDateAfter(userId, PaidLeave.Status.APPROVED, leaveDate)
+                .isEmpty()) {
+            resimulate(userId);
+            return;
+        }
+
+        double needed = countDays(leave);
+        List<PaidLeaveAccrual> touched = new ArrayList<>();
+        for (PaidLeaveAccrual bucket : buckets) {
+            if (needed <= 0) {
+                break;
+            }
+            double deduct = Math.min(bucket.getRemainingDays(), needed);
+            bucket.setRemainingDays(bucket.getRemainingDays() - deduct);
+            needed -= deduct;
+            touched.add(bucket);
+        }
+        // No valid grant left (legacy or overdrawn): ignore the rest, same as the simulation.
+        accrualRepository.saveAll(touched);
+    }
+
+    /**
+     * Reconcile grants just inserted with {@code remainingDays = daysGranted}. Approved leaves
+     * starting on or after the earliest new grant may have been uncovered so far; the
+     * simulation now deducts them from the new grant, so the ledger is re-run.
+     */
+    @Transactional
+    public void reconcileNewGrants(Long userId, List<PaidLeaveAccrual> grants) {
+        if (grants.isEmpty() || !isInitialized(userId)) {
+            return;
+        }
+        LocalDate earliest = grants.stream()
+                .map(grant -> grant.getGrantedAt().toLocalDate())
+                .min(LocalDate::compareTo)
+                .orElseThrow();
+        if (!leaveRepository.findByUserIdAndStatusAndStartDateAfter(userId, PaidLeave.Status.APPROVED,
+                earliest.minusDays(1)).isEmpty()) {
+            resimulate(userId);
+        }
+    }
+
+    /**
+     * Re-run the full FIFO bucket simulation and write the result into the ledger.
+     *
+     * @return true if an already-built ledger had drifted from the simulation
+     */
+    @Transactional
+    public boolean rebuild(Long userId) {
+        boolean drifted = resimulate(userId);
+        if (drifted) {
+            log.warn("Paid leave ledger drift repaired for user {}", userId);
+        }
+        return drifted;
+    }
+
+    // Expected changes (backdated approval, new grant) go through here without the drift warning
+    private boolean resimulate(Long userId) {
+        List<PaidLeaveAccrual> accruals = accrualRepository.findForUpdateByUserId(userId);
+        List<PaidLeave> approvedLeaves = leaveRepository.findByUserIdAndStatusOrderByStartDateAsc(userId,
+                PaidLeave.Status.APPROVED);
+
+        double[] remaining = simulate(accruals, approvedLeaves);
+
+        boolean drifted = false;
+        List<PaidLeaveAccrual> changed = new ArrayList<>();
+        for (int i = 0; i < accruals.size(); i++) {
+            PaidLeaveAccrual accrual = accruals.get(i);
+            Double current = accrual.getRemainingDays();
+            if (current == null || Math.abs(current - remaining[i]) > EPSILON) {
+                if (current != null) {
+                    drifted = true;
+                }
+                accrual.setRemainingDays(remaining[i]);
+                changed.add(accrual);
+            }
+        }
+        accrualRepository.saveAll(changed);
+        return drifted;
+    }
+
+    /**
+     * FIFO bucket simulation without side effects.
+     *
+     * @param accruals       grants ordered by grantedAt ascending
+     * @param approvedLeaves approved leaves ordered by start date ascending
+     * @return remaining days per grant, index-aligned with {@code accruals}
+     */
+    public static double[] simulate(List<PaidLeaveAccrual> accruals, List<PaidLeave> approvedLeaves) {
+        double[] remaining = accruals.stream().mapToDouble(PaidLeaveAccrual::getDaysGranted).toArray();
+
+        for (PaidLeave leave : approvedLeaves) {
+            LocalDate leaveDate = leave.getStartDate();
+            double needed = countDays(leave);
+            for (int i = 0; i < accruals.size() && needed > 0; i++) {
+                if (remaining[i] > 0 && isValidOn(accruals.get(i), leaveDate)) {
+                    double deduct = Math.min(remaining[i], needed);
+                    remaining[i] -= deduct;
+                    needed -= deduct;
+                }
+            }
+            // No valid grant found (legacy or overdrawn). Ignore deduct.
+        }
+        return remaining;
+    }
+
+    public static LocalDate deadlineOf(PaidLeaveAccrual accrual) {
+        return accrual.getDeadline() != null ? accrual.getDeadline()
+                : accrual.getGrantedAt().toLocalDate().plusYears(2);
+    }
+
+    private static boolean isValidOn(PaidLeaveAccrual accrual, LocalDate date) {
+        return !accrual.getGrantedAt().toLocalDate().isAfter(date) && deadlineOf(accrual).isAfter(date);
+    }
+
+    private java.time.LocalDateTime legacyGrantedFrom(LocalDate date) {
+        // grantDate + 2y > date  <=>  grantDate >= date - 2y + 1d
+        return date.minusYears(2).plusDays(1).atStartOfDay();
+    }
+}
@@ -14,7 +14,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,10 +27,14 @@ public class PaidLeaveService {
     private final UserRepository userRepository;
     private final UserFacilityMappingRepository facilityMappingRepository;
     private final PaidLeaveAccrualRepository accrualRepository;
+    private final PaidLeaveLedgerService ledgerService;
+    private final LeaveMonitoringService leaveMonitoringService;
+    private final PersonalDashboardService personalDashboardService;
 
     @Transactional
     public PaidLeaveDto submitRequest(Long userId, LocalDate startDate, LocalDate endDate, String reason,
             PaidLeave.LeaveType leaveType) {
+        personalDashboardService.invalidate(userId);
         if (startDate.isAfter(endDate)) {
             throw new IllegalArgumentException("開始日は終了日以前の日付を入力してください。");
         }
@@ -67,6 +73,7 @@ public class PaidLeaveService {
     @Transactional
     public List<PaidLeaveDto> submitBulkRequests(Long userId,
             List<com.medical.wiki.controller.PaidLeaveController.PaidLeaveRequest> requests) {
+        personalDashboardService.invalidate(userId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -182,6 +189,8 @@ public class PaidLeaveService {
         if (paidLeave.getStatus() != PaidLeave.Status.PENDING) {
             throw new IllegalStateException("申請中のステータスのみ更新可能です。");
         }
+        // Pending count and balance in the requester's summary
+        personalDashboardService.invalidate(paidLeave.getUser().getId());
 
         if (status == PaidLeave.Status.APPROVED) {
             double baseDays = java.time.temporal.ChronoUnit.DAYS.between(paidLeave.getStartDate(),
@@ -191,10 +200,12 @@ public class PaidLeaveService {
             if (user.getPaidLeaveDays() < daysRequested) {
                 throw new IllegalStateException("有給残日数が不足しているため承認できません。");
             }
-            // Approve first, then recalculate
+            // Approve first, then deduct from the ledger
             paidLeave.setStatus(status);
             repository.save(paidLeave);
-            calculateCurrentBalance(user.getId());
+            grantMissingAccruals(user);
+            ledgerService.applyApprovedLeave(paidLeave);
+            refreshBalance(user);
             return PaidLeaveDto.fromEntity(paidLeave);
         } else if (status == PaidLeave.Status.REJECTED) {
             paidLeave.setRejectionReason(rejectionReason);
@@ -228,15 +239,17 @@ public class PaidLeaveService {
         PaidLeaveAccrual accrual = PaidLeaveAccrual.builder()
                 .user(targetUser)
                 .daysGranted(daysToGrant)
+                .remainingDays(daysToGrant)
                 .grantedBy(grantedBy)
                 .reason(reason)
                 .grantedAt(java.time.LocalDateTime.now())
                 .deadline(LocalDate.now().plusYears(2)) // Default 2 years expiration
                 .build();
         accrualRepository.save(accrual);
+        ledgerService.reconcileNewGrants(targetUserId, List.of(accrual));
 
         // Recalculate balance
-        calculateCurrentBalance(targetUserId);
+        refreshBalance(targetUser);
     }
 
     /**
@@ -251,49 +264,14 @@ public class PaidLeaveService {
     public void grantMissingAccruals(User user) {
         if (user.getJoinedDate() == null)
             return;
-        LocalDate joinedDate = user.getJoinedDate();
-        LocalDate now = LocalDate.now();
-
-        // 50 years max loop
-        for (int i = 0; i < 50; i++) {
-            LocalDate grantDate = joinedDate.plusMonths(6).plusYears(i);
-            if (grantDate.isAfter(now)) {
-                break;
-            }
 
-            // Check if grant exists for this specific date (approximate check by deadline)
-            // Deadline = GrantDate + 2 years.
-            LocalDate expectedDeadline = grantDate.plusYears(2);
-
-            boolean exists = accrualRepository.findByUserIdAndDeletedAtIsNullOrderByGrantedAtDesc(user.getId()).stream()
-                    .anyMatch(a -> a.getDeadline() != null && a.getDeadline().equals(expectedDeadline));
-
-            if (!exists) {
-                double days = 0;
-                if (i == 0)
-                    days = 10;
-                else if (i == 1)
-                    days = 11;
-                else if (i == 2)
-                    days = 12;
-                else if (i == 3)
-                    days = 14;
-                else if (i == 4)
-                    days = 16;
-                else if (i == 5)
-                    days = 18;
-                else
-                    days = 20;
-
-                PaidLeaveAccrual accrual = PaidLeaveAccrual.builder()
-                        .user(user)
-                        .daysGranted(days)
-                        .grantedAt(grantDate.atStartOfDay())
-                        .deadline(expectedDeadline)
-                        .reason("Automatic Grant (" + (i + 0.5) + " years)")
-                        .build();
-                accrualRepository.save(accrual);
-            }
+        // Existing deadlines loaded once; missing grants inserted in one saveAll
+        Set<LocalDate> existingDeadlines = new HashSet<>(accrualRepository.findDeadlinesByUserId(user.getId()));
+        List<PaidLeaveAccrual> missing = PaidLeaveGrantSchedule.missingGrants(user, existingDeadlines,
+                LocalDate.now());
+        if (!missing.isEmpty()) {
+            accrualRepository.saveAll(missing);
+            ledgerService.reconcileNewGrants(user.getId(), missing);
         }
     }
 
@@ -305,61 +283,9 @@ public class PaidLeaveService {
         // 1. Ensure Grants
         grantMissingAccruals(user);
 
-        // 2. Load Data
-        List<PaidLeaveAccrual> accruals = accrualRepository.findByUserIdAndDeletedAtIsNullOrderByGrantedAtAsc(userId);
-        List<PaidLeave> approvedLeaves = repository.findByUserIdAndStatusOrderByStartDateAsc(userId,
-                PaidLeave.Status.APPROVED);
-
-        // 3. Bucket Simulation
-        class AccrualBucket {
-            Double remaining;
-            LocalDate grantDate;
-            LocalDate deadline;
-
-            public AccrualBucket(PaidLeaveAccrual a) {
-                this.remaining = a.getDaysGranted();
-                this.grantDate = a.getGrantedAt().toLocalDate();
-                this.deadline = a.getDeadline() != null ? a.getDeadline() : a.getGrantedAt().toLocalDate().plusYears(2);
-            }
-        }
-
-        List<AccrualBucket> buckets = accruals.stream().map(AccrualBucket::new).collect(Collectors.toList());
-
-        for (PaidLeave leave : approvedLeaves) {
-            double baseDays = (double) java.time.temporal.ChronoUnit.DAYS.between(leave.getStartDate(),
-                    leave.getEndDate()) + 1;
-            double needed = (leave.getLeaveType() == PaidLeave.LeaveType.FULL) ? baseDays : baseDays * 0.5;
-
-            while (needed > 0) {
-                // Find earliest valid bucket for this leave
-                LocalDate leaveDate = leave.getStartDate();
-                AccrualBucket bucket = buckets.stream()
-                        .filter(b -> !b.grantDate.isAfter(leaveDate) && b.deadline.isAfter(leaveDate)
-                                && b.remaining > 0)
-                        .findFirst()
-                        .orElse(null);
-
-                if (bucket == null) {
-                    // No valid grant found (legacy or overdrawn). Ignore deduct.
-                    break;
-                }
-
-                double deduct = Math.min(bucket.remaining, needed);
-                bucket.remaining -= deduct;
-                needed -= deduct;
-            }
-        }
-
-        // 4. Sum remaining valid buckets
+        // 2-4. Balance from the per-grant ledger (see PaidLeaveLedgerService)
         LocalDate today = LocalDate.now();
-        double remaining = buckets.stream()
-                .filter(b -> b.deadline.isAfter(today))
-                .mapToDouble(b -> b.remaining)
-                .sum();
-
-        // Update Entity
-        user.setPaidLeaveDays(remaining);
-        userRepository.save(user);
+        double remaining = refreshBalance(user);
 
         // 5. Next Grant Info
         LocalDate nextGrantDate = null;
@@ -402,16 +328,11 @@ public class PaidLeaveService {
 
             // Valid cycle check: must be at least the first grant date
             if (!currentCycleStart.isBefore(firstGrantDate)) {
-                for (PaidLeave leave : approvedLeaves) {
-                    // Count if start date is within current cycle [currentCycleStart,
-                    // nextGrantDate)
-                    if (leave.getStartDate().isAfter(currentCycleStart.minusDays(1))
-                            && leave.getStartDate().isBefore(nextGrantDate)) {
-                        double baseDays = (double) java.time.temporal.ChronoUnit.DAYS.between(leave.getStartDate(),
-                                leave.getEndDate()) + 1;
-                        double days = (leave.getLeaveType() == PaidLeave.LeaveType.FULL) ? baseDays : baseDays * 0.5;
-                        obligatoryDaysTaken += days;
-                    }
+                // Count leaves whose start date is within current cycle [currentCycleStart, nextGrantDate)
+                List<PaidLeave> cycleLeaves = repository.findByUserIdAndStatusAndStartDateBetweenOrderByStartDateAsc(
+                        userId, PaidLeave.Status.APPROVED, currentCycleStart, nextGrantDate.minusDays(1));
+                for (PaidLeave leave : cycleLeaves) {
+                    obligatoryDaysTaken += PaidLeaveLedgerService.countDays(leave);
                 }
 
                 isObligationMet = obligatoryDaysTaken >= obligatoryTarget;
@@ -444,14 +365,28 @@ public class PaidLeaveService {
     }
 
     /**
-     * Fix balance consistency for all users (Admin only)
+     * Refresh the cached users.paid_leave_days from the ledger.
+     * Builds the ledger first if this user has grants recorded before it existed.
      */
-    @Transactional
-    public void fixBalanceConsistency() {
-        List<User> users = userRepository.findAll();
-        for (User user : users) {
-            calculateCurrentBalance(user.getId());
+    private double refreshBalance(User user) {
+        if (!ledgerService.isInitialized(user.getId())) {
+            ledgerService.rebuild(user.getId());
         }
+        double remaining = ledgerService.currentBalance(user.getId(), LocalDate.now());
+        user.setPaidLeaveDays(remaining);
+        userRepository.save(user);
+        return remaining;
+    }
+
+    /**
+     * Fix balance consistency for a single user.
+     * Verification/repair path: re-simulates the ledger before recalculating.
+     * Run for every user by {@link BalanceRepairJob}.
+     */
+    @Transactional
+    public void repairBalance(Long userId) {
+        ledgerService.rebuild(userId);
+        calculateCurrentBalance(userId);
     }
 
     /**
@@ -510,147 +445,6 @@ public class PaidLeaveService {
             targetUsers = userRepository.findByFacilityInAndDeletedAtIsNull(managedFacilities);
         }
 
-        LocalDate today = LocalDate.now();
-
-        return targetUsers.stream().map(user -> {
-            if (user.getJoinedDate() == null) {
-                // If no joined date, cannot calculate. Return empty/null state.
-                return com.medical.wiki.dto.AdminLeaveMonitoringDto.builder()
-                        .userId(user.getId())
-                        .userName(user.getName())
-                        .employeeId(user.getEmployeeId())
-                        .facilityName(user.getFacility())
-                        .joinedDate(null)
-                        .currentPaidLeaveDays(0.0)
-                        .obligatoryDaysTaken(0.0)
-                        .obligatoryTarget(5.0)
-                        .isObligationMet(false)
-                        .needsAttention(false)
-                        .daysRemainingToObligation(0.0)
-                        .currentCycleStart(null)
-                        .currentCycleEnd(null)
-                        .baseDate(null)
-                        .targetEndDate(null)
-                        .isViolation(false)
-                        .build();
-            }
-
-            // 1. Calculate Base Date (Current Cycle Start)
-            LocalDate firstBaseDate = user.getJoinedDate().plusMonths(6);
-            LocalDate currentCycleStart = firstBaseDate;
-
-            // Allow future joined users (currentCycleStart > today)?
-            // If strictly following rule "Apply Period: [Latest Base] ~ [Latest Base + 1y]"
-            // We find the cycle that covers Today, OR the cycle about to start if Today <
-            // FirstBase.
-
-            if (today.isBefore(firstBaseDate)) {
-                // Not yet reached first base date.
-                currentCycleStart = firstBaseDate;
-            } else {
-                // Find latest base date <= today
-                // E.g. First: 2020-04-01. Today: 2023-05-01.
-                // 2020-04, 2021-04, 2022-04, 2023-04 (match).
-                // Simple math:
-                // Years passed = ChronoUnit.YEARS.between(firstBaseDate, today);
-                // currentCycleStart = firstBaseDate.plusYears(yearsPassed);
-                // Verify: 2020-04-01 to 2023-05-01 is 3 years.
-                // 2020 + 3 = 2023-04-01. Correct.
-                long years = java.time.temporal.ChronoUnit.YEARS.between(firstBaseDate, today);
-                if (years < 0)
-                    years = 0; // Should be handled by if-before check, but safety.
-                currentCycleStart = firstBaseDate.plusYears(years);
-            }
-
-            LocalDate currentCycleEnd = currentCycleStart.plusYears(1).minusDays(1);
-
-            // Previous Cycle
-            LocalDate previousCycleStart = currentCycleStart.minusYears(1);
-            LocalDate previousCycleEnd = currentCycleStart.minusDays(1);
-
-            // 2. Count Approved Leaves
-            List<PaidLeave> allLeaves = repository.findByUserIdAndStatusOrderByStartDateAsc(user.getId(),
-                    PaidLeave.Status.APPROVED);
-
-            double currentCount = countApprovedDaysInPeriod(allLeaves, currentCycleStart, currentCycleEnd);
-            double previousCount = countApprovedDaysInPeriod(allLeaves, previousCycleStart, previousCycleEnd);
-
-            // 3. Alerts
-            // Violation: If previous period valid (started after/on firstBaseDate) AND
-            // count < 5.0
-            boolean isViolation = false;
-            if (!previousCycleStart.isBefore(firstBaseDate)) {
-                if (previousCount < 5.0) {
-                    isViolation = true;
-                }
-            }
-
-            // Fix: If Current Obligation is Met (>= 5.0), DO NOT show Violation.
-            // Priority: Current Achievement > Past Failure.
-            if (currentCount >= 5.0) {
-                isViolation = false;
-            }
-
-            // Warning: If current period active AND close to end (< 3 months) AND count <
-            // 5.0
-            boolean needsAttention = false;
-            // "Period has ended yet < 5 days" -> This is Violation.
-            // "Period close to end (< 3 months)"
-            LocalDate threeMonthsBeforeEnd = currentCycleEnd.minusMonths(3);
-            if (currentCount < 5.0 && today.isAfter(threeMonthsBeforeEnd)) {
-                needsAttention = true;
-            }
-
-            // Calculate remaining balance for display (Total available)
-            // Reuse existing logic or simple fetch?
-            // Existing calculateCurrentBalance is heavy but correct for Balance.
-            // We can call it.
-            com.medical.wiki.dto.PaidLeaveStatusDto balanceStatus = calculateCurrentBalance(user.getId());
-
-            return com.medical.wiki.dto.AdminLeaveMonitoringDto.builder()
-                    .userId(user.getId())
-                    .userName(user.getName())
-                    .employeeId(user.getEmployeeId())
-                    .facilityName(user.getFacility())
-                    .joinedDate(user.getJoinedDate())
-                    .currentPaidLeaveDays(balanceStatus.getRemainingDays())
-                    .obligatoryDaysTaken(currentCount)
-                    .obligatoryTarget(5.0)
-                    .isObligationMet(currentCount >= 5.0)
-                    .needsAttention(needsAttention)
-                    .daysRemainingToObligation(Math.max(0, 5.0 - currentCount))
-                    .currentCycleStart(currentCycleStart)
-                    .currentCycleEnd(currentCycleEnd)
-                    .baseDate(currentCycleStart) // Alias
-                    .targetEndDate(currentCycleEnd) // Alias
-                    .isViolation(isViolation)
-                    .build();
-        }).collect(Collectors.toList());
-    }
-
-    private double countApprovedDaysInPeriod(List<PaidLeave> leaves, LocalDate start, LocalDate end) {
-        return leaves.stream()
-                .filter(l -> !l.getEndDate().isBefore(start) && !l.getStartDate().isAfter(end))
-                .mapToDouble(l -> {
-                    // Overlap calculation? Or just count if startDate is in range?
-                    // "Count approved leaves in periods".
-                    // If spans, strictly intersection?
-                    // User didn't specify. Assuming "Start Date falls in period" or intersection.
-                    // Precise intersection is safer.
-                    LocalDate effectiveStart = l.getStartDate().isBefore(start) ? start : l.getStartDate();
-                    LocalDate effectiveEnd = l.getEndDate().isAfter(end) ? end : l.getEndDate();
-
-                    if (effectiveStart.isAfter(effectiveEnd))
-                        return 0.0;
-
-                    // Logic for days. Assuming leave_type applies to the whole range if simple.
-                    // But standard is 1 day usually.
-                    // If multi-day FULL: count business days? application assumes pure days.
-                    // LeaveType: FULL=1.0 per day. HALF=0.5 per day.
-                    long days = java.time.temporal.ChronoUnit.DAYS.between(effectiveStart, effectiveEnd) + 1;
-                    double unit = l.getLeaveType() == PaidLeave.LeaveType.FULL ? 1.0 : 0.5;
-                    return days * unit;
-                })
-                .sum();
+        return leaveMonitoringService.compute(targetUsers, LocalDate.now());
     }
 }
@@ -0,0 +1,83 @@
+package com.medical.wiki.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded CPU pool for password hashing in bulk operations. BCrypt costs ~100 ms per
+ * password, so a bulk import hashes its rows in contiguous slices across the pool.
+ * Sized to the available cores unless app.user.import.hash-workers is set.
+ */
+@Component
+public class PasswordHashingPool {
+
+    // Slices per worker, so one slow slice does not leave the other cores idle
+    private static final int SLICES_PER_WORKER = 4;
+
+    private final PasswordEncoder passwordEncoder;
+    private final int workers;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingPool(PasswordEncoder passwordEncoder,
+            @Value("${app.user.import.hash-workers:0}") int workers) {
+        this.passwordEncoder = passwordEncoder;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        // Bounded queue + CallerRunsPolicy: concurrent imports hash on their own thread once the pool is full
+        this.executor = new ThreadPoolExecutor(this.workers, this.workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.workers * SLICES_PER_WORKER), r -> {
+                    Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int workers() {
+        return workers;
+    }
+
+    /**
+     * Encode every password; the result at index i is the hash of {@code rawPasswords.get(i)}.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int size = rawPasswords.size();
+        String[] hashes = new String[size];
+        int slices = Math.min(size, workers * SLICES_PER_WORKER);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(slices);
+        for (int i = 0; i < slices; i++) {
+            int from = (int) ((long) size * i / slices);
+            int to = (int) ((long) size * (i + 1) / slices);
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int j = from; j < to; j++) {
+                    hashes[j] = passwordEncoder.encode(rawPasswords.get(j));
+                }
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return Arrays.asList(hashes);
+    }
+}
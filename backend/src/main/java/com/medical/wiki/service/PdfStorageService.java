@@ -0,0 +1,170 @@
+package com.medical.wiki.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Content-addressed PDF storage. Uploads are streamed into a temp file in the storage
+ * directory while SHA-256 is computed in the same pass, fsynced, then renamed into
+ * {@code sha256/<hash>.pdf}. Readers only ever see complete files, and identical PDFs
+ * share one file.
+ * Files no manual references are removed by {@link #sweep}, and only once untouched for the
+ * grace period: an upload reusing a file refreshes its mtime under the same per-hash lock,
+ * so a file cannot be deleted between dedup and the commit that references it.
+ */
+@Service
+@Slf4j
+public class PdfStorageService {
+
+    static final String CONTENT_DIR = "sha256";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final long maxBytes;
+    private final Duration orphanGrace;
+    // Striped by content hash: serializes dedup/publish with the sweep's check-and-delete
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public PdfStorageService(
+            @Value("${app.manual.upload-dir:/app/uploads/manuals}") String uploadDir,
+            @Value("${app.manual.pdf-max-bytes:104857600}") long maxBytes,
+            @Value("${app.manual.pdf-orphan-grace-minutes:60}") long orphanGraceMinutes) {
+        this.root = Paths.get(uploadDir);
+        this.maxBytes = maxBytes;
+        this.orphanGrace = Duration.ofMinutes(orphanGraceMinutes);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public record StoredPdf(String relativePath, String sha256, long size) {
+    }
+
+    /**
+     * Stream a PDF into storage. The caller owns (and closes) the input stream.
+     */
+    public StoredPdf store(InputStream in) throws IOException {
+        Path contentDir = root.resolve(CONTENT_DIR);
+        Files.createDirectories(contentDir);
+
+        Path tmp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (OutputStream out = new DigestOutputStream(
+                    Files.newOutputStream(tmp, StandardOpenOption.WRITE), digest)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("PDFファイルのサイズが上限を超えています");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("PDFファイルが空です");
+            }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relativePath = CONTENT_DIR + "/" + hash + ".pdf";
+            Path target = root.resolve(relativePath);
+            synchronized (lockFor(hash)) {
+                if (Files.exists(target)) {
+                    // Same content already stored; touch it so the sweep treats it as fresh
+                    Files.delete(tmp);
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                } else {
+                    move(tmp, target);
+                }
+            }
+            return new StoredPdf(relativePath, hash, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public Path resolve(String relativePath) {
+        return root.resolve(relativePath);
+    }
+
+    /**
+     * Delete stored files that are not in {@code referenced} and older than the grace period.
+     * {@code referenced} must be read before the sweep starts.
+     *
+     * @return number of files deleted
+     */
+    public int sweep(Set<String> referenced) throws IOException {
+        Path contentDir = root.resolve(CONTENT_DIR);
+        if (!Files.isDirectory(contentDir)) {
+            return 0;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(orphanGrace));
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(contentDir, "*.pdf")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (referenced.contains(CONTENT_DIR + "/" + name)) {
+                    continue;
+                }
+                synchronized (lockFor(name.substring(0, name.length() - ".pdf".length()))) {
+                    try {
+                        if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0 && Files.deleteIfExists(file)) {
+                            deleted++;
+                        }
+                    } catch (IOException e) {
+                        log.warn("Failed to delete unreferenced PDF {}: {}", name, e.getMessage());
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.PersonalDashboardDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Personal dashboard summary (/api/my/summary). Three aggregate statements (progress,
+ * leave/attendance requests by status, user/manual/training counts) and the cached
+ * announcement count run concurrently on a bounded pool; the assembled summary is cached
+ * per user for a short TTL and dropped when the user reads a manual or submits a request.
+ */
+@Service
+@Slf4j
+public class PersonalDashboardService {
+
+    private static final DateTimeFormatter LAST_READ_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    private static final String PROGRESS_SQL = "SELECT COUNT(*), "
+            + "COALESCE(SUM(CASE WHEN read_at >= ? AND read_at < ? THEN 1 ELSE 0 END), 0), "
+            + "MAX(read_at) FROM progress WHERE user_id = ?";
+
+    private static final String REQUESTS_SQL = "SELECT "
+            + "(SELECT COUNT(CASE WHEN status = 'PENDING' THEN 1 END) FROM paid_leaves WHERE user_id = ?) "
+            + "+ (SELECT COUNT(CASE WHEN status = 'PENDING' THEN 1 END) FROM attendance_requests WHERE user_id = ?), "
+            + "(SELECT COUNT(CASE WHEN status = 'APPROVED' THEN 1 END) FROM paid_leaves WHERE user_id = ?) "
+            + "+ (SELECT COUNT(CASE WHEN status = 'APPROVED' THEN 1 END) FROM attendance_requests WHERE user_id = ?)";
+
+    private static final String USER_SQL = "SELECT u.paid_leave_days, "
+            + "(SELECT COUNT(*) FROM manuals), "
+            + "(SELECT COUNT(*) FROM training_responses WHERE user_id = u.id) "
+            + "FROM users u WHERE u.id = ?";
+
+    private record ProgressStats(int completed, int monthly, String lastReadDate) {
+    }
+
+    private record RequestStats(int pending, int approved) {
+    }
+
+    private record UserStats(double paidLeaveDays, int totalManuals, int completedTrainings) {
+    }
+
+    private record Entry(PersonalDashboardDto summary, long expiresAtNanos) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnnouncementService announcementService;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public PersonalDashboardService(JdbcTemplate jdbcTemplate, AnnouncementService announcementService,
+            @Value("${app.dashboard.summary.ttl-seconds:15}") long ttlSeconds,
+            @Value("${app.dashboard.summary.cache-max-size:5000}") int maxSize,
+            @Value("${app.dashboard.summary.workers:8}") int workers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.announcementService = announcementService;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.maxSize = maxSize;
+        AtomicInteger counter = new AtomicInteger();
+        // Bounded queue + CallerRunsPolicy: under load the request thread runs the query itself
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 4), r -> {
+                    Thread t = new Thread(r, "dashboard-summary-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public PersonalDashboardDto getSummary(Long userId) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAtNanos() - now > 0) {
+            return entry.summary();
+        }
+
+        CompletableFuture<UserStats> user = CompletableFuture.supplyAsync(() -> loadUserStats(userId), executor);
+        CompletableFuture<ProgressStats> progress = CompletableFuture.supplyAsync(() -> loadProgressStats(userId),
+                executor);
+        CompletableFuture<RequestStats> requests = CompletableFuture.supplyAsync(() -> loadRequestStats(userId),
+                executor);
+        CompletableFuture<Integer> announcements = CompletableFuture
+                .supplyAsync(() -> announcementService.countAnnouncementsForUser(userId), executor);
+
+        PersonalDashboardDto summary;
+        try {
+            CompletableFuture.allOf(user, progress, requests, announcements).join();
+            summary = PersonalDashboardDto.builder()
+                    .completedManualsCount(progress.join().completed())
+                    .totalManualsCount(user.join().totalManuals())
+                    .monthlyReadCount(progress.join().monthly())
+                    .lastReadDate(progress.join().lastReadDate())
+                    .pendingLeaveRequestsCount(requests.join().pending())
+                    .approvedLeaveRequestsCount(requests.join().approved())
+                    .paidLeaveDays(user.join().paidLeaveDays())
+                    .unreadNotificationsCount(announcements.join())
+                    .completedTrainingCount(user.join().completedTrainings())
+                    .build();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        put(userId, summary, now);
+        return summary;
+    }
+
+    /**
+     * Drop the user's summary now and again after the current transaction commits.
+     */
+    public void invalidate(Long userId) {
+        entries.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(userId);
+                }
+            });
+        }
+    }
+
+    private UserStats loadUserStats(Long userId) {
+        return jdbcTemplate.query(USER_SQL, rs -> {
+            if (!rs.next()) {
+                throw new RuntimeException("User not found");
+            }
+            return new UserStats(rs.getDouble(1), rs.getInt(2), rs.getInt(3));
+        }, userId);
+    }
+
+    private ProgressStats loadProgressStats(Long userId) {
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        return jdbcTemplate.queryForObject(PROGRESS_SQL, (rs, rowNum) -> {
+            Timestamp lastRead = rs.getTimestamp(3);
+            return new ProgressStats(rs.getInt(1), rs.getInt(2),
+                    lastRead == null ? "-" : lastRead.toLocalDateTime().format(LAST_READ_FORMAT));
+        }, Timestamp.valueOf(monthStart.atStartOfDay()), Timestamp.valueOf(monthStart.plusMonths(1).atStartOfDay()),
+                userId);
+    }
+
+    private RequestStats loadRequestStats(Long userId) {
+        return jdbcTemplate.queryForObject(REQUESTS_SQL,
+                (rs, rowNum) -> new RequestStats(rs.getInt(1), rs.getInt(2)),
+                userId, userId, userId, userId);
+    }
+
+    private void put(Long userId, PersonalDashboardDto summary, long now) {
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(e -> e.expiresAtNanos() - now <= 0);
+            Iterator<Long> it = entries.keySet().iterator();
+            while (entries.size() >= maxSize && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(userId, new Entry(summary, now + ttlNanos));
+    }
+}
@@ -18,6 +18,10 @@ public class ProgressService {
     private final UserRepository userRepository;
     private final ManualRepository manualRepository;
     private final LoggingService loggingService;
+    private final CompletionMatrix completionMatrix;
+    private final PersonalDashboardService personalDashboardService;
+    private final ResourceVersions resourceVersions;
+    private final org.springframework.jdbc.core.JdbcTemplate jdbcTemplate;
 
     @Transactional
     public ProgressDto markAsRead(Long userId, Long manualId) {
@@ -39,7 +43,11 @@ public class ProgressService {
                 .readAt(LocalDateTime.now())
                 .build();
 
-        return ProgressDto.fromEntity(progressRepository.save(progress));
+        ProgressDto saved = ProgressDto.fromEntity(progressRepository.save(progress));
+        completionMatrix.markCompleted(userId, manualId);
+        personalDashboardService.invalidate(userId);
+        resourceVersions.bumpProgress(userId);
+        return saved;
     }
 
     public List<ProgressDto> getMyProgress(Long userId) {
@@ -50,13 +58,39 @@ public class ProgressService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Completion per user from the in-memory completion matrix (no per-user queries).
+     * progressList carries manual id/title/category only; id and readAt are not populated.
+     */
     public List<UserProgressDto> getAllUsersProgress() {
         List<User> allUsers = userRepository.findAllByRoleNot(User.Role.DEVELOPER);
-        long totalManuals = manualRepository.count();
+
+        // Titles only; manual content is never loaded
+        Map<Long, ProgressDto> manualsById = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, title, category FROM manuals", rs -> {
+            long manualId = rs.getLong("id");
+            manualsById.put(manualId, ProgressDto.builder()
+                    .manualId(manualId)
+                    .manualTitle(rs.getString("title"))
+                    .category(rs.getString("category"))
+                    .build());
+        });
+        int totalManuals = manualsById.size();
 
         return allUsers.stream()
                 .map(user -> {
-                    List<Progress> progressList = progressRepository.findByUserId(user.getId());
+                    List<ProgressDto> progressList = new ArrayList<>();
+                    for (Long manualId : completionMatrix.completedManualIds(user.getId())) {
+                        ProgressDto manual = manualsById.get(manualId);
+                        if (manual != null) {
+                            progressList.add(ProgressDto.builder()
+                                    .userId(user.getId())
+                                    .manualId(manualId)
+                                    .manualTitle(manual.getManualTitle())
+                                    .category(manual.getCategory())
+                                    .build());
+                        }
+                    }
                     int readCount = progressList.size();
                     double percentage = totalManuals > 0 ? (readCount * 100.0 / totalManuals) : 0;
 
@@ -64,26 +98,45 @@ public class ProgressService {
                             .userId(user.getId())
                             .employeeId(user.getEmployeeId())
                             .name(user.getName())
-                            .name(user.getName())
                             .facility(user.getFacility())
                             .department(user.getDepartment())
-                            .totalManuals((int) totalManuals)
+                            .totalManuals(totalManuals)
                             .readManuals(readCount)
                             .progressPercentage(Math.round(percentage * 10.0) / 10.0)
-                            .progressList(progressList.stream()
-                                    .map(ProgressDto::fromEntity)
-                                    .collect(Collectors.toList()))
+                            .progressList(progressList)
                             .build();
                 })
                 .sorted(Comparator.comparing(UserProgressDto::getName))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Completion rate (%) per facility over active non-developer users, from matrix popcounts.
+     */
+    public Map<String, Double> getFacilityCompletionRates() {
+        long totalManuals = manualRepository.count();
+        Map<String, List<Long>> idsByFacility = userRepository.findAllByDeletedAtIsNull().stream()
+                .filter(u -> u.getRole() != User.Role.DEVELOPER && u.getFacility() != null)
+                .collect(Collectors.groupingBy(User::getFacility, TreeMap::new,
+                        Collectors.mapping(User::getId, Collectors.toList())));
+
+        Map<String, Double> rates = new LinkedHashMap<>();
+        idsByFacility.forEach((facility, ids) -> {
+            long completed = completionMatrix.completionCount(completionMatrix.userMask(ids));
+            double rate = totalManuals > 0 ? completed * 100.0 / (totalManuals * ids.size()) : 0;
+            rates.put(facility, Math.round(rate * 10.0) / 10.0);
+        });
+        return rates;
+    }
+
     @Transactional
     public void resetProgress(Long userId) {
         User user = userRepository.findById(userId).orElse(null);
         String targetName = user != null ? user.getName() : "Unknown User (" + userId + ")";
         progressRepository.deleteByUserId(userId);
+        completionMatrix.clearUser(userId);
+        personalDashboardService.invalidate(userId);
+        resourceVersions.bumpProgress(userId);
         loggingService.log("PROGRESS_RESET", targetName, "User progress reset", "ADMIN");
     }
 }
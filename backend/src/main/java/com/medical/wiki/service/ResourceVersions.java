@@ -0,0 +1,126 @@
+package com.medical.wiki.service;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process version counters for reference data and list endpoints. Writers call
+ * {@link #bump}; GET handlers build a weak ETag from the counter and answer 304 before
+ * running any query. A per-boot epoch keeps tags from matching across restarts.
+ * Per-user read progress (the "read" flag in manual lists) has its own counter.
+ */
+@Component
+public class ResourceVersions {
+
+    public enum Resource {
+        MANUALS, FACILITIES, DEPARTMENTS, COMMITTEES
+    }
+
+    // Clients must revalidate every time, but may keep the body
+    static final String CACHE_CONTROL = "private, no-cache";
+    // Tags are per caller; a shared terminal must not reuse another user's copy
+    static final String VARY = "X-User-Id";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+    private final Map<Long, AtomicLong> progressVersions = new ConcurrentHashMap<>();
+
+    public ResourceVersions() {
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+    }
+
+    /**
+     * Advance the version now and again after the current transaction commits, so a
+     * request that read the pre-commit rows cannot keep a tag that looks current.
+     */
+    public void bump(Resource resource) {
+        bumpNowAndAfterCommit(versions.get(resource));
+    }
+
+    public void bumpProgress(Long userId) {
+        bumpNowAndAfterCommit(progressVersions.computeIfAbsent(userId, id -> new AtomicLong()));
+    }
+
+    public long version(Resource resource) {
+        return versions.get(resource).get();
+    }
+
+    public long progressVersion(Long userId) {
+        AtomicLong counter = progressVersions.get(userId);
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * Weak ETag for a resource. {@code scope} distinguishes variants of the same URL
+     * (caller role, user id). Numbers and plain ASCII words are embedded verbatim, so
+     * distinct scopes never share a tag; anything else is replaced by its SHA-256 prefix
+     * to stay header-safe.
+     */
+    public String etag(Resource resource, Object... scope) {
+        StringBuilder tag = new StringBuilder("W/\"")
+                .append(resource.name().toLowerCase())
+                .append('-').append(epoch)
+                .append('-').append(version(resource));
+        for (Object value : scope) {
+            tag.append('-').append(scopeToken(value));
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Set ETag and Cache-Control and report whether the client copy is current
+     * (the response is then already a 304 and the handler should return null).
+     */
+    public boolean checkNotModified(NativeWebRequest request, String etag) {
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            response.addHeader(HttpHeaders.VARY, VARY);
+        }
+        return request.checkNotModified(etag);
+    }
+
+    // '-' separates tokens, so it never appears inside one; '~' marks null
+    private static String scopeToken(Object value) {
+        if (value == null) {
+            return "~";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && text.chars().allMatch(c -> c < 128 && (Character.isLetterOrDigit(c) || c == '_'))) {
+            return text;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return "h" + HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void bumpNowAndAfterCommit(AtomicLong counter) {
+        counter.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.incrementAndGet();
+                }
+            });
+        }
+    }
+}
@@ -6,9 +6,7 @@ import com.medical.wiki.entity.SecurityAnomaly.AnomalyType;
 import com.medical.wiki.entity.SecurityAnomaly.Severity;
 import com.medical.wiki.entity.SecurityAnomaly.Status;
 import com.medical.wiki.entity.User;
-import com.medical.wiki.entity.SystemLog;
 import com.medical.wiki.repository.SecurityAnomalyRepository;
-import com.medical.wiki.repository.SystemLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -28,21 +26,19 @@ import java.util.stream.Collectors;
 public class SecurityAnomalyService {
 
     private final SecurityAnomalyRepository securityAnomalyRepository;
-    private final SystemLogRepository systemLogRepository;
+    private final SlidingWindowAnomalyEngine anomalyEngine;
 
     private static final ZoneId JST = ZoneId.of("Asia/Tokyo");
 
-    // Thresholds
-    private static final int RAPID_IMPORTANT_ACTION_THRESHOLD = 5;
-    private static final int RAPID_IMPORTANT_ACTION_WINDOW_MINUTES = 1;
-    private static final int CONSECUTIVE_LOGIN_FAILURE_THRESHOLD = 3;
+    // Thresholds: app.security.anomaly.* (SlidingWindowAnomalyEngine)
 
     private static final Set<String> IMPORTANT_ACTIONS = Set.of(
             "MANUAL_DOWNLOAD", "MANUAL_DELETE", "USER_DELETE", "USER_GRANT_ROLE");
 
     /**
      * Check for Rapid Important Action Anomaly
-     * Rule: >5 important actions in 1 minute.
+     * Rule: >= threshold (default 5) important actions in the window (default 1 minute),
+     * at most one alert per user and type within the cooldown. Evaluated in memory.
      */
     @Transactional
     public void checkImportantActionAnomaly(User user, String action, String ipAddress) {
@@ -50,61 +46,56 @@ public class SecurityAnomalyService {
             return;
         }
 
-        ZonedDateTime nowJst = ZonedDateTime.now(JST);
-        LocalDateTime now = nowJst.toLocalDateTime();
-        LocalDateTime since = now.minusMinutes(RAPID_IMPORTANT_ACTION_WINDOW_MINUTES);
-
-        long count = systemLogRepository.countByPerformedByAndActionAndTimestampAfter(
-                user.getEmployeeId(), action, since);
-
-        if (count >= RAPID_IMPORTANT_ACTION_THRESHOLD) {
-            long recentAlerts = securityAnomalyRepository.countByUserIdAndTypeAndDetectedAtAfter(
-                    user.getId(), AnomalyType.RAPID_ACCESS, since.minusMinutes(5));
-
-            if (recentAlerts == 0) {
-                createAnomaly(
-                        AnomalyType.RAPID_ACCESS,
-                        user,
-                        Severity.HIGH,
-                        String.format("短時間の重要操作検知(%s: %d回/分)", action, count),
-                        ipAddress,
-                        now);
-            }
+        int count = anomalyEngine.recordImportantAction(user.getEmployeeId(), action, System.currentTimeMillis());
+        if (count > 0) {
+            createAnomaly(
+                    AnomalyType.RAPID_ACCESS,
+                    user,
+                    Severity.HIGH,
+                    String.format("短時間の重要操作検知(%s: %d回/分)", action, count),
+                    ipAddress,
+                    ZonedDateTime.now(JST).toLocalDateTime());
         }
     }
 
     /**
      * Check for Consecutive Login Failures
-     * Rule: 3 consecutive failures by same user.
+     * Rule: >= threshold (default 3) consecutive failures by same user. Evaluated in memory.
      */
     @Transactional
     public void checkLoginFailure(String employeeId, String ipAddress) {
-        List<SystemLog> lastLogs = systemLogRepository.findTop3ByPerformedByOrderByTimestampDesc(employeeId);
-
-        if (lastLogs.size() < CONSECUTIVE_LOGIN_FAILURE_THRESHOLD) {
+        // Login bodies are not validated: nothing to count without an id
+        if (employeeId == null || employeeId.isBlank()) {
+            return;
+        }
+        if (!anomalyEngine.recordLoginFailure(employeeId)) {
             return;
         }
 
-        // Check if all are LOGIN_FAILURE
-        boolean allFailures = lastLogs.stream()
-                .allMatch(log -> "LOGIN_FAILURE".equals(log.getAction()));
-
-        if (allFailures) {
-            LocalDateTime now = ZonedDateTime.now(JST).toLocalDateTime();
-
-            SecurityAnomaly anomaly = SecurityAnomaly.builder()
-                    .type(AnomalyType.LOGIN_FAILURE)
-                    .detectedAt(now)
-                    .userEmployeeId(employeeId)
-                    .severity(Severity.HIGH) // Consecutive failures are high risk
-                    .status(Status.OPEN)
-                    .description(String.format("3回以上の連続ログイン失敗 (ID: %s)", employeeId))
-                    .ipAddress(ipAddress)
-                    .build();
-
-            securityAnomalyRepository.save(anomaly);
-            log.warn("Consecutive login failure detected for employee: {}", employeeId);
+        LocalDateTime now = ZonedDateTime.now(JST).toLocalDateTime();
+
+        SecurityAnomaly anomaly = SecurityAnomaly.builder()
+                .type(AnomalyType.LOGIN_FAILURE)
+                .detectedAt(now)
+                .userEmployeeId(employeeId)
+                .severity(Severity.HIGH) // Consecutive failures are high risk
+                .status(Status.OPEN)
+                .description(String.format("3回以上の連続ログイン失敗 (ID: %s)", employeeId))
+                .ipAddress(ipAddress)
+                .build();
+
+        securityAnomalyRepository.save(anomaly);
+        log.warn("Consecutive login failure detected for employee: {}", employeeId);
+    }
+
+    /**
+     * Successful login ends a run of consecutive failures.
+     */
+    public void recordLoginSuccess(String employeeId) {
+        if (employeeId == null || employeeId.isBlank()) {
+            return;
         }
+        anomalyEngine.recordLoginSuccess(employeeId);
     }
 
     // Existing methods (Getters, Helpers)
@@ -0,0 +1,216 @@
+package com.medical.wiki.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory state for the security anomaly rules, O(1) per event.
+ * - Rapid important actions: per (user, action) ring buffer of the last N event times.
+ *   N events within the window  <=>  the oldest of the last N is inside the window.
+ * - Login failures: per employee consecutive-failure counter, reset by a successful login.
+ *   The key is whatever employee id was typed, so counters expire after an idle period
+ *   and the map is capped, dropping the least recently failed ids first.
+ * Updates are serialized per key with striped locks; the database is only used by the
+ * caller to persist raised anomalies. State is lost on restart.
+ */
+@Component
+public class SlidingWindowAnomalyEngine {
+
+    private static final int STRIPES = 64;
+
+    private final int actionThreshold;
+    private final long actionWindowMillis;
+    private final long alertCooldownMillis;
+    private final int loginFailureThreshold;
+    private final long loginFailureIdleMillis;
+    private final int loginFailureMaxKeys;
+
+    private final Object[] locks = new Object[STRIPES];
+    private final Map<String, ActionWindow> actionWindows = new ConcurrentHashMap<>();
+    private final Map<String, LoginFailures> loginFailures = new ConcurrentHashMap<>();
+
+    public SlidingWindowAnomalyEngine(
+            @Value("${app.security.anomaly.action-threshold:5}") int actionThreshold,
+            @Value("${app.security.anomaly.action-window-minutes:1}") long actionWindowMinutes,
+            @Value("${app.security.anomaly.alert-cooldown-minutes:5}") long alertCooldownMinutes,
+            @Value("${app.security.anomaly.login-failure-threshold:3}") int loginFailureThreshold,
+            @Value("${app.security.anomaly.login-failure-idle-minutes:60}") long loginFailureIdleMinutes,
+            @Value("${app.security.anomaly.login-failure-max-keys:10000}") int loginFailureMaxKeys) {
+        this.actionThreshold = actionThreshold;
+        this.actionWindowMillis = Duration.ofMinutes(actionWindowMinutes).toMillis();
+        this.alertCooldownMillis = Duration.ofMinutes(alertCooldownMinutes).toMillis();
+        this.loginFailureThreshold = loginFailureThreshold;
+        this.loginFailureIdleMillis = Duration.ofMinutes(loginFailureIdleMinutes).toMillis();
+        this.loginFailureMaxKeys = Math.max(1, loginFailureMaxKeys);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Record an important action.
+     *
+     * @return number of events in the window if the rule fired (outside the alert cooldown), otherwise 0
+     */
+    public int recordImportantAction(String userKey, String action, long nowMillis) {
+        String key = userKey + "|" + action;
+        synchronized (lockFor(key)) {
+            ActionWindow window = actionWindows.computeIfAbsent(key, k -> new ActionWindow(actionThreshold));
+            window.add(nowMillis);
+
+            long windowStart = nowMillis - actionWindowMillis;
+            if (!window.full() || window.oldest() <= windowStart) {
+                return 0;
+            }
+            if (window.lastAlertMillis != 0 && nowMillis - window.lastAlertMillis < alertCooldownMillis) {
+                return 0;
+            }
+            window.lastAlertMillis = nowMillis;
+            return window.countSince(windowStart);
+        }
+    }
+
+    /**
+     * @return true if this failure reaches the consecutive-failure threshold
+     */
+    public boolean recordLoginFailure(String employeeId) {
+        return recordLoginFailure(employeeId, System.currentTimeMillis());
+    }
+
+    boolean recordLoginFailure(String employeeId, long nowMillis) {
+        int count;
+        synchronized (lockFor(employeeId)) {
+            LoginFailures failures = loginFailures.get(employeeId);
+            if (failures == null || nowMillis - failures.lastFailureMillis >= loginFailureIdleMillis) {
+                failures = new LoginFailures();
+                loginFailures.put(employeeId, failures);
+            }
+            failures.count++;
+            failures.lastFailureMillis = nowMillis;
+            count = failures.count;
+        }
+        if (loginFailures.size() > loginFailureMaxKeys) {
+            trimLoginFailures(nowMillis);
+        }
+        return count >= loginFailureThreshold;
+    }
+
+    public void recordLoginSuccess(String employeeId) {
+        synchronized (lockFor(employeeId)) {
+            loginFailures.remove(employeeId);
+        }
+    }
+
+    /**
+     * Drop windows with no recent activity so idle users do not keep state forever.
+     */
+    @Scheduled(fixedDelay = 10 * 60 * 1000L)
+    public void evictIdle() {
+        evictIdle(System.currentTimeMillis());
+    }
+
+    void evictIdle(long nowMillis) {
+        long cutoff = nowMillis - Math.max(actionWindowMillis, alertCooldownMillis);
+        actionWindows.forEach((key, window) -> {
+            synchronized (lockFor(key)) {
+                if (window.newest() < cutoff && window.lastAlertMillis < cutoff) {
+                    actionWindows.remove(key);
+                }
+            }
+        });
+        evictIdleLoginFailures(nowMillis - loginFailureIdleMillis);
+    }
+
+    int trackedLoginFailures() {
+        return loginFailures.size();
+    }
+
+    private void evictIdleLoginFailures(long cutoff) {
+        loginFailures.forEach((key, failures) -> {
+            synchronized (lockFor(key)) {
+                if (failures.lastFailureMillis <= cutoff) {
+                    loginFailures.remove(key, failures);
+                }
+            }
+        });
+    }
+
+    // Over the cap: drop idle counters, then the least recently failed down to 90% of the cap
+    private synchronized void trimLoginFailures(long nowMillis) {
+        if (loginFailures.size() <= loginFailureMaxKeys) {
+            return;
+        }
+        evictIdleLoginFailures(nowMillis - loginFailureIdleMillis);
+        int excess = loginFailures.size() - loginFailureMaxKeys * 9 / 10;
+        if (excess <= 0) {
+            return;
+        }
+        loginFailures.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastFailureMillis))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(key -> {
+                    synchronized (lockFor(key)) {
+                        loginFailures.remove(key);
+                    }
+                });
+    }
+
+    private Object lockFor(String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static final class LoginFailures {
+        int count;
+        long lastFailureMillis;
+    }
+
+    /**
+     * Ring buffer of the last {@code capacity} event times.
+     */
+    private static final class ActionWindow {
+        private final long[] times;
+        private int next;
+        private int size;
+        long lastAlertMillis;
+
+        ActionWindow(int capacity) {
+            times = new long[Math.max(1, capacity)];
+        }
+
+        void add(long millis) {
+            times[next] = millis;
+            next = (next + 1) % times.length;
+            size = Math.min(size + 1, times.length);
+        }
+
+        boolean full() {
+            return size == times.length;
+        }
+
+        long oldest() {
+            return full() ? times[next] : times[0];
+        }
+
+        long newest() {
+            return times[(next - 1 + times.length) % times.length];
+        }
+
+        int countSince(long windowStart) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (times[i] > windowStart) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
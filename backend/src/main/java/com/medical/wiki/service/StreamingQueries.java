@@ -0,0 +1,53 @@
+package com.medical.wiki.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Forward-only queries for exports: rows are handed over one at a time as the driver reads
+ * them (MySQL Connector/J row-by-row mode, fetch size Integer.MIN_VALUE), so memory does not
+ * grow with the result size. The connection is busy until the result is fully read; do not
+ * issue other queries from inside a row handler.
+ */
+@Component
+public class StreamingQueries {
+
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private final JdbcTemplate streaming;
+
+    public StreamingQueries(JdbcTemplate jdbcTemplate) {
+        streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public void query(String sql, RowCallbackHandler handler, Object... args) {
+        streaming.query(sql, handler, args);
+    }
+
+    /**
+     * Like {@link #query} for handlers that write to an output; their IOException is rethrown as is.
+     */
+    public void write(String sql, RowWriter writer, Object... args) throws IOException {
+        try {
+            streaming.query(sql, rs -> {
+                try {
+                    writer.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
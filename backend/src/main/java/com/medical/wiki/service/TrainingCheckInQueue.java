@@ -0,0 +1,283 @@
+package com.medical.wiki.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.wiki.dto.CheckInReceiptDto;
+import com.medical.wiki.repository.TrainingEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingestion queue for training check-ins (QR scans at the end of a session).
+ * Submissions are acknowledged with a receipt as soon as they are queued; a writer thread
+ * drains them into JDBC batch inserts. Idempotency comes from the unique (event_id, user_id)
+ * key via INSERT IGNORE, so racing duplicates collapse into one row. A pair that is already
+ * stored is rejected with 409 by a point lookup on that key before it is acknowledged.
+ * A failed batch is requeued up to max-attempts times; check-ins that still cannot be written
+ * are appended to the dead-letter file (JSON lines) for replay, never silently dropped.
+ * Metrics: training.checkin.queue.size / .rejected / .duplicates / .retried / .failed
+ */
+@Service
+@Slf4j
+public class TrainingCheckInQueue {
+
+    // Attendee name is taken from users in the same statement
+    private static final String INSERT_SQL = "INSERT IGNORE INTO training_responses "
+            + "(event_id, user_id, attendee_name, answers_json, attended_at) "
+            + "SELECT ?, u.id, u.name, ?, ? FROM users u WHERE u.id = ?";
+    private static final String EXISTS_SQL = "SELECT EXISTS(SELECT 1 FROM training_responses "
+            + "WHERE event_id = ? AND user_id = ?)";
+
+    record Submission(Long eventId, Long userId, String answersJson, LocalDateTime attendedAt, int attempts) {
+        String key() {
+            return eventId + ":" + userId;
+        }
+
+        Submission retry() {
+            return new Submission(eventId, userId, answersJson, attendedAt, attempts + 1);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrainingEventRepository trainingEventRepository;
+    private final PersonalDashboardService personalDashboardService;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Submission> queue;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final Path deadLetterFile;
+    // (event, user) pairs queued but not yet written
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Events confirmed to exist (events are only soft-deleted), so a burst costs a single lookup
+    private final Set<Long> knownEvents = ConcurrentHashMap.newKeySet();
+    private final Counter rejected;
+    private final Counter duplicates;
+    private final Counter retried;
+    private final Counter failed;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    public TrainingCheckInQueue(JdbcTemplate jdbcTemplate, TrainingEventRepository trainingEventRepository,
+            PersonalDashboardService personalDashboardService, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.training.checkin.queue-capacity:5000}") int queueCapacity,
+            @Value("${app.training.checkin.batch-size:200}") int batchSize,
+            @Value("${app.training.checkin.offer-timeout-ms:2000}") long offerTimeoutMillis,
+            @Value("${app.training.checkin.max-attempts:3}") int maxAttempts,
+            @Value("${app.training.checkin.retry-delay-ms:1000}") long retryDelayMillis,
+            @Value("${app.training.checkin.dead-letter-file:checkin-dead-letter.jsonl}") String deadLetterFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trainingEventRepository = trainingEventRepository;
+        this.personalDashboardService = personalDashboardService;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.deadLetterFile = Path.of(deadLetterFile);
+        this.rejected = meterRegistry.counter("training.checkin.rejected");
+        this.duplicates = meterRegistry.counter("training.checkin.duplicates");
+        this.retried = meterRegistry.counter("training.checkin.retried");
+        this.failed = meterRegistry.counter("training.checkin.failed");
+        Gauge.builder("training.checkin.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "training-checkin-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        flush();
+    }
+
+    public CheckInReceiptDto submit(Long userId, Long eventId, String answersJson) {
+        if (!knownEvents.contains(eventId)) {
+            if (!trainingEventRepository.existsById(eventId)) {
+                throw new RuntimeException("Event not found");
+            }
+            knownEvents.add(eventId);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Submission submission = new Submission(eventId, userId, answersJson, now, 1);
+        CheckInReceiptDto.CheckInReceiptDtoBuilder receipt = CheckInReceiptDto.builder()
+                .receiptId(UUID.randomUUID().toString())
+                .eventId(eventId)
+                .userId(userId)
+                .acceptedAt(now);
+
+        // Queued pairs answer without a lookup; stored ones would be dropped by INSERT IGNORE
+        if (!pending.contains(submission.key())
+                && Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, eventId, userId))) {
+            duplicates.increment();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "この研修には既に回答済みです。");
+        }
+        if (!pending.add(submission.key())) {
+            duplicates.increment();
+            return receipt.status("DUPLICATE").build();
+        }
+        boolean queued;
+        try {
+            queued = queue.offer(submission, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            pending.remove(submission.key());
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "受付が混み合っています。しばらくしてから再度送信してください。");
+        }
+        return receipt.status("ACCEPTED").build();
+    }
+
+    /**
+     * Write everything queued so far on the calling thread.
+     */
+    public void flush() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void runWriter() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Submission first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                boolean ok = write(batch);
+                batch.clear();
+                if (!ok) {
+                    // Back off so an unavailable database does not burn through the retries
+                    Thread.sleep(retryDelayMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Insert one batch; returns false when it failed and was requeued or dead-lettered.
+     */
+    private boolean write(List<Submission> batch) {
+        try {
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, s) -> {
+                ps.setLong(1, s.eventId());
+                ps.setString(2, s.answersJson());
+                ps.setTimestamp(3, Timestamp.valueOf(s.attendedAt()));
+                ps.setLong(4, s.userId());
+            });
+            int written = 0;
+            for (int[] chunk : counts) {
+                for (int count : chunk) {
+                    // SUCCESS_NO_INFO (-2) counts as written
+                    written += count != 0 ? 1 : 0;
+                }
+            }
+            if (written < batch.size()) {
+                duplicates.increment(batch.size() - written);
+            }
+            batch.forEach(s -> personalDashboardService.invalidate(s.userId()));
+            batch.forEach(s -> pending.remove(s.key()));
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to write {} training check-ins", batch.size(), e);
+            retryOrDeadLetter(batch);
+            return false;
+        }
+    }
+
+    // Requeued check-ins keep their pending key, so resubmissions still collapse into them
+    private void retryOrDeadLetter(List<Submission> batch) {
+        List<Submission> exhausted = new ArrayList<>();
+        for (Submission s : batch) {
+            if (s.attempts() < maxAttempts && queue.offer(s.retry())) {
+                retried.increment();
+            } else {
+                exhausted.add(s);
+            }
+        }
+        if (exhausted.isEmpty()) {
+            return;
+        }
+        failed.increment(exhausted.size());
+        try {
+            deadLetter(exhausted);
+        } catch (IOException e) {
+            // Last resort: the log is then the only record of these check-ins
+            log.error("Failed to dead-letter training check-ins: {}", exhausted, e);
+        } finally {
+            exhausted.forEach(s -> pending.remove(s.key()));
+        }
+    }
+
+    private synchronized void deadLetter(List<Submission> submissions) throws IOException {
+        Path parent = deadLetterFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer out = Files.newBufferedWriter(deadLetterFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Submission s : submissions) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("eventId", s.eventId());
+                line.put("userId", s.userId());
+                line.put("answersJson", s.answersJson());
+                line.put("attendedAt", s.attendedAt().toString());
+                line.put("attempts", s.attempts());
+                out.write(objectMapper.writeValueAsString(line));
+                out.write('\n');
+            }
+        }
+        log.warn("Dead-lettered {} training check-ins to {}", submissions.size(), deadLetterFile);
+    }
+}
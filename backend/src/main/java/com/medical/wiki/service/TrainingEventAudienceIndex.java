@@ -0,0 +1,194 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.TrainingEvent;
+import com.medical.wiki.repository.TrainingEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory audience index of current and upcoming training events (not deleted, not ended),
+ * with one posting set per targeting dimension: facility, committee and job type, each with an
+ * "any" bucket for untargeted events. Visibility for a staff member is the intersection of the
+ * three unions, filtered to events running now, newest start first — the same rule as
+ * TrainingEventRepository.findVisibleEvents. Built on first use, updated by TrainingEventService
+ * after commit, and ended events are pruned every minute.
+ * Job types are compared trimmed and case-insensitively, as the query's _ci collation does.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrainingEventAudienceIndex {
+
+    private static final Comparator<TrainingEvent> NEWEST_START_FIRST = Comparator
+            .comparing(TrainingEvent::getStartTime).reversed()
+            .thenComparing(TrainingEvent::getId, Comparator.reverseOrder());
+
+    private final TrainingEventRepository trainingEventRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, TrainingEvent> events = new HashMap<>();
+    // facilityId -> events of that facility; null key = global or all-facility events
+    private final Map<Long, Set<Long>> byFacility = new HashMap<>();
+    // committeeId -> events; null key = no committee target
+    private final Map<Long, Set<Long>> byCommittee = new HashMap<>();
+    // jobTypeKey(jobType) -> events; null key = no job type target
+    private final Map<String, Set<Long>> byJobType = new HashMap<>();
+    private volatile boolean built;
+
+    /**
+     * @param facilityId   the user's facility (null when unresolved)
+     * @param committeeIds the user's committees
+     * @param jobType      the user's job type (null = none)
+     */
+    public List<TrainingEvent> findVisible(Long facilityId, Set<Long> committeeIds, String jobType,
+            LocalDateTime now) {
+        ensureBuilt();
+
+        lock.readLock().lock();
+        try {
+            Set<Long> jobTypeMatches = union(byJobType.get(null),
+                    jobType == null ? null : byJobType.get(jobTypeKey(jobType)));
+            if (jobTypeMatches.isEmpty()) {
+                return List.of();
+            }
+            Set<Long> committeeMatches = new HashSet<>(byCommittee.getOrDefault(null, Set.of()));
+            for (Long committeeId : committeeIds) {
+                committeeMatches.addAll(byCommittee.getOrDefault(committeeId, Set.of()));
+            }
+
+            List<TrainingEvent> visible = new ArrayList<>();
+            for (Long id : union(byFacility.get(null), facilityId == null ? null : byFacility.get(facilityId))) {
+                if (!committeeMatches.contains(id) || !jobTypeMatches.contains(id)) {
+                    continue;
+                }
+                TrainingEvent event = events.get(id);
+                if (!event.getStartTime().isAfter(now) && !event.getEndTime().isBefore(now)) {
+                    visible.add(event);
+                }
+            }
+            visible.sort(NEWEST_START_FIRST);
+            return visible;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * (Re)index an event once the surrounding transaction commits. Deleted or ended events are removed.
+     */
+    public void index(TrainingEvent event) {
+        Runnable update = () -> {
+            lock.writeLock().lock();
+            try {
+                // Not built yet: the initial load sees the committed row
+                if (built) {
+                    remove(event.getId());
+                    if (event.getDeletedAt() == null && !event.getEndTime().isBefore(LocalDateTime.now())) {
+                        put(event);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictEnded() {
+        if (!built) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            List<Long> ended = events.values().stream()
+                    .filter(e -> e.getEndTime().isBefore(now))
+                    .map(TrainingEvent::getId)
+                    .toList();
+            ended.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            List<TrainingEvent> active = trainingEventRepository
+                    .findByDeletedAtIsNullAndEndTimeGreaterThanEqual(LocalDateTime.now());
+            active.forEach(this::put);
+            built = true;
+            log.info("Training event audience index built: {} events", events.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void put(TrainingEvent event) {
+        Long id = event.getId();
+        events.put(id, event);
+        Long facilityKey = Boolean.TRUE.equals(event.getIsAllFacilities()) ? null : event.getFacilityId();
+        byFacility.computeIfAbsent(facilityKey, k -> new HashSet<>()).add(id);
+        byCommittee.computeIfAbsent(event.getTargetCommitteeId(), k -> new HashSet<>()).add(id);
+        byJobType.computeIfAbsent(jobTypeKey(event.getTargetJobType()), k -> new HashSet<>()).add(id);
+    }
+
+    private void remove(Long id) {
+        TrainingEvent old = events.remove(id);
+        if (old == null) {
+            return;
+        }
+        Long facilityKey = Boolean.TRUE.equals(old.getIsAllFacilities()) ? null : old.getFacilityId();
+        removePosting(byFacility, facilityKey, id);
+        removePosting(byCommittee, old.getTargetCommitteeId(), id);
+        removePosting(byJobType, jobTypeKey(old.getTargetJobType()), id);
+    }
+
+    private static String jobTypeKey(String jobType) {
+        return jobType == null ? null : jobType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <K> void removePosting(Map<K, Set<Long>> postings, K key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static Set<Long> union(Set<Long> a, Set<Long> b) {
+        Set<Long> result = new HashSet<>(a != null ? a : Set.of());
+        if (b != null) {
+            result.addAll(b);
+        }
+        return result;
+    }
+}
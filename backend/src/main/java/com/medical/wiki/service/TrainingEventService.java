@@ -12,7 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -25,7 +25,9 @@ public class TrainingEventService {
 
     private final TrainingEventRepository trainingEventRepository;
     private final UserRepository userRepository;
-    private final com.medical.wiki.repository.FacilityRepository facilityRepository;
+    private final FacilityDirectory facilityDirectory;
+    private final AnnouncementFeedCache announcementFeedCache;
+    private final TrainingEventAudienceIndex audienceIndex;
 
     @Value("${app.frontend.url:http://localhost:5173}")
     private String frontendUrl;
@@ -44,25 +46,13 @@ public class TrainingEventService {
             return trainingEventRepository.findByDeletedAtIsNullOrderByCreatedAtDesc();
         }
 
-        Long facilityId = null;
-        if (user.getFacility() != null && !user.getFacility().trim().isEmpty()) {
-            facilityId = facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
-                    .map(f -> f.getId())
-                    .orElseGet(() -> {
-                        log.warn("Facility not found by name: {}", user.getFacility());
-                        return null;
-                    });
+        Long facilityId = facilityDirectory.facilityIdOf(user.getFacility());
+        if (facilityId == null && user.getFacility() != null && !user.getFacility().trim().isEmpty()) {
+            log.warn("Facility not found by name: {}", user.getFacility());
         }
         log.debug("Resolved facilityId: {}", facilityId);
 
-        Set<Long> committeeIds = user.getCommittees().stream()
-                .map(Committee::getId)
-                .collect(Collectors.toSet());
-
-        if (committeeIds.isEmpty()) {
-            log.debug("No committees found, using dummy -1L");
-            committeeIds = Collections.singleton(-1L);
-        }
+        Set<Long> committeeIds = new HashSet<>(userRepository.findCommitteeIds(userId));
 
         String jobType = user.getJobType();
         if (jobType != null && (jobType.trim().isEmpty() || jobType.equalsIgnoreCase("ALL"))) {
@@ -70,7 +60,7 @@ public class TrainingEventService {
         }
         log.debug("Effective jobType: {}", jobType);
 
-        List<TrainingEvent> events = trainingEventRepository.findVisibleEvents(facilityId, committeeIds, jobType,
+        List<TrainingEvent> events = audienceIndex.findVisible(facilityId, committeeIds, jobType,
                 LocalDateTime.now());
         log.info("Found {} visible events for user {}", events.size(), userId);
         return events;
@@ -85,12 +75,7 @@ public class TrainingEventService {
             return trainingEventRepository.findByDeletedAtIsNullOrderByCreatedAtDesc();
         }
 
-        Long facilityId = null;
-        if (user.getFacility() != null && !user.getFacility().isEmpty()) {
-            facilityId = facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
-                    .map(f -> f.getId())
-                    .orElse(null);
-        }
+        Long facilityId = facilityDirectory.facilityIdOf(user.getFacility());
 
         if (facilityId != null) {
             return trainingEventRepository.findByFacilityIdAndDeletedAtIsNullOrderByCreatedAtDesc(facilityId);
@@ -113,12 +98,7 @@ public class TrainingEventService {
             throw new RuntimeException("Unauthorized");
         }
 
-        Long facilityId = null;
-        if (user.getFacility() != null && !user.getFacility().isEmpty()) {
-            facilityId = facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
-                    .map(f -> f.getId())
-                    .orElse(null);
-        }
+        Long facilityId = facilityDirectory.facilityIdOf(user.getFacility());
 
         TrainingEvent event = TrainingEvent.builder()
                 .title(title)
@@ -137,7 +117,9 @@ public class TrainingEventService {
                 .isAllFacilities(isAllFacilities != null ? isAllFacilities : false)
                 .build();
 
-        return trainingEventRepository.save(event);
+        TrainingEvent saved = trainingEventRepository.save(event);
+        audienceIndex.index(saved);
+        return saved;
     }
 
     @Transactional
@@ -167,7 +149,11 @@ public class TrainingEventService {
         event.setEndTime(endTime);
         event.setIsAllFacilities(isAllFacilities != null ? isAllFacilities : false);
 
-        return trainingEventRepository.save(event);
+        // Cached announcement feeds carry related event titles
+        announcementFeedCache.invalidate(null);
+        TrainingEvent saved = trainingEventRepository.save(event);
+        audienceIndex.index(saved);
+        return saved;
     }
 
     public String getQrCodeUrl(Long eventId) {
@@ -195,12 +181,7 @@ public class TrainingEventService {
 
         // Check facility for ADMIN/USER
         if (event.getFacilityId() != null) {
-            Long userFacilityId = null;
-            if (user.getFacility() != null && !user.getFacility().isEmpty()) {
-                userFacilityId = facilityRepository.findByNameAndDeletedAtIsNull(user.getFacility())
-                        .map(f -> f.getId())
-                        .orElse(null);
-            }
+            Long userFacilityId = facilityDirectory.facilityIdOf(user.getFacility());
             if (userFacilityId == null || !userFacilityId.equals(event.getFacilityId())) {
                 throw new RuntimeException("Access denied: Facility mismatch");
             }
@@ -238,5 +219,6 @@ public class TrainingEventService {
 
         event.setDeletedAt(LocalDateTime.now());
         trainingEventRepository.save(event);
+        audienceIndex.index(event);
     }
 }
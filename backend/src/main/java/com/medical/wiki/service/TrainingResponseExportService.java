@@ -0,0 +1,237 @@
+package com.medical.wiki.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.wiki.dto.TrainingResponseAggregateDto;
+import com.opencsv.CSVWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Training response exports (text, CSV, NDJSON) and per-question aggregates.
+ * Responses are read through a forward-only cursor and each answers_json is parsed
+ * with the streaming parser ({@link AnswerFlattener}), so memory does not grow with the
+ * number of responses. CSV makes one extra cursor pass to collect the question columns.
+ */
+@Service
+public class TrainingResponseExportService {
+
+    private static final String SELECT = "SELECT r.id, r.user_id, r.attendee_name, r.attended_at, r.answers_json, "
+            + "u.employee_id, u.facility FROM training_responses r LEFT JOIN users u ON u.id = r.user_id "
+            + "WHERE r.event_id = ? ORDER BY r.attended_at, r.id";
+    private static final String SELECT_ANSWERS = "SELECT answers_json FROM training_responses WHERE event_id = ?";
+
+    // Questions with more distinct answers than this are treated as free text
+    static final int MAX_DISTRIBUTION = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StreamingQueries streamingQueries;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+
+    public TrainingResponseExportService(JdbcTemplate jdbcTemplate, StreamingQueries streamingQueries,
+            ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingQueries = streamingQueries;
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    private record Row(Long userId, String attendeeName, Timestamp attendedAt, String answersJson,
+            String employeeId, String facility) {
+        static Row of(ResultSet rs) throws SQLException {
+            long userId = rs.getLong("user_id");
+            return new Row(rs.wasNull() ? null : userId, rs.getString("attendee_name"),
+                    rs.getTimestamp("attended_at"), rs.getString("answers_json"),
+                    rs.getString("employee_id"), rs.getString("facility"));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(Row row) throws IOException;
+    }
+
+    /**
+     * Plain text listing (the original export format), streamed.
+     */
+    public void writeText(Long eventId, OutputStream out) throws IOException {
+        String title = eventTitle(eventId);
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM training_responses WHERE event_id = ?",
+                Long.class, eventId);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("研修タイトル: " + title + "\n");
+        writer.write("記述日: " + LocalDateTime.now() + "\n");
+        writer.write("回答数: " + count + "\n\n");
+        writer.write("--- 回答一覧 ---\n");
+        stream(eventId, row -> {
+            writer.write("氏名: " + row.attendeeName() + "\n");
+            writer.write("回答日時: " + (row.attendedAt() != null ? row.attendedAt().toLocalDateTime() : null) + "\n");
+            writer.write("内容: " + row.answersJson() + "\n");
+            writer.write("\n");
+        });
+        writer.flush();
+    }
+
+    /**
+     * One row per response with each (flattened) question in its own column.
+     */
+    public void writeCsv(Long eventId, OutputStream out) throws IOException {
+        eventTitle(eventId);
+
+        // Pass 1: question columns in first-seen order
+        LinkedHashSet<String> questions = new LinkedHashSet<>();
+        streamingQueries.query(SELECT_ANSWERS, rs -> {
+            questions.addAll(AnswerFlattener.flatten(jsonFactory, rs.getString(1)).keySet());
+        }, eventId);
+
+        // BOM for Excel compatibility
+        out.write(0xEF);
+        out.write(0xBB);
+        out.write(0xBF);
+        CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        List<String> header = new ArrayList<>(List.of("職員ID", "氏名", "施設", "回答日時"));
+        header.addAll(questions);
+        writer.writeNext(header.toArray(new String[0]));
+
+        String[] line = new String[header.size()];
+        stream(eventId, row -> {
+            Map<String, Object> answers = AnswerFlattener.flatten(jsonFactory, row.answersJson());
+            line[0] = row.employeeId();
+            line[1] = row.attendeeName();
+            line[2] = row.facility();
+            line[3] = row.attendedAt() != null ? row.attendedAt().toLocalDateTime().toString() : "";
+            int i = 4;
+            for (String question : questions) {
+                Object value = answers.get(question);
+                line[i++] = value != null ? value.toString() : "";
+            }
+            writer.writeNext(line);
+        });
+        writer.flush();
+    }
+
+    /**
+     * One JSON object per line with the flattened answers under "answers".
+     */
+    public void writeNdjson(Long eventId, OutputStream out) throws IOException {
+        eventTitle(eventId);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        stream(eventId, row -> {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("employeeId", row.employeeId());
+            line.put("attendeeName", row.attendeeName());
+            line.put("facility", row.facility());
+            line.put("attendedAt", row.attendedAt() != null ? row.attendedAt().toLocalDateTime().toString() : null);
+            line.put("answers", AnswerFlattener.flatten(jsonFactory, row.answersJson()));
+            writer.write(objectMapper.writeValueAsString(line));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    /**
+     * Per-question aggregates computed in one cursor pass.
+     */
+    public TrainingResponseAggregateDto aggregate(Long eventId) {
+        String title = eventTitle(eventId);
+        Map<String, QuestionStats> stats = new LinkedHashMap<>();
+        long[] responses = { 0 };
+        streamingQueries.query(SELECT_ANSWERS, rs -> {
+            responses[0]++;
+            AnswerFlattener.flatten(jsonFactory, rs.getString(1)).forEach((question, value) -> {
+                if (!AnswerFlattener.RAW_KEY.equals(question)) {
+                    stats.computeIfAbsent(question, q -> new QuestionStats()).add(value);
+                }
+            });
+        }, eventId);
+
+        List<TrainingResponseAggregateDto.QuestionAggregate> questions = new ArrayList<>(stats.size());
+        stats.forEach((question, s) -> questions.add(s.toDto(question)));
+        return TrainingResponseAggregateDto.builder()
+                .eventId(eventId)
+                .eventTitle(title)
+                .responseCount(responses[0])
+                .questions(questions)
+                .build();
+    }
+
+    static final class QuestionStats {
+        long answered;
+        long numericCount;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        Map<String, Long> distribution = new LinkedHashMap<>();
+
+        void add(Object value) {
+            if (value == null || (value instanceof String text && text.isBlank())) {
+                return;
+            }
+            answered++;
+            Double number = value instanceof Number n ? Double.valueOf(n.doubleValue()) : parseNumber(value);
+            if (number != null) {
+                numericCount++;
+                sum += number;
+                min = Math.min(min, number);
+                max = Math.max(max, number);
+            }
+            if (distribution != null) {
+                distribution.merge(value.toString(), 1L, Long::sum);
+                if (distribution.size() > MAX_DISTRIBUTION) {
+                    distribution = null;
+                }
+            }
+        }
+
+        TrainingResponseAggregateDto.QuestionAggregate toDto(String question) {
+            boolean numeric = numericCount > 0;
+            return TrainingResponseAggregateDto.QuestionAggregate.builder()
+                    .question(question)
+                    .answeredCount(answered)
+                    .numericCount(numeric ? numericCount : null)
+                    .mean(numeric ? sum / numericCount : null)
+                    .min(numeric ? min : null)
+                    .max(numeric ? max : null)
+                    .distribution(distribution)
+                    .build();
+        }
+
+        private static Double parseNumber(Object value) {
+            if (!(value instanceof String text)) {
+                return null;
+            }
+            try {
+                return Double.valueOf(text.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private String eventTitle(Long eventId) {
+        List<String> titles = jdbcTemplate.queryForList("SELECT title FROM training_events WHERE id = ?",
+                String.class, eventId);
+        if (titles.isEmpty()) {
+            throw new RuntimeException("Event not found");
+        }
+        return titles.get(0);
+    }
+
+    private void stream(Long eventId, RowConsumer consumer) throws IOException {
+        streamingQueries.write(SELECT, rs -> consumer.accept(Row.of(rs)), eventId);
+    }
+}
@@ -0,0 +1,99 @@
+package com.medical.wiki.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind last-seen tracking.
+ * Request threads only touch in-memory maps; a scheduled flusher writes dirty
+ * entries to users.last_seen_at in one UPDATE per chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserActivityTracker {
+
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Debounce: skip users whose last_seen_at was written within this window
+    @Value("${app.activity.debounce-minutes:5}")
+    private long debounceMinutes;
+
+    private final Map<String, LocalDateTime> dirty = new ConcurrentHashMap<>();
+    private final Map<String, LocalDateTime> lastWritten = new ConcurrentHashMap<>();
+
+    public void recordActivity(String employeeId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime written = lastWritten.get(employeeId);
+        if (written != null && written.isAfter(now.minusMinutes(debounceMinutes))) {
+            return;
+        }
+        dirty.put(employeeId, now);
+    }
+
+    @Scheduled(fixedDelayString = "${app.activity.flush-interval-ms:5000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, LocalDateTime>> batch = new ArrayList<>();
+        for (String employeeId : new ArrayList<>(dirty.keySet())) {
+            LocalDateTime seenAt = dirty.remove(employeeId);
+            if (seenAt != null) {
+                batch.add(Map.entry(employeeId, seenAt));
+            }
+        }
+
+        for (int from = 0; from < batch.size(); from += FLUSH_CHUNK_SIZE) {
+            List<Map.Entry<String, LocalDateTime>> chunk = batch.subList(from,
+                    Math.min(from + FLUSH_CHUNK_SIZE, batch.size()));
+            try {
+                writeChunk(chunk);
+                chunk.forEach(e -> lastWritten.put(e.getKey(), e.getValue()));
+            } catch (Exception e) {
+                // Requeue unless a newer timestamp arrived meanwhile
+                chunk.forEach(entry -> dirty.merge(entry.getKey(), entry.getValue(),
+                        (current, failed) -> current.isAfter(failed) ? current : failed));
+                log.warn("Failed to flush user activity ({} users): {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void writeChunk(List<Map.Entry<String, LocalDateTime>> chunk) {
+        // UPDATE users SET last_seen_at = CASE employee_id WHEN ? THEN ? ... END WHERE employee_id IN (...)
+        StringBuilder sql = new StringBuilder("UPDATE users SET last_seen_at = CASE employee_id");
+        List<Object> args = new ArrayList<>(chunk.size() * 3);
+        for (Map.Entry<String, LocalDateTime> entry : chunk) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(Timestamp.valueOf(entry.getValue()));
+        }
+        sql.append(" ELSE last_seen_at END WHERE employee_id IN (");
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(chunk.get(i).getKey());
+        }
+        sql.append(")");
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
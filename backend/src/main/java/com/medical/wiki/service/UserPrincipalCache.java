@@ -0,0 +1,101 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.User;
+import com.medical.wiki.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded TTL cache of the authentication data UserHeaderFilter needs per request
+ * (id -> employeeId, role, password hash), plus the facility name for per-facility caches. Services that change any of these call
+ * {@link #invalidate(Long)}.
+ * Metrics: user.principal.cache.hits / .misses / .size
+ */
+@Service
+public class UserPrincipalCache {
+
+    public record CachedPrincipal(Long id, String employeeId, User.Role role, String passwordHash,
+            String facility) {
+    }
+
+    private record Entry(CachedPrincipal principal, long expiresAtNanos) {
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserPrincipalCache(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${app.auth.principal-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.auth.principal-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.maxSize = maxSize;
+        this.hits = meterRegistry.counter("user.principal.cache.hits");
+        this.misses = meterRegistry.counter("user.principal.cache.misses");
+        Gauge.builder("user.principal.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public Optional<CachedPrincipal> get(Long userId) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAtNanos() - now > 0) {
+            hits.increment();
+            return Optional.of(entry.principal());
+        }
+        misses.increment();
+
+        // Unknown ids are not cached; they are not authenticated either
+        Optional<CachedPrincipal> loaded = userRepository.findById(userId)
+                .map(u -> new CachedPrincipal(u.getId(), u.getEmployeeId(), u.getRole(), u.getPassword(),
+                        u.getFacility()));
+        loaded.ifPresent(p -> put(userId, p, now));
+        return loaded;
+    }
+
+    /**
+     * Drop the cached entry now and again after the current transaction commits,
+     * so a concurrent request cannot re-cache the pre-commit row.
+     */
+    public void invalidate(Long userId) {
+        entries.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void put(Long userId, CachedPrincipal principal, long now) {
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(e -> e.expiresAtNanos() - now <= 0);
+            Iterator<Long> it = entries.keySet().iterator();
+            while (entries.size() >= maxSize && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(userId, new Entry(principal, now + ttlNanos));
+    }
+}
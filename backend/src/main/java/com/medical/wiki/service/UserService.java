@@ -22,6 +22,19 @@ public class UserService {
     private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
     private final com.medical.wiki.repository.PaidLeaveRepository paidLeaveRepository;
     private final com.medical.wiki.repository.AttendanceRequestRepository attendanceRequestRepository;
+    private final UserPrincipalCache principalCache;
+    private final org.springframework.jdbc.core.JdbcTemplate jdbcTemplate;
+    private final PasswordHashingPool passwordHashingPool;
+    private final org.springframework.transaction.support.TransactionTemplate transactionTemplate;
+
+    // Bulk import: ids per IN-query and rows per JDBC batch
+    static final int IMPORT_LOOKUP_CHUNK = 1000;
+    static final int IMPORT_BATCH_SIZE = 500;
+
+    private static final String IMPORT_INSERT_SQL = "INSERT INTO users (employee_id, password, name, facility, "
+            + "department, role, created_at, updated_at, paid_leave_days) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String IMPORT_RESTORE_SQL = "UPDATE users SET name = ?, facility = ?, department = ?, "
+            + "role = ?, password = ?, updated_at = ?, deleted_at = NULL WHERE id = ?";
 
     public List<UserDto> getAllUsers(String facility, Long requesterId) {
         User requester = userRepository.findById(requesterId)
@@ -89,6 +102,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getId());
 
         String executorName = "ADMIN";
         if (executorId != null) {
@@ -126,6 +140,7 @@ public class UserService {
 
         user.setDeletedAt(java.time.LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
         loggingService.log("USER_DELETE", user.getName(), "User soft-deleted", executor.getName());
     }
 
@@ -191,6 +206,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setDeletedAt(null);
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
 
         String executorName = resolveExecutorName(executorId);
         loggingService.log("USER_RECOVERY", user.getName() + " (" + user.getEmployeeId() + ")",
@@ -204,6 +220,7 @@ public class UserService {
 
         java.util.Set<String> seenIds = new java.util.HashSet<>();
         List<String> validFacilities = java.util.Arrays.asList("本館", "南棟", "ひまわりの里病院", "あおぞら中央クリニック");
+        java.util.Map<String, User> existingUsers = findExistingByEmployeeId(dtos);
 
         for (int i = 0; i < dtos.size(); i++) {
             com.medical.wiki.dto.UserCreateDto dto = dtos.get(i);
@@ -215,12 +232,12 @@ public class UserService {
             }
             seenIds.add(dto.employeeId());
 
-            java.util.Optional<User> existing = userRepository.findByEmployeeIdIncludingDeleted(dto.employeeId());
-            if (existing.isPresent()) {
-                if (existing.get().getDeletedAt() == null) {
+            User existing = existingUsers.get(dto.employeeId());
+            if (existing != null) {
+                if (existing.getDeletedAt() == null) {
                     errors.add(rowNum + "行目のID [" + dto.employeeId() + "] は既にデータベースに存在します（在職中）。");
                 } else {
-                    restorableUsers.add(UserDto.fromEntity(existing.get()));
+                    restorableUsers.add(UserDto.fromEntity(existing));
                 }
                 continue;
             }
@@ -246,9 +263,13 @@ public class UserService {
         return result;
     }
 
-    @Transactional
-    public void bulkRegisterUsers(List<com.medical.wiki.dto.UserCreateDto> dtos, Long executorId,
-            List<String> restoreIds) {
+    /**
+     * Validate, hash and write a bulk import. Hashing runs on {@link PasswordHashingPool} before
+     * the write transaction opens; the transaction re-checks the prefetched ids and only batches writes.
+     */
+    public com.medical.wiki.dto.BulkRegisterResultDto bulkRegisterUsers(List<com.medical.wiki.dto.UserCreateDto> dtos,
+            Long executorId, List<String> restoreIds) {
+        long started = System.nanoTime();
         String executorName = resolveExecutorName(executorId);
         List<String> errors = new java.util.ArrayList<>();
         java.util.Set<String> seenIds = new java.util.HashSet<>();
@@ -274,6 +295,7 @@ public class UserService {
         }
 
         // 1. Validation Logic
+        java.util.Map<String, User> existingUsers = findExistingByEmployeeId(dtos);
         for (int i = 0; i < dtos.size(); i++) {
             com.medical.wiki.dto.UserCreateDto dto = dtos.get(i);
             int rowNum = i + 1;
@@ -284,10 +306,8 @@ public class UserService {
             }
             seenIds.add(dto.employeeId());
 
-            java.util.Optional<User> existing = userRepository.findByEmployeeIdIncludingDeleted(dto.employeeId());
-
-            if (existing.isPresent()) {
-                User user = existing.get();
+            User user = existingUsers.get(dto.employeeId());
+            if (user != null) {
                 if (user.getDeletedAt() == null) {
                     errors.add(rowNum + "行目のID [" + dto.employeeId() + "] は既にデータベースに存在します（在職中）。");
                     continue;
@@ -313,49 +333,120 @@ public class UserService {
             throw new RuntimeException(String.join("\n", errors));
         }
 
-        // 2. Execution Logic
-        int newCount = 0;
-        int restoreCount = 0;
+        // 2. Execution Logic: hash in parallel outside the transaction, then one JDBC batch of
+        // inserts and one of restores. Password slots (insert 1, restore 4) are filled after hashing.
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        List<Object[]> inserts = new java.util.ArrayList<>();
+        List<Object[]> restores = new java.util.ArrayList<>();
+        List<String> insertPasswords = new java.util.ArrayList<>();
+        List<String> restorePasswords = new java.util.ArrayList<>();
+        java.util.Map<Long, String> restoredLabels = new java.util.LinkedHashMap<>();
 
         for (com.medical.wiki.dto.UserCreateDto dto : dtos) {
             String normalizedName = validateAndNormalizeName(dto.name(), "");
-            java.util.Optional<User> existing = userRepository.findByEmployeeIdIncludingDeleted(dto.employeeId());
-
-            if (existing.isPresent() && restoreIdSet.contains(dto.employeeId())) {
-                // Restore an existing deleted user
-                User user = existing.get();
-                user.setName(normalizedName);
-                user.setFacility(dto.facility());
-                user.setDepartment(dto.department());
-                user.setRole(dto.role());
-                user.setDeletedAt(null); // Clear deleted_at to restore
-                user.setPassword(passwordEncoder.encode(dto.password()));
-                user.setUpdatedAt(java.time.LocalDateTime.now());
-                userRepository.save(user);
-
-                loggingService.log("USER_RECOVERY", user.getName() + " (" + user.getEmployeeId() + ")",
-                        "User restored via bulk import", executorName);
-                restoreCount++;
-            } else if (existing.isEmpty()) {
-                // Create new user
-                User user = User.builder()
-                        .employeeId(dto.employeeId())
-                        .name(normalizedName)
-                        .password(passwordEncoder.encode(dto.password()))
-                        .facility(dto.facility())
-                        .department(dto.department())
-                        .role(dto.role())
-                        .createdAt(java.time.LocalDateTime.now())
-                        .updatedAt(java.time.LocalDateTime.now())
-                        .build();
-                userRepository.save(user);
-                newCount++;
+            User existing = existingUsers.get(dto.employeeId());
+
+            if (existing != null && restoreIdSet.contains(dto.employeeId())) {
+                // Restore an existing deleted user (clears deleted_at)
+                restores.add(new Object[] { normalizedName, dto.facility(), dto.department(), roleName(dto),
+                        null, now, existing.getId() });
+                restorePasswords.add(dto.password());
+                restoredLabels.put(existing.getId(), normalizedName + " (" + existing.getEmployeeId() + ")");
+            } else if (existing == null) {
+                inserts.add(new Object[] { dto.employeeId(), null, normalizedName,
+                        dto.facility(), dto.department(), roleName(dto), now, now, 0.0 });
+                insertPasswords.add(dto.password());
             }
         }
+        long validated = System.nanoTime();
 
+        List<String> raw = new java.util.ArrayList<>(insertPasswords);
+        raw.addAll(restorePasswords);
+        List<String> hashes = passwordHashingPool.encodeAll(raw);
+        for (int i = 0; i < inserts.size(); i++) {
+            inserts.get(i)[1] = hashes.get(i);
+        }
+        for (int i = 0; i < restores.size(); i++) {
+            restores.get(i)[4] = hashes.get(inserts.size() + i);
+        }
+        long hashed = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            // Rows may have changed while hashing; the unique employee_id also guards inserts
+            java.util.Map<String, User> current = findExistingByEmployeeId(dtos);
+            for (Object[] row : inserts) {
+                if (current.containsKey((String) row[0])) {
+                    throw new RuntimeException("ID [" + row[0] + "] はインポート中に他の操作で登録されました。再度実行してください。");
+                }
+            }
+            for (com.medical.wiki.dto.UserCreateDto dto : dtos) {
+                User before = existingUsers.get(dto.employeeId());
+                User after = current.get(dto.employeeId());
+                if (before != null && (after == null || after.getDeletedAt() == null
+                        || !after.getId().equals(before.getId()))) {
+                    throw new RuntimeException("ID [" + dto.employeeId() + "] はインポート中に他の操作で変更されました。再度実行してください。");
+                }
+            }
+            batchWrite(IMPORT_INSERT_SQL, inserts);
+            batchWrite(IMPORT_RESTORE_SQL, restores);
+        });
+        long written = System.nanoTime();
+
+        restoredLabels.forEach((id, label) -> {
+            principalCache.invalidate(id);
+            loggingService.log("USER_RECOVERY", label, "User restored via bulk import", executorName);
+        });
+        int newCount = inserts.size();
+        int restoreCount = restores.size();
+
+        com.medical.wiki.dto.BulkRegisterResultDto result = com.medical.wiki.dto.BulkRegisterResultDto.builder()
+                .newCount(newCount)
+                .restoredCount(restoreCount)
+                .hashWorkers(passwordHashingPool.workers())
+                .validateMillis(java.util.concurrent.TimeUnit.NANOSECONDS.toMillis(validated - started))
+                .hashMillis(java.util.concurrent.TimeUnit.NANOSECONDS.toMillis(hashed - validated))
+                .writeMillis(java.util.concurrent.TimeUnit.NANOSECONDS.toMillis(written - hashed))
+                .totalMillis(java.util.concurrent.TimeUnit.NANOSECONDS.toMillis(written - started))
+                .build();
         loggingService.log("USER_BULK_REGISTER", (newCount + restoreCount) + " users",
-                String.format("Bulk registration completed: %d new, %d restored", newCount, restoreCount),
+                String.format("Bulk registration completed: %d new, %d restored (validate %d ms, hash %d ms, write %d ms)",
+                        newCount, restoreCount, result.getValidateMillis(), result.getHashMillis(),
+                        result.getWriteMillis()),
                 executorName);
+        return result;
+    }
+
+    // Existing users (including deleted) for the CSV's employee ids, IN-queried in chunks
+    private java.util.Map<String, User> findExistingByEmployeeId(List<com.medical.wiki.dto.UserCreateDto> dtos) {
+        List<String> ids = dtos.stream()
+                .map(com.medical.wiki.dto.UserCreateDto::employeeId)
+                .filter(java.util.Objects::nonNull)
+                .distinct()
+                .toList();
+        java.util.Map<String, User> existing = new java.util.HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += IMPORT_LOOKUP_CHUNK) {
+            List<String> chunk = ids.subList(from, Math.min(from + IMPORT_LOOKUP_CHUNK, ids.size()));
+            for (User user : userRepository.findByEmployeeIdInIncludingDeleted(chunk)) {
+                existing.put(user.getEmployeeId(), user);
+            }
+        }
+        return existing;
+    }
+
+    private static String roleName(com.medical.wiki.dto.UserCreateDto dto) {
+        return dto.role() != null ? dto.role().name() : null;
+    }
+
+    private void batchWrite(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, rows, IMPORT_BATCH_SIZE, (ps, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                Object value = row[i];
+                ps.setObject(i + 1, value instanceof java.time.LocalDateTime t ? java.sql.Timestamp.valueOf(t) : value);
+            }
+        });
     }
 
     private String validateAndNormalizeName(String name, String context) {
@@ -396,9 +487,10 @@ public class UserService {
         user.setMustChangePassword(true);
         user.setUpdatedAt(java.time.LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
 
         String executorName = resolveExecutorName(executorId);
-        loggingService.log("ISSUE_TEMP_PW", user.getName(), "Temporary password issued", executorName);
+        loggingService.logSync("ISSUE_TEMP_PW", user.getName(), "Temporary password issued", executorName);
 
         return tempPassword;
     }
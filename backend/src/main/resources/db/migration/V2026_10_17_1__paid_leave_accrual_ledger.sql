@@ -0,0 +1,6 @@
+-- 有給付与ごとの残日数台帳 (paid leave ledger)
+-- 1. 付与レコードに残日数カラムを追加 (NULL = 未構築。初回の残高計算時に再シミュレーションで埋める)
+ALTER TABLE paid_leave_accruals ADD COLUMN remaining_days DOUBLE NULL;
+
+-- 2. FIFO 消化対象の付与を付与日順に引くためのインデックス
+CREATE INDEX idx_accrual_user_granted ON paid_leave_accruals (user_id, granted_at);
@@ -0,0 +1,7 @@
+-- バックグラウンドジョブの再開ポイント (有給残高整合ジョブなど)
+CREATE TABLE IF NOT EXISTS job_checkpoints (
+  job_name VARCHAR(100) PRIMARY KEY,
+  last_id BIGINT NOT NULL,
+  completed BIT NOT NULL,
+  updated_at DATETIME
+);
@@ -0,0 +1,5 @@
+-- 監査ログのキーセットページング・絞り込み用インデックス
+CREATE INDEX idx_log_ts_id ON system_logs (timestamp, id);
+CREATE INDEX idx_log_action_ts ON system_logs (action, timestamp);
+CREATE INDEX idx_log_performed_by_ts ON system_logs (performed_by, timestamp);
+CREATE INDEX idx_log_target_ts ON system_logs (target, timestamp);
@@ -0,0 +1,3 @@
+-- マニュアルPDFのSHA-256（コンテンツアドレス保存・ETag用）
+ALTER TABLE manuals ADD COLUMN pdf_sha256 VARCHAR(64) NULL;
+CREATE INDEX idx_manual_pdf_path ON manuals (pdf_path);
@@ -0,0 +1,7 @@
+-- 研修回答の重複排除と (event_id, user_id) 一意制約（QRチェックインの冪等性）
+DELETE r1 FROM training_responses r1
+JOIN training_responses r2
+  ON r1.event_id = r2.event_id AND r1.user_id = r2.user_id AND r1.id > r2.id;
+
+ALTER TABLE training_responses
+  ADD CONSTRAINT uk_training_response_event_user UNIQUE (event_id, user_id);
@@ -0,0 +1,8 @@
+-- マニュアル一覧のキーセットページング用（並び順の列をNOT NULL化し、(列, id) の索引を追加）
+UPDATE manuals SET created_at = COALESCE(created_at, updated_at, TIMESTAMP('1970-01-01')) WHERE created_at IS NULL;
+UPDATE manuals SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE manuals MODIFY created_at DATETIME(6) NOT NULL;
+ALTER TABLE manuals MODIFY updated_at DATETIME(6) NOT NULL;
+CREATE INDEX idx_manual_updated_id ON manuals (updated_at, id);
+CREATE INDEX idx_manual_created_id ON manuals (created_at, id);
+CREATE INDEX idx_manual_title_id ON manuals (title, id);
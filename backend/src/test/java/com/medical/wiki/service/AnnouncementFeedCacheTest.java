@@ -0,0 +1,132 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.AnnouncementDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnnouncementFeedCacheTest {
+
+    private final AnnouncementFeedCache cache = new AnnouncementFeedCache();
+
+    private static AnnouncementFeedCache.Feed feed(Long facilityId) {
+        return new AnnouncementFeedCache.Feed(facilityId, List.of(AnnouncementDto.builder().id(1L).build()));
+    }
+
+    @Test
+    void get_ShouldServeHitWithoutLoading() {
+        AtomicInteger loads = new AtomicInteger();
+        AnnouncementFeedCache.FeedKey key = AnnouncementFeedCache.FeedKey.of("本館");
+
+        cache.get(key, k -> {
+            loads.incrementAndGet();
+            return feed(1L);
+        });
+        AnnouncementFeedCache.Feed second = cache.get(key, k -> {
+            loads.incrementAndGet();
+            return feed(1L);
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(1, second.items().size());
+    }
+
+    @Test
+    void invalidate_ShouldDropOnlyAffectedFacilityAndDeveloperFeeds() {
+        AtomicInteger loads = new AtomicInteger();
+        AnnouncementFeedCache.FeedKey a = AnnouncementFeedCache.FeedKey.of("A");
+        AnnouncementFeedCache.FeedKey b = AnnouncementFeedCache.FeedKey.of("B");
+        cache.get(a, k -> feed(1L));
+        cache.get(b, k -> feed(2L));
+        cache.get(AnnouncementFeedCache.FeedKey.ALL, k -> feed(null));
+
+        cache.invalidate(1L);
+
+        cache.get(a, k -> {
+            loads.incrementAndGet();
+            return feed(1L);
+        });
+        cache.get(b, k -> {
+            loads.incrementAndGet();
+            return feed(2L);
+        });
+        cache.get(AnnouncementFeedCache.FeedKey.ALL, k -> {
+            loads.incrementAndGet();
+            return feed(null);
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldDropEveryFeed_ForGlobalAnnouncement() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(AnnouncementFeedCache.FeedKey.of("A"), k -> feed(1L));
+        cache.get(AnnouncementFeedCache.FeedKey.of("B"), k -> feed(2L));
+
+        cache.invalidate(null);
+
+        cache.get(AnnouncementFeedCache.FeedKey.of("A"), k -> {
+            loads.incrementAndGet();
+            return feed(1L);
+        });
+        cache.get(AnnouncementFeedCache.FeedKey.of("B"), k -> {
+            loads.incrementAndGet();
+            return feed(2L);
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheLoad_ThatRacedWithInvalidation() {
+        AtomicInteger loads = new AtomicInteger();
+        AnnouncementFeedCache.FeedKey key = AnnouncementFeedCache.FeedKey.of("A");
+
+        cache.get(key, k -> {
+            // An announcement changes while the feed is being read
+            cache.invalidate(1L);
+            return feed(1L);
+        });
+        cache.get(key, k -> {
+            loads.incrementAndGet();
+            return feed(1L);
+        });
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldRejectDeveloperFeed_LoadedAcrossAnyInvalidation() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(AnnouncementFeedCache.FeedKey.ALL, k -> {
+            cache.invalidate(2L);
+            return feed(null);
+        });
+        cache.get(AnnouncementFeedCache.FeedKey.ALL, k -> {
+            loads.incrementAndGet();
+            return feed(null);
+        });
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldKeepLoad_WhenRacingInvalidationIsForAnotherFacility() {
+        AtomicInteger loads = new AtomicInteger();
+        AnnouncementFeedCache.FeedKey key = AnnouncementFeedCache.FeedKey.of("A");
+
+        cache.get(key, k -> {
+            cache.invalidate(2L);
+            return feed(1L);
+        });
+        cache.get(key, k -> {
+            loads.incrementAndGet();
+            return feed(1L);
+        });
+
+        assertEquals(0, loads.get());
+    }
+}
@@ -0,0 +1,111 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.AnnouncementDto;
+import com.medical.wiki.entity.Announcement;
+import com.medical.wiki.entity.User;
+import com.medical.wiki.repository.AnnouncementRepository;
+import com.medical.wiki.repository.ManualRepository;
+import com.medical.wiki.repository.TrainingEventRepository;
+import com.medical.wiki.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnnouncementServiceTest {
+
+    private static final int FEED_SIZE = 30;
+
+    @Mock
+    private AnnouncementRepository announcementRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private FacilityDirectory facilityDirectory;
+    @Mock
+    private ManualRepository manualRepository;
+    @Mock
+    private TrainingEventRepository trainingEventRepository;
+    @Mock
+    private UserPrincipalCache principalCache;
+
+    private AnnouncementService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AnnouncementService(announcementRepository, userRepository, facilityDirectory,
+                manualRepository, trainingEventRepository, principalCache, new AnnouncementFeedCache());
+    }
+
+    private static List<Announcement> announcements() {
+        User author = new User();
+        author.setName("管理者");
+        List<Announcement> list = new ArrayList<>();
+        for (long i = 1; i <= FEED_SIZE; i++) {
+            list.add(Announcement.builder()
+                    .id(i)
+                    .title("お知らせ" + i)
+                    .content("本文")
+                    .priority(Announcement.Priority.NORMAL)
+                    .displayUntil(LocalDate.now().plusDays(7))
+                    .createdBy(author)
+                    .relatedWikiId(100 + i)
+                    .relatedEventId(200 + i)
+                    .build());
+        }
+        return list;
+    }
+
+    @Test
+    void getAnnouncementsForUser_ShouldResolveTitlesWithTwoQueries_AndServeHitsWithoutQueries() {
+        when(principalCache.get(1L)).thenReturn(Optional.of(
+                new UserPrincipalCache.CachedPrincipal(1L, "E001", User.Role.USER, "hash", "本館")));
+        when(facilityDirectory.facilityIdOf("本館")).thenReturn(10L);
+        when(announcementRepository.findActiveAnnouncements(eq(10L), any())).thenReturn(announcements());
+        when(manualRepository.findTitlesByIdIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { 101L, "感染対策マニュアル" }));
+        when(trainingEventRepository.findTitlesByIdIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { 201L, "医療安全研修" }));
+
+        List<AnnouncementDto> feed = service.getAnnouncementsForUser(1L);
+        service.getAnnouncementsForUser(1L);
+        int count = service.countAnnouncementsForUser(1L);
+
+        assertEquals(FEED_SIZE, feed.size());
+        assertEquals(FEED_SIZE, count);
+        assertEquals("感染対策マニュアル", feed.get(0).getRelatedWikiTitle());
+        assertEquals("医療安全研修", feed.get(0).getRelatedEventTitle());
+        assertNull(feed.get(1).getRelatedWikiTitle());
+
+        // Query budget for the feed: announcements + one IN query per title type, once
+        verify(facilityDirectory, times(1)).facilityIdOf("本館");
+        verify(announcementRepository, times(1)).findActiveAnnouncements(eq(10L), any());
+        verify(manualRepository, times(1)).findTitlesByIdIn(anyCollection());
+        verify(trainingEventRepository, times(1)).findTitlesByIdIn(anyCollection());
+        verify(manualRepository, never()).findById(any());
+        verify(trainingEventRepository, never()).findById(any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void toDtos_ShouldSkipTitleQueries_WhenNothingIsRelated() {
+        Announcement plain = Announcement.builder().id(1L).title("t").content("c").build();
+
+        List<AnnouncementDto> dtos = service.toDtos(List.of(plain));
+
+        assertEquals(1, dtos.size());
+        assertEquals("Unknown", dtos.get(0).getCreatedByName());
+        verifyNoInteractions(manualRepository, trainingEventRepository);
+    }
+}
@@ -0,0 +1,56 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.AttendanceRequest;
+import com.medical.wiki.entity.User;
+import com.medical.wiki.repository.AttendanceRequestRepository;
+import com.medical.wiki.repository.UserFacilityMappingRepository;
+import com.medical.wiki.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceRequestServiceTest {
+
+    @Mock
+    private AttendanceRequestRepository repository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserFacilityMappingRepository facilityMappingRepository;
+    @Mock
+    private PersonalDashboardService personalDashboardService;
+
+    @InjectMocks
+    private AttendanceRequestService attendanceRequestService;
+
+    @Test
+    void updateStatus_ShouldInvalidateRequesterDashboard() {
+        User user = new User();
+        user.setId(7L);
+        AttendanceRequest request = AttendanceRequest.builder()
+                .id(4L)
+                .user(user)
+                .type(AttendanceRequest.RequestType.ABSENCE)
+                .startDate(LocalDate.of(2026, 11, 2))
+                .endDate(LocalDate.of(2026, 11, 2))
+                .status(AttendanceRequest.Status.PENDING)
+                .build();
+        when(repository.findById(4L)).thenReturn(Optional.of(request));
+        when(repository.save(any(AttendanceRequest.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        attendanceRequestService.updateStatus(4L, AttendanceRequest.Status.APPROVED, null);
+
+        assertEquals(AttendanceRequest.Status.APPROVED, request.getStatus());
+        verify(personalDashboardService).invalidate(7L);
+    }
+}
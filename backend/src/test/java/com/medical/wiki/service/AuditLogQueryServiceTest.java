@@ -0,0 +1,72 @@
+package com.medical.wiki.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.wiki.dto.AuditLogFilter;
+import com.medical.wiki.dto.AuditLogPageDto;
+import com.medical.wiki.entity.SystemLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogQueryServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StreamingQueries streamingQueries;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findPage_ShouldReturnCursor_WhenMoreRowsExist() {
+        AuditLogQueryService service = new AuditLogQueryService(jdbcTemplate, streamingQueries, new ObjectMapper());
+        LocalDateTime ts = LocalDateTime.of(2026, 10, 1, 9, 0);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(log(3L, ts), log(2L, ts), log(1L, ts.minusMinutes(1))));
+
+        AuditLogPageDto page = service.findPage(new AuditLogFilter("LOGIN", null, null, null, null), null, 2);
+
+        assertEquals(2, page.items().size());
+        AuditLogQueryService.Cursor next = AuditLogQueryService.Cursor.decode(page.nextCursor());
+        assertEquals(ts, next.timestamp());
+        assertEquals(2L, next.id());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findPage_ShouldSeekPastCursor() {
+        AuditLogQueryService service = new AuditLogQueryService(jdbcTemplate, streamingQueries, new ObjectMapper());
+        LocalDateTime ts = LocalDateTime.of(2026, 10, 1, 9, 0);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        AuditLogPageDto page = service.findPage(new AuditLogFilter(null, "emp001", null, null, null),
+                new AuditLogQueryService.Cursor(ts, 10L).encode(), 50);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+        assertTrue(sql.getValue().contains("performed_by = ? AND (timestamp < ? OR (timestamp = ? AND id < ?))"));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void cursorDecode_ShouldRejectGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> AuditLogQueryService.Cursor.decode("not-a-cursor"));
+    }
+
+    private SystemLog log(Long id, LocalDateTime ts) {
+        return SystemLog.builder().id(id).timestamp(ts).action("LOGIN").target("t").build();
+    }
+}
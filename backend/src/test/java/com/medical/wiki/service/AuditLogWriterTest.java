@@ -0,0 +1,62 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.SystemLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteQueuedEventsAsOneBatch() {
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, new SimpleMeterRegistry(), 100, 50,
+                AuditLogWriter.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 3; i++) {
+            writer.enqueue(event("USER_DELETE"));
+        }
+        writer.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO system_logs"),
+                anyList(), eq(3),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void enqueue_ShouldDropAndCount_WhenQueueFullWithDropPolicy() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, meterRegistry, 2, 50,
+                AuditLogWriter.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 5; i++) {
+            writer.enqueue(event("MANUAL_UPDATE"));
+        }
+
+        assertEquals(3.0, meterRegistry.counter("audit.log.dropped").count());
+        assertEquals(2.0, meterRegistry.get("audit.log.queue.size").gauge().value());
+    }
+
+    private SystemLog event(String action) {
+        return SystemLog.builder()
+                .timestamp(LocalDateTime.now())
+                .action(action)
+                .target("target")
+                .performedBy("emp001")
+                .build();
+    }
+}
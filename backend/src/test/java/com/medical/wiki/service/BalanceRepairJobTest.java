@@ -0,0 +1,216 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.BalanceRepairStatusDto;
+import com.medical.wiki.entity.JobCheckpoint;
+import com.medical.wiki.repository.JobCheckpointRepository;
+import com.medical.wiki.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checkpoint/resume, ordered checkpoint advance and per-user retry of the background repair job,
+ * over stub repositories and an inline transaction template that rolls back by rethrowing.
+ */
+class BalanceRepairJobTest {
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<JobCheckpoint> savedCheckpoints = Collections.synchronizedList(new ArrayList<>());
+    // User ids whose repair transaction committed, and the commit order of transactions
+    private final Set<Long> committed = ConcurrentHashMap.newKeySet();
+    private final List<List<Long>> commits = Collections.synchronizedList(new ArrayList<>());
+    private final ThreadLocal<List<Long>> currentTx = new ThreadLocal<>();
+    private volatile Runnable afterCommit = () -> {
+    };
+
+    private UserRepository userRepository;
+    private JobCheckpointRepository checkpointRepository;
+    private PaidLeaveService paidLeaveService;
+    private BalanceRepairJob job;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            Pageable page = inv.getArgument(1);
+            return userIds.stream().filter(id -> id > afterId).limit(page.getPageSize()).toList();
+        });
+        when(userRepository.countByIdGreaterThan(anyLong())).thenAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            return userIds.stream().filter(id -> id > afterId).count();
+        });
+
+        checkpointRepository = mock(JobCheckpointRepository.class);
+        when(checkpointRepository.findById(BalanceRepairJob.JOB_NAME)).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any(JobCheckpoint.class))).thenAnswer(inv -> {
+            savedCheckpoints.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+
+        paidLeaveService = mock(PaidLeaveService.class);
+        doAnswer(inv -> currentTx.get().add(inv.getArgument(0))).when(paidLeaveService).repairBalance(anyLong());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                currentTx.set(new ArrayList<>());
+                try {
+                    T result = action.doInTransaction((TransactionStatus) null);
+                    committed.addAll(currentTx.get());
+                    commits.add(List.copyOf(currentTx.get()));
+                    afterCommit.run();
+                    return result;
+                } finally {
+                    currentTx.remove();
+                }
+            }
+        };
+        job = new BalanceRepairJob(userRepository, checkpointRepository, paidLeaveService, transactionTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    void start_ShouldResumeAfterUnfinishedCheckpoint() throws Exception {
+        users(7);
+        when(checkpointRepository.findById(BalanceRepairJob.JOB_NAME)).thenReturn(Optional.of(
+                JobCheckpoint.builder().jobName(BalanceRepairJob.JOB_NAME).lastId(4L).completed(false).build()));
+
+        BalanceRepairStatusDto status = runJob(2, 2);
+
+        assertEquals("COMPLETED", status.getStatus());
+        assertEquals(4L, status.getResumedFromUserId());
+        assertEquals(3, status.getTotalUsers());
+        assertEquals(3, status.getProcessedUsers());
+        assertEquals(Set.of(5L, 6L, 7L), committed);
+        verify(paidLeaveService, never()).repairBalance(longThat(id -> id <= 4));
+        verify(userRepository).findIdsAfter(eq(4L), any(Pageable.class));
+        assertLastCheckpoint(7L, true);
+    }
+
+    @Test
+    void start_ShouldRestartFromScratchAfterCompletedCheckpoint() throws Exception {
+        users(3);
+        when(checkpointRepository.findById(BalanceRepairJob.JOB_NAME)).thenReturn(Optional.of(
+                JobCheckpoint.builder().jobName(BalanceRepairJob.JOB_NAME).lastId(3L).completed(true).build()));
+
+        BalanceRepairStatusDto status = runJob(2, 2);
+
+        assertEquals(0L, status.getResumedFromUserId());
+        assertEquals(3, status.getProcessedUsers());
+        assertEquals(Set.of(1L, 2L, 3L), committed);
+        assertLastCheckpoint(3L, true);
+    }
+
+    @Test
+    void start_ShouldAdvanceCheckpointOnlyOverContiguousFinishedChunks() throws Exception {
+        users(6);
+        // Chunk [1, 2] stays open until chunk [3, 4] has committed
+        CountDownLatch secondChunkCommitted = new CountDownLatch(1);
+        doAnswer(inv -> {
+            Long userId = inv.getArgument(0);
+            if (userId == 1L) {
+                assertTrue(secondChunkCommitted.await(5, TimeUnit.SECONDS));
+            }
+            currentTx.get().add(userId);
+            return null;
+        }).when(paidLeaveService).repairBalance(anyLong());
+        when(checkpointRepository.save(any(JobCheckpoint.class))).thenAnswer(inv -> {
+            JobCheckpoint checkpoint = inv.getArgument(0);
+            // Every id up to the checkpoint must already be committed
+            LongStream.rangeClosed(1, checkpoint.getLastId())
+                    .forEach(id -> assertTrue(committed.contains(id), "checkpoint passed unfinished user " + id));
+            savedCheckpoints.add(checkpoint);
+            return checkpoint;
+        });
+        afterCommit = () -> {
+            if (committed.contains(4L)) {
+                secondChunkCommitted.countDown();
+            }
+        };
+
+        BalanceRepairStatusDto status = runJob(2, 2);
+
+        assertEquals("COMPLETED", status.getStatus());
+        assertEquals(6, status.getProcessedUsers());
+        assertTrue(commits.indexOf(List.of(3L, 4L)) < commits.indexOf(List.of(1L, 2L)),
+                "chunks should have finished out of order: " + commits);
+        long previous = 0;
+        for (JobCheckpoint checkpoint : savedCheckpoints) {
+            assertTrue(checkpoint.getLastId() >= previous);
+            previous = checkpoint.getLastId();
+        }
+        assertLastCheckpoint(6L, true);
+    }
+
+    @Test
+    void start_ShouldRetryEachUserAfterChunkRollback() throws Exception {
+        users(3);
+        doAnswer(inv -> {
+            Long userId = inv.getArgument(0);
+            if (userId == 2L) {
+                throw new IllegalStateException("broken ledger");
+            }
+            currentTx.get().add(userId);
+            return null;
+        }).when(paidLeaveService).repairBalance(anyLong());
+
+        BalanceRepairStatusDto status = runJob(3, 1);
+
+        assertEquals("COMPLETED", status.getStatus());
+        assertEquals(2, status.getProcessedUsers());
+        assertEquals(1, status.getFailedUsers());
+        // The chunk transaction rolled back; users 1 and 3 committed on their own
+        assertEquals(List.of(List.of(1L), List.of(3L)), commits);
+        verify(paidLeaveService, times(2)).repairBalance(1L);
+        verify(paidLeaveService, times(2)).repairBalance(2L);
+        verify(paidLeaveService, times(1)).repairBalance(3L);
+        assertLastCheckpoint(3L, true);
+    }
+
+    private void users(int count) {
+        LongStream.rangeClosed(1, count).forEach(userIds::add);
+    }
+
+    private BalanceRepairStatusDto runJob(int chunkSize, int workers) throws InterruptedException {
+        ReflectionTestUtils.setField(job, "chunkSize", chunkSize);
+        ReflectionTestUtils.setField(job, "workers", workers);
+        job.init();
+        job.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while ("RUNNING".equals(job.getStatus().getStatus())) {
+            assertTrue(System.currentTimeMillis() < deadline, "job did not finish");
+            Thread.sleep(10);
+        }
+        return job.getStatus();
+    }
+
+    private void assertLastCheckpoint(long lastId, boolean completed) {
+        JobCheckpoint last = savedCheckpoints.get(savedCheckpoints.size() - 1);
+        assertEquals(lastId, last.getLastId());
+        assertEquals(completed, last.getCompleted());
+    }
+}
@@ -0,0 +1,230 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.UserCreateDto;
+import com.medical.wiki.entity.User;
+import com.medical.wiki.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 10k-row bulk user import: per-row lookups and saves (old) vs chunked IN prefetch and
+ * JDBC batches (new, the real UserService.bulkRegisterUsers).
+ * The "database" is an in-memory users table; every repository call or JDBC batch is one
+ * round trip that parks for roundTripMicros (0 = in-memory cost only). 10% of the rows are
+ * deleted users being restored. Password hashing is stubbed out so only the I/O pattern is measured.
+ *
+ * Run: mvn test-compile, then run main() with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class BulkUserImportBenchmark {
+
+    private static final int EXISTING_USERS = 50_000;
+
+    @Param({ "10000" })
+    public int rows;
+
+    @Param({ "0", "100" })
+    public int roundTripMicros;
+
+    private final Map<String, User> table = new HashMap<>();
+    private List<UserCreateDto> csv;
+    private List<String> restoreIds;
+    private User executor;
+    private UserRepository userRepository;
+    private UserService userService;
+    private PasswordHashingPool hashingPool;
+    private long roundTrips;
+
+    @Setup
+    public void setUp() {
+        executor = user((long) EXISTING_USERS + 1, "DEV", null);
+        executor.setRole(User.Role.DEVELOPER);
+        for (int i = 0; i < EXISTING_USERS; i++) {
+            String employeeId = String.format("E%06d", i);
+            table.put(employeeId, user((long) i + 1, employeeId, i % 10 == 0 ? LocalDateTime.now() : null));
+        }
+
+        // Restore every deleted user in the first rows / 10 existing ids, the rest are new hires
+        csv = new ArrayList<>(rows);
+        restoreIds = new ArrayList<>();
+        for (int i = 0; i < rows / 10; i++) {
+            String employeeId = String.format("E%06d", i * 10);
+            csv.add(new UserCreateDto(employeeId, "復職 太郎", "pass", "本館", "外科", User.Role.USER, null, null, null));
+            restoreIds.add(employeeId);
+        }
+        for (int i = csv.size(); i < rows; i++) {
+            csv.add(new UserCreateDto(String.format("N%06d", i), "新人 花子", "pass", "本館", "外科", User.Role.USER,
+                    null, null, null));
+        }
+
+        userRepository = fakeRepository();
+        PasswordEncoder encoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                return raw.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                return encoded.contentEquals(raw);
+            }
+        };
+        LoggingService logging = new LoggingService(null, null, null) {
+            @Override
+            public void log(String action, String target, String description, String performedBy) {
+            }
+        };
+        JdbcTemplate jdbc = new JdbcTemplate() {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                    ParameterizedPreparedStatementSetter<T> setter) {
+                int batches = (batchArgs.size() + batchSize - 1) / batchSize;
+                for (int i = 0; i < batches; i++) {
+                    roundTrip();
+                }
+                return new int[batches][];
+            }
+        };
+        TransactionTemplate tx = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        };
+        hashingPool = new PasswordHashingPool(encoder, 1);
+        userService = new UserService(userRepository, logging, encoder, null, null,
+                new UserPrincipalCache(userRepository, new SimpleMeterRegistry(), 60, 10_000), jdbc,
+                hashingPool, tx);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hashingPool.shutdown();
+    }
+
+    private static User user(Long id, String employeeId, LocalDateTime deletedAt) {
+        User user = new User();
+        user.setId(id);
+        user.setEmployeeId(employeeId);
+        user.setName("既存 職員");
+        user.setFacility("本館");
+        user.setRole(User.Role.USER);
+        user.setDeletedAt(deletedAt);
+        return user;
+    }
+
+    // Fresh entity per row read, as Hibernate materializes one per result row
+    private static User copy(User u) {
+        return user(u.getId(), u.getEmployeeId(), u.getDeletedAt());
+    }
+
+    private void roundTrip() {
+        roundTrips++;
+        if (roundTripMicros > 0) {
+            LockSupport.parkNanos(roundTripMicros * 1000L);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserRepository fakeRepository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[] { UserRepository.class }, (proxy, method, args) -> {
+                    roundTrip();
+                    switch (method.getName()) {
+                        case "findById":
+                            return Optional.of(executor);
+                        case "findByEmployeeIdIncludingDeleted":
+                            return Optional.ofNullable(table.get((String) args[0])).map(BulkUserImportBenchmark::copy);
+                        case "findByEmployeeIdInIncludingDeleted": {
+                            List<User> found = new ArrayList<>();
+                            for (String id : (Collection<String>) args[0]) {
+                                User u = table.get(id);
+                                if (u != null) {
+                                    found.add(copy(u));
+                                }
+                            }
+                            return found;
+                        }
+                        case "save":
+                            return args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * The previous bulkRegisterUsers I/O pattern: one lookup per row to validate, another per
+     * row to execute, and one save (single-row INSERT/UPDATE under IDENTITY ids) per row.
+     */
+    @Benchmark
+    public void oldPerRow(Blackhole bh) {
+        roundTrips = 0;
+        Set<String> restore = new HashSet<>(restoreIds);
+        userRepository.findById(executor.getId());
+        for (UserCreateDto dto : csv) {
+            Optional<User> existing = userRepository.findByEmployeeIdIncludingDeleted(dto.employeeId());
+            if (existing.isPresent() && existing.get().getDeletedAt() == null) {
+                throw new IllegalStateException("active duplicate");
+            }
+            bh.consume(normalize(dto.name()));
+        }
+        for (UserCreateDto dto : csv) {
+            Optional<User> existing = userRepository.findByEmployeeIdIncludingDeleted(dto.employeeId());
+            if (existing.isPresent() && restore.contains(dto.employeeId())) {
+                User user = existing.get();
+                user.setName(normalize(dto.name()));
+                user.setDeletedAt(null);
+                bh.consume(userRepository.save(user));
+            } else if (existing.isEmpty()) {
+                bh.consume(userRepository.save(User.builder()
+                        .employeeId(dto.employeeId())
+                        .name(normalize(dto.name()))
+                        .password(dto.password())
+                        .facility(dto.facility())
+                        .department(dto.department())
+                        .role(dto.role())
+                        .build()));
+            }
+        }
+        bh.consume(roundTrips);
+    }
+
+    // Same name normalization as UserService, so both paths do equal per-row CPU work
+    private static String normalize(String name) {
+        return name.replace("　", " ").trim().replaceAll("\\s+", " ");
+    }
+
+    @Benchmark
+    public void newPrefetchAndBatch(Blackhole bh) {
+        roundTrips = 0;
+        userService.bulkRegisterUsers(csv, executor.getId(), restoreIds);
+        bh.consume(roundTrips);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BulkUserImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.medical.wiki.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompletionMatrixTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CompletionMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        // progress rows: user 10 -> manuals 1, 2; user 20 -> manual 1
+        long[][] rows = { { 10, 1 }, { 10, 2 }, { 20, 1 } };
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("user_id")).thenReturn(row[0]);
+                when(rs.getLong("manual_id")).thenReturn(row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void shouldAnswerCountsFromSingleScan() {
+        assertEquals(2, matrix.completedCount(10L));
+        assertEquals(1, matrix.completedCount(20L));
+        assertEquals(0, matrix.completedCount(99L));
+        assertEquals(2, matrix.completionCount(1L, null));
+        assertEquals(3, matrix.completionCount(matrix.userMask(List.of(10L, 20L))));
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void completionCount_ShouldExcludeMaskedUsers() {
+        BitSet deleted = matrix.userMask(List.of(20L));
+
+        assertEquals(1, matrix.completionCount(1L, deleted));
+    }
+
+    @Test
+    void shouldApplyIncrementalUpdates() {
+        matrix.completedCount(10L);
+
+        matrix.markCompleted(30L, 2L);
+        matrix.markCompleted(30L, 2L);
+        matrix.clearUser(10L);
+
+        assertEquals(1, matrix.completedCount(30L));
+        assertEquals(0, matrix.completedCount(10L));
+        assertEquals(1, matrix.completionCount(2L, null));
+        assertEquals(List.of(2L), matrix.completedManualIds(30L));
+    }
+}
@@ -0,0 +1,121 @@
+package com.medical.wiki.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ComplianceExportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StreamingQueries streamingQueries;
+
+    @Mock
+    private FacilityDirectory facilityDirectory;
+
+    private static ResultSet manual(long id, String title) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("title")).thenReturn(title);
+        return rs;
+    }
+
+    private static ResultSet progress(long userId, String employeeId, String name, Long manualId) throws Exception {
+        // Lenient: only the first row of each user is read for the user columns
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(rs.getLong("id")).thenReturn(userId);
+        when(rs.getString("employee_id")).thenReturn(employeeId);
+        when(rs.getString("name")).thenReturn(name);
+        when(rs.getString("facility")).thenReturn("本館");
+        when(rs.getString("department")).thenReturn("看護部");
+        when(rs.getLong("manual_id")).thenReturn(manualId != null ? manualId : 0L);
+        when(rs.wasNull()).thenReturn(manualId == null);
+        return rs;
+    }
+
+    private void stubRows(ResultSet[] manuals, ResultSet... progressRows) {
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (ResultSet rs : manuals) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (ResultSet rs : progressRows) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(streamingQueries).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void writeProgressCsv_ShouldFoldStreamedRowsIntoOneLinePerUser() throws Exception {
+        ComplianceExportService service = new ComplianceExportService(jdbcTemplate, streamingQueries,
+                facilityDirectory);
+        stubRows(new ResultSet[] { manual(10, "手洗い"), manual(20, "転倒予防") },
+                progress(1, "E001", "山田", 10L),
+                progress(1, "E001", "山田", 10L),
+                progress(2, "E002", "佐藤", null),
+                progress(3, "E003", "鈴木", 20L),
+                progress(3, "E003", "鈴木", 99L));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeProgressCsv("本館", null, LocalDate.of(2026, 9, 30), out);
+
+        byte[] bytes = out.toByteArray();
+        assertArrayEquals(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF }, Arrays.copyOf(bytes, 3));
+        String[] lines = new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8).split("\n");
+        assertArrayEquals(new String[] {
+                "\"職員ID\",\"氏名\",\"施設\",\"部署\",\"手洗い\",\"転倒予防\",\"完了率\"",
+                // Duplicate progress rows count once; unknown manuals are ignored
+                "\"E001\",\"山田\",\"本館\",\"看護部\",\"✔\",\"-\",\"50.0%\"",
+                "\"E002\",\"佐藤\",\"本館\",\"看護部\",\"-\",\"-\",\"0.0%\"",
+                "\"E003\",\"鈴木\",\"本館\",\"看護部\",\"-\",\"✔\",\"50.0%\"" }, lines);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(streamingQueries).query(sql.capture(), any(RowCallbackHandler.class), args.capture());
+        assertTrue(sql.getValue().endsWith("AND u.facility = ? ORDER BY u.id"));
+        // Period is [start, end + 1 day); no start date means from the epoch
+        assertArrayEquals(new Object[] { Timestamp.valueOf("1970-01-01 00:00:00"),
+                Timestamp.valueOf("2026-10-01 00:00:00"), "本館" }, args.getValue());
+    }
+
+    @Test
+    void writeProgressCsv_ShouldWriteHeaderOnly_WhenNoUsers() throws Exception {
+        ComplianceExportService service = new ComplianceExportService(jdbcTemplate, streamingQueries,
+                facilityDirectory);
+        stubRows(new ResultSet[] { manual(10, "手洗い") });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeProgressCsv("all", null, null, out);
+
+        String csv = new String(out.toByteArray(), 3, out.size() - 3, StandardCharsets.UTF_8);
+        assertEquals("\"職員ID\",\"氏名\",\"施設\",\"部署\",\"手洗い\",\"完了率\"\n", csv);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(streamingQueries).query(sql.capture(), any(RowCallbackHandler.class), any(Object[].class));
+        assertFalse(sql.getValue().contains("u.facility = ?"));
+    }
+}
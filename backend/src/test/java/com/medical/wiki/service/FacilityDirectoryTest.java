@@ -0,0 +1,91 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.DepartmentDto;
+import com.medical.wiki.entity.Department;
+import com.medical.wiki.entity.Facility;
+import com.medical.wiki.repository.DepartmentRepository;
+import com.medical.wiki.repository.FacilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FacilityDirectoryTest {
+
+    @Mock
+    private FacilityRepository facilityRepository;
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    private FacilityDirectory directory;
+
+    private static Facility facility(Long id, String name) {
+        return Facility.builder().id(id).name(name).build();
+    }
+
+    private static Department department(Long id, String name, Facility facility) {
+        return Department.builder().id(id).name(name).facility(facility).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        directory = new FacilityDirectory(facilityRepository, departmentRepository);
+    }
+
+    @Test
+    void lookups_ShouldBeServedFromOneLoad() {
+        Facility main = facility(1L, "本館");
+        Facility annex = facility(2L, "別館");
+        when(facilityRepository.findByDeletedAtIsNullOrderByNameAsc()).thenReturn(List.of(main, annex));
+        when(departmentRepository.findByDeletedAtIsNullOrderByNameAsc()).thenReturn(List.of(
+                department(10L, "外科", main), department(11L, "内科", main), department(12L, "薬剤部", annex)));
+        directory.load();
+
+        assertEquals(1L, directory.facilityIdOf("本館"));
+        assertEquals(2L, directory.facilityIdOf(" 別館 "));
+        assertNull(directory.facilityIdOf("分院"));
+        assertNull(directory.facilityIdOf(null));
+        assertTrue(directory.findFacility(null).isEmpty());
+        assertEquals("別館", directory.findFacility(2L).orElseThrow().getName());
+        assertEquals(List.of("外科", "内科"),
+                directory.departmentsOf(1L).stream().map(DepartmentDto::getName).toList());
+        assertTrue(directory.departmentsOf(99L).isEmpty());
+        assertEquals("本館", directory.findDepartment(10L).orElseThrow().getFacilityName());
+        assertEquals(3, directory.departments().size());
+
+        verify(facilityRepository, times(1)).findByDeletedAtIsNullOrderByNameAsc();
+        verify(departmentRepository, times(1)).findByDeletedAtIsNullOrderByNameAsc();
+    }
+
+    @Test
+    void refresh_ShouldSwapInNewSnapshot() {
+        when(facilityRepository.findByDeletedAtIsNullOrderByNameAsc())
+                .thenReturn(List.of(facility(1L, "本館")))
+                .thenReturn(List.of(facility(1L, "本院")));
+        when(departmentRepository.findByDeletedAtIsNullOrderByNameAsc()).thenReturn(List.of());
+
+        assertEquals(1L, directory.facilityIdOf("本館"));
+        directory.refresh();
+
+        assertNull(directory.facilityIdOf("本館"));
+        assertEquals(1L, directory.facilityIdOf("本院"));
+    }
+
+    @Test
+    void findFacilityByName_ShouldIgnoreCase_LikeTheDatabaseCollation() {
+        when(facilityRepository.findByDeletedAtIsNullOrderByNameAsc())
+                .thenReturn(List.of(facility(1L, "Tokyo Clinic")));
+        when(departmentRepository.findByDeletedAtIsNullOrderByNameAsc()).thenReturn(List.of());
+
+        assertEquals(1L, directory.facilityIdOf("tokyo clinic"));
+        assertEquals(1L, directory.facilityIdOf(" TOKYO CLINIC "));
+        assertEquals("Tokyo Clinic", directory.findFacilityByName("TOKYO clinic").orElseThrow().getName());
+    }
+}
@@ -0,0 +1,152 @@
+package com.medical.wiki.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileRangeSenderTest {
+
+    private final FileRangeSender sender = new FileRangeSender();
+
+    @TempDir
+    Path dir;
+
+    private Path file() throws Exception {
+        return Files.writeString(dir.resolve("manual.pdf"), "0123456789", StandardCharsets.US_ASCII);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, Path file, AtomicInteger opens)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sender.send(request, response, file, "application/pdf", null, "inline", opens::incrementAndGet);
+        return response;
+    }
+
+    @Test
+    void send_ShouldReturnWholeFile_WithoutRange() throws Exception {
+        AtomicInteger opens = new AtomicInteger();
+        MockHttpServletResponse response = send(new MockHttpServletRequest("GET", "/"), file(), opens);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNotNull(response.getHeader("ETag"));
+        assertEquals(1, opens.get());
+    }
+
+    @Test
+    void send_ShouldSendHeadersOnly_AndNotCountDownload_ForHead() throws Exception {
+        AtomicInteger opens = new AtomicInteger();
+        MockHttpServletResponse response = send(new MockHttpServletRequest("HEAD", "/"), file(), opens);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("", response.getContentAsString());
+        assertEquals(0, opens.get());
+    }
+
+    @Test
+    void send_ShouldReturnPartialContent_ForSingleRange() throws Exception {
+        AtomicInteger opens = new AtomicInteger();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=2-5");
+
+        MockHttpServletResponse response = send(request, file(), opens);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        // Seeking inside the document is not a new download
+        assertEquals(0, opens.get());
+    }
+
+    @Test
+    void send_ShouldHandleSuffixAndOpenEndedRanges() throws Exception {
+        MockHttpServletRequest suffix = new MockHttpServletRequest("GET", "/");
+        suffix.addHeader("Range", "bytes=-3");
+        assertEquals("789", send(suffix, file(), new AtomicInteger()).getContentAsString());
+
+        AtomicInteger opens = new AtomicInteger();
+        MockHttpServletRequest openEnded = new MockHttpServletRequest("GET", "/");
+        openEnded.addHeader("Range", "bytes=0-");
+        MockHttpServletResponse response = send(openEnded, file(), opens);
+        assertEquals("bytes 0-9/10", response.getHeader("Content-Range"));
+        assertEquals(1, opens.get());
+    }
+
+    @Test
+    void send_ShouldReturnMultipart_ForMultipleRanges() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=0-1,8-9");
+
+        MockHttpServletResponse response = send(request, file(), new AtomicInteger());
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = response.getContentAsString();
+        assertTrue(body.contains("Content-Range: bytes 0-1/10\r\n\r\n01"));
+        assertTrue(body.contains("Content-Range: bytes 8-9/10\r\n\r\n89"));
+        assertEquals(body.length(), response.getContentLengthLong());
+    }
+
+    @Test
+    void send_ShouldReturn416_WhenRangeUnsatisfiable() throws Exception {
+        AtomicInteger opens = new AtomicInteger();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=20-30");
+
+        MockHttpServletResponse response = send(request, file(), opens);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+        assertEquals(0, opens.get());
+    }
+
+    @Test
+    void send_ShouldReturn304_WhenETagMatches() throws Exception {
+        Path file = file();
+        String etag = send(new MockHttpServletRequest("GET", "/"), file, new AtomicInteger()).getHeader("ETag");
+
+        AtomicInteger opens = new AtomicInteger();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = send(request, file, opens);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(0, opens.get());
+    }
+
+    @Test
+    void send_ShouldIgnoreRange_WhenIfRangeDoesNotMatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"stale\"");
+
+        MockHttpServletResponse response = send(request, file(), new AtomicInteger());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void send_ShouldDelegateToSendfile_WhenContainerSupportsIt() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=2-5");
+
+        MockHttpServletResponse response = send(request, file(), new AtomicInteger());
+
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(2L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(6L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+}
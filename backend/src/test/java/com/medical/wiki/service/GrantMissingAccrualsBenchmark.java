@@ -0,0 +1,93 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.PaidLeaveAccrual;
+import com.medical.wiki.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * grantMissingAccruals: per-anniversary lookup (old) vs one deadline set (new).
+ * "query" stands for one repository round trip and returns a fresh copy of the user's grants,
+ * so the old path pays tenure x grants materialization. Tenure 1-40 years, fully granted except
+ * the latest anniversary (the usual state on a balance recalculation).
+ * In-memory cost only: against MySQL the old path also issues tenure + 1 queries instead of one.
+ *
+ * Run: mvn test-compile, then run main() with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrantMissingAccrualsBenchmark {
+
+    @Param({ "1", "5", "10", "20", "40" })
+    public int tenureYears;
+
+    private final LocalDate today = LocalDate.of(2026, 10, 17);
+    private User user;
+    private List<PaidLeaveAccrual> stored;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setJoinedDate(today.minusYears(tenureYears).minusMonths(6));
+
+        stored = PaidLeaveGrantSchedule.missingGrants(user, Set.of(), today);
+        stored.remove(stored.size() - 1);
+    }
+
+    private List<PaidLeaveAccrual> query() {
+        return new ArrayList<>(stored);
+    }
+
+    @Benchmark
+    public void oldPerAnniversaryLookup(Blackhole bh) {
+        List<PaidLeaveAccrual> inserts = new ArrayList<>();
+        for (int i = 0; i < PaidLeaveGrantSchedule.MAX_GRANTS; i++) {
+            LocalDate grantDate = PaidLeaveGrantSchedule.grantDate(user.getJoinedDate(), i);
+            if (grantDate.isAfter(today)) {
+                break;
+            }
+            LocalDate expectedDeadline = PaidLeaveGrantSchedule.deadline(grantDate);
+            boolean exists = query().stream()
+                    .anyMatch(a -> a.getDeadline() != null && a.getDeadline().equals(expectedDeadline));
+            if (!exists) {
+                inserts.add(PaidLeaveAccrual.builder()
+                        .user(user)
+                        .daysGranted(PaidLeaveGrantSchedule.daysFor(i))
+                        .grantedAt(grantDate.atStartOfDay())
+                        .deadline(expectedDeadline)
+                        .build());
+            }
+        }
+        bh.consume(inserts);
+    }
+
+    @Benchmark
+    public void newDeadlineSet(Blackhole bh) {
+        Set<LocalDate> deadlines = new HashSet<>();
+        for (PaidLeaveAccrual a : query()) {
+            deadlines.add(a.getDeadline());
+        }
+        bh.consume(PaidLeaveGrantSchedule.missingGrants(user, deadlines, today));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GrantMissingAccrualsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,226 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.AdminLeaveMonitoringDto;
+import com.medical.wiki.dto.PaidLeaveStatusDto;
+import com.medical.wiki.entity.PaidLeave;
+import com.medical.wiki.entity.PaidLeaveAccrual;
+import com.medical.wiki.entity.User;
+import com.medical.wiki.repository.PaidLeaveAccrualRepository;
+import com.medical.wiki.repository.PaidLeaveRepository;
+import com.medical.wiki.repository.UserFacilityMappingRepository;
+import com.medical.wiki.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The set-based monitoring list must report the same balance and obligation numbers as the
+ * per-user calculateCurrentBalance. Both run against one in-memory store of grants and leaves;
+ * monitoring goes first because the per-user path persists due grants.
+ */
+class LeaveMonitoringServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final List<PaidLeaveAccrual> accruals = new ArrayList<>();
+    private final List<PaidLeave> leaves = new ArrayList<>();
+    private final Map<Long, User> users = new java.util.HashMap<>();
+
+    private LeaveMonitoringService monitoringService;
+    private PaidLeaveService paidLeaveService;
+
+    @BeforeEach
+    void setUp() {
+        PaidLeaveAccrualRepository accrualRepository = fakeAccrualRepository();
+        PaidLeaveRepository leaveRepository = fakeLeaveRepository();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(users.get(inv.getArgument(0))));
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        PaidLeaveLedgerService ledgerService = new PaidLeaveLedgerService(accrualRepository, leaveRepository);
+        monitoringService = new LeaveMonitoringService(leaveRepository, accrualRepository);
+        paidLeaveService = new PaidLeaveService(leaveRepository, userRepository,
+                mock(UserFacilityMappingRepository.class), accrualRepository, ledgerService, monitoringService,
+                mock(PersonalDashboardService.class));
+    }
+
+    @Test
+    void compute_ShouldMatchCalculateCurrentBalance_ForBuiltLedger() {
+        User user = user(1L, TODAY.minusYears(2).minusMonths(1));
+        PaidLeaveAccrual first = grant(user, 0, true);
+        PaidLeaveAccrual second = grant(user, 1, true);
+        leave(user, first.getGrantedAt().toLocalDate().plusMonths(2), 3);
+        leave(user, second.getGrantedAt().toLocalDate().plusMonths(1), 4);
+        buildLedger(user);
+
+        assertSameNumbers(user);
+    }
+
+    @Test
+    void compute_ShouldMatchCalculateCurrentBalance_ForUnbuiltLedger() {
+        User user = user(2L, TODAY.minusYears(2).minusMonths(1));
+        PaidLeaveAccrual first = grant(user, 0, false);
+        PaidLeaveAccrual second = grant(user, 1, false);
+        leave(user, first.getGrantedAt().toLocalDate().plusMonths(3), 2);
+        leave(user, second.getGrantedAt().toLocalDate().plusMonths(1), 6);
+        assertNull(second.getRemainingDays());
+
+        assertSameNumbers(user);
+    }
+
+    @Test
+    void compute_ShouldMatchCalculateCurrentBalance_ForDueGrantNotYetPersisted() {
+        User user = user(3L, TODAY.minusYears(2).minusMonths(1));
+        PaidLeaveAccrual first = grant(user, 0, true);
+        leave(user, first.getGrantedAt().toLocalDate().plusMonths(1), 5);
+        leave(user, TODAY.minusMonths(3), 3);
+        buildLedger(user);
+        // The second anniversary (7 months ago) has no row yet
+
+        assertSameNumbers(user);
+        assertEquals(2, accruals.size());
+    }
+
+    private void assertSameNumbers(User user) {
+        AdminLeaveMonitoringDto monitored = monitoringService.compute(List.of(user), TODAY).get(0);
+        PaidLeaveStatusDto status = paidLeaveService.calculateCurrentBalance(user.getId());
+
+        assertEquals(status.getRemainingDays(), monitored.getCurrentPaidLeaveDays(), 1e-9);
+        assertEquals(status.getObligatoryDaysTaken(), monitored.getObligatoryDaysTaken(), 1e-9);
+        assertEquals(status.getIsObligationMet(), monitored.getIsObligationMet());
+        assertEquals(status.getIsWarning(), monitored.getNeedsAttention());
+        assertEquals(status.getNextGrantDate(), monitored.getCurrentCycleEnd().plusDays(1));
+    }
+
+    private User user(Long id, LocalDate joinedDate) {
+        User user = new User();
+        user.setId(id);
+        user.setName("職員" + id);
+        user.setJoinedDate(joinedDate);
+        users.put(id, user);
+        return user;
+    }
+
+    private PaidLeaveAccrual grant(User user, int index, boolean built) {
+        LocalDate grantDate = PaidLeaveGrantSchedule.grantDate(user.getJoinedDate(), index);
+        double days = PaidLeaveGrantSchedule.daysFor(index);
+        PaidLeaveAccrual accrual = PaidLeaveAccrual.builder()
+                .id((long) accruals.size() + 1)
+                .user(user)
+                .daysGranted(days)
+                .remainingDays(built ? days : null)
+                .grantedAt(grantDate.atStartOfDay())
+                .deadline(PaidLeaveGrantSchedule.deadline(grantDate))
+                .build();
+        accruals.add(accrual);
+        return accrual;
+    }
+
+    private void leave(User user, LocalDate start, int days) {
+        leaves.add(PaidLeave.builder()
+                .id((long) leaves.size() + 1)
+                .user(user)
+                .startDate(start)
+                .endDate(start.plusDays(days - 1))
+                .leaveType(PaidLeave.LeaveType.FULL)
+                .status(PaidLeave.Status.APPROVED)
+                .build());
+    }
+
+    private void buildLedger(User user) {
+        List<PaidLeaveAccrual> own = accrualsOf(List.of(user.getId()));
+        double[] remaining = PaidLeaveLedgerService.simulate(own, leavesOf(List.of(user.getId())));
+        for (int i = 0; i < own.size(); i++) {
+            own.get(i).setRemainingDays(remaining[i]);
+        }
+    }
+
+    private List<PaidLeaveAccrual> accrualsOf(Collection<Long> userIds) {
+        return accruals.stream()
+                .filter(a -> a.getDeletedAt() == null && userIds.contains(a.getUser().getId()))
+                .sorted(Comparator.comparing(PaidLeaveAccrual::getGrantedAt))
+                .collect(Collectors.toList());
+    }
+
+    private List<PaidLeave> leavesOf(Collection<Long> userIds) {
+        return leaves.stream()
+                .filter(l -> l.getStatus() == PaidLeave.Status.APPROVED && userIds.contains(l.getUser().getId()))
+                .sorted(Comparator.comparing(PaidLeave::getStartDate))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> idOf(InvocationOnMock inv) {
+        return List.of(inv.<Long>getArgument(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private PaidLeaveAccrualRepository fakeAccrualRepository() {
+        PaidLeaveAccrualRepository repository = mock(PaidLeaveAccrualRepository.class);
+        when(repository.findByUser_IdInAndDeletedAtIsNullOrderByGrantedAtAsc(anyList()))
+                .thenAnswer(inv -> accrualsOf(inv.getArgument(0)));
+        when(repository.findForUpdateByUserId(anyLong())).thenAnswer(inv -> accrualsOf(idOf(inv)));
+        when(repository.findDeadlinesByUserId(anyLong())).thenAnswer(inv -> accrualsOf(idOf(inv))
+                .stream().map(PaidLeaveAccrual::getDeadline).toList());
+        when(repository.countByUserIdAndDeletedAtIsNullAndRemainingDaysIsNull(anyLong()))
+                .thenAnswer(inv -> accrualsOf(idOf(inv)).stream()
+                        .filter(a -> a.getRemainingDays() == null).count());
+        when(repository.sumRemainingDays(anyLong(), any(), any())).thenAnswer(inv -> {
+            LocalDate today = inv.getArgument(1);
+            LocalDateTime legacyFrom = inv.getArgument(2);
+            return accrualsOf(idOf(inv)).stream()
+                    .filter(a -> a.getDeadline() != null ? a.getDeadline().isAfter(today)
+                            : !a.getGrantedAt().isBefore(legacyFrom))
+                    .mapToDouble(a -> a.getRemainingDays() != null ? a.getRemainingDays() : 0.0)
+                    .sum();
+        });
+        when(repository.saveAll(anyIterable())).thenAnswer(inv -> {
+            for (PaidLeaveAccrual accrual : (Iterable<PaidLeaveAccrual>) inv.getArgument(0)) {
+                if (accrual.getId() == null) {
+                    // PaidLeaveAccrual#onCreate
+                    accrual.setId((long) accruals.size() + 1);
+                    accrual.setGrantedAt(LocalDateTime.now());
+                    accruals.add(accrual);
+                }
+            }
+            return inv.getArgument(0);
+        });
+        return repository;
+    }
+
+    private PaidLeaveRepository fakeLeaveRepository() {
+        PaidLeaveRepository repository = mock(PaidLeaveRepository.class);
+        when(repository.findByUser_IdInAndStatusOrderByStartDateAsc(anyList(), eq(PaidLeave.Status.APPROVED)))
+                .thenAnswer(inv -> leavesOf(inv.getArgument(0)));
+        when(repository.findByUserIdAndStatusOrderByStartDateAsc(anyLong(), eq(PaidLeave.Status.APPROVED)))
+                .thenAnswer(inv -> leavesOf(idOf(inv)));
+        when(repository.findByUserIdAndStatusAndStartDateAfter(anyLong(), eq(PaidLeave.Status.APPROVED), any()))
+                .thenAnswer(inv -> {
+                    LocalDate after = inv.getArgument(2);
+                    return leavesOf(idOf(inv)).stream()
+                            .filter(l -> l.getStartDate().isAfter(after)).toList();
+                });
+        when(repository.findByUserIdAndStatusAndStartDateBetweenOrderByStartDateAsc(anyLong(),
+                eq(PaidLeave.Status.APPROVED), any(), any())).thenAnswer(inv -> {
+                    LocalDate from = inv.getArgument(2);
+                    LocalDate to = inv.getArgument(3);
+                    return leavesOf(idOf(inv)).stream()
+                            .filter(l -> !l.getStartDate().isBefore(from) && !l.getStartDate().isAfter(to))
+                            .toList();
+                });
+        return repository;
+    }
+}
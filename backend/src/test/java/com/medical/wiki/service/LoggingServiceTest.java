@@ -0,0 +1,78 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.SystemLog;
+import com.medical.wiki.repository.SystemLogRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoggingServiceTest {
+
+    @Mock
+    private SystemLogRepository logRepository;
+    @Mock
+    private AuditLogWriter auditLogWriter;
+    @Mock
+    private HttpServletRequest request;
+
+    private LoggingService loggingService;
+
+    @BeforeEach
+    void setUp() {
+        loggingService = new LoggingService(logRepository, auditLogWriter, request);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void log_ShouldEnqueueImmediately_WithoutTransaction() {
+        loggingService.log("USER_UPDATE", "target", "desc", "emp001");
+
+        verify(auditLogWriter).enqueue(any(SystemLog.class));
+    }
+
+    @Test
+    void log_ShouldEnqueueOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        loggingService.log("USER_UPDATE", "target", "desc", "emp001");
+        verifyNoInteractions(auditLogWriter);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(auditLogWriter).enqueue(any(SystemLog.class));
+    }
+
+    @Test
+    void log_ShouldNotEnqueue_WhenTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        loggingService.log("USER_DELETE", "target", "desc", "emp001");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(auditLogWriter);
+    }
+
+    @Test
+    void logSync_ShouldSaveWithoutFlushingQueue() {
+        loggingService.logSync("LOGIN", "target", "desc", "emp001");
+
+        verify(logRepository).save(any(SystemLog.class));
+        verify(auditLogWriter, never()).flush();
+    }
+}
@@ -0,0 +1,112 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.ManualCatalogPageDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ManualCatalogServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private static ResultSet row(long id, String title, String updatedAt, boolean read) throws Exception {
+        // Lenient: each sort order reads a different sort_key column type
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        Timestamp ts = Timestamp.valueOf(updatedAt);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("title")).thenReturn(title);
+        when(rs.getString("category")).thenReturn("感染対策");
+        when(rs.getString("author_name")).thenReturn("管理者");
+        when(rs.getTimestamp("updated_at")).thenReturn(ts);
+        when(rs.getTimestamp("sort_key")).thenReturn(ts);
+        when(rs.getString("sort_key")).thenReturn(title);
+        when(rs.getBoolean("has_pdf")).thenReturn(id == 3);
+        when(rs.getBoolean("is_read")).thenReturn(read);
+        return rs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRows(ResultSet... rows) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(inv -> {
+            RowMapper<Object> mapper = inv.getArgument(1);
+            List<Object> result = new ArrayList<>();
+            for (int i = 0; i < rows.length; i++) {
+                result.add(mapper.mapRow(rows[i], i));
+            }
+            return result;
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findPage_ShouldReturnProjectionAndCursor_WithoutSelectingContent() throws Exception {
+        ManualCatalogService service = new ManualCatalogService(jdbcTemplate);
+        stubRows(row(3, "手洗い", "2026-10-03 09:00:00", true),
+                row(2, "転倒予防", "2026-10-02 09:00:00", false),
+                row(1, "個人情報", "2026-10-01 09:00:00", false));
+
+        ManualCatalogPageDto page = service.findPage(7L, null, ManualCatalogService.Sort.UPDATED, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertTrue(page.items().get(0).isRead());
+        assertTrue(page.items().get(0).hasPdf());
+        assertFalse(page.items().get(1).isRead());
+        ManualCatalogService.Cursor next = ManualCatalogService.Cursor.decode(page.nextCursor());
+        assertEquals(2L, next.id());
+        assertEquals("2026-10-02T09:00", next.sortKey());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+        assertFalse(sql.getValue().contains("content"));
+        assertTrue(sql.getValue().contains("LEFT JOIN"));
+        // Bare indexed columns, no COALESCE the (updated_at, id) index cannot serve
+        assertFalse(sql.getValue().contains("COALESCE"));
+        assertTrue(sql.getValue().endsWith("ORDER BY m.updated_at DESC, m.id DESC LIMIT ?"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findPage_ShouldApplyKeysetCondition_FromCursor() throws Exception {
+        ManualCatalogService service = new ManualCatalogService(jdbcTemplate);
+        stubRows(row(1, "個人情報", "2026-10-01 09:00:00", false));
+        String cursor = new ManualCatalogService.Cursor("A|B", 5L).encode();
+
+        ManualCatalogPageDto page = service.findPage(7L, "感染対策", ManualCatalogService.Sort.TITLE, cursor, 2);
+
+        assertNull(page.nextCursor());
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), args.capture());
+        // userId, category, title key twice, id, limit + 1
+        assertArrayEquals(new Object[] { 7L, "感染対策", "A|B", "A|B", 5L, 3 }, args.getValue());
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+        assertTrue(sql.getValue().contains("(m.title > ? OR (m.title = ? AND m.id > ?))"));
+    }
+
+    @Test
+    void findPage_ShouldRejectBadCursorAndSort() {
+        ManualCatalogService service = new ManualCatalogService(jdbcTemplate);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findPage(7L, null, ManualCatalogService.Sort.UPDATED, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> ManualCatalogService.Sort.from("popularity"));
+        assertEquals(ManualCatalogService.Sort.TITLE, ManualCatalogService.Sort.from("title"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.ManualSearchResultDto;
+import com.medical.wiki.entity.Manual;
+import com.medical.wiki.repository.ManualRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ManualSearchIndexTest {
+
+    @Mock
+    private ManualRepository manualRepository;
+
+    @InjectMocks
+    private ManualSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(manualRepository.findAll()).thenReturn(List.of(
+                manual(1L, "感染対策マニュアル", "手洗いとアルコール消毒を徹底してください。感染対策委員会が監査します。"),
+                manual(2L, "転倒予防", "夜間の巡視では転倒リスクの高い利用者を確認します。"),
+                manual(3L, "記録の書き方", "感染症の疑いがある場合は記録に残してください。")));
+    }
+
+    @Test
+    void tokenizer_ShouldEmitBigramsAndWords() {
+        assertEquals(List.of("感染", "染対", "対策", "pdf", "2026"), CjkBigramTokenizer.terms("感染対策　ＰＤＦ 2026"));
+        assertEquals(List.of("手"), CjkBigramTokenizer.terms("手"));
+        assertEquals(List.of("手洗", "洗い", "手", "洗", "い"), CjkBigramTokenizer.indexTerms("手洗い"));
+    }
+
+    @Test
+    void search_ShouldMatchSingleCharacterQueryInsideWords() {
+        assertEquals(List.of(1L), index.search("手", 10).stream().map(ManualSearchResultDto::getId).toList());
+        assertEquals(List.of(1L, 3L), index.search("染", 10).stream().map(ManualSearchResultDto::getId).toList());
+
+        int[] range = index.search("手", 10).get(0).getHighlights().get(0);
+        assertEquals("手", index.search("手", 10).get(0).getSnippet().substring(range[0], range[1]));
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchFirst() {
+        List<ManualSearchResultDto> results = index.search("感染", 10);
+
+        assertEquals(List.of(1L, 3L), results.stream().map(ManualSearchResultDto::getId).toList());
+    }
+
+    @Test
+    void search_ShouldRequireAllTerms() {
+        assertEquals(List.of(2L), index.search("転倒リスク", 10).stream().map(ManualSearchResultDto::getId).toList());
+        assertTrue(index.search("存在しない語句", 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldReturnHighlightOffsetsIntoSnippet() {
+        ManualSearchResultDto hit = index.search("アルコール", 10).get(0);
+
+        int[] range = hit.getHighlights().get(0);
+        assertEquals("アルコール", hit.getSnippet().substring(range[0], range[1]));
+    }
+
+    @Test
+    void index_ShouldReplaceUpdatedManual() {
+        index.search("感染", 10);
+
+        index.index(manual(2L, "感染経路", "接触感染と飛沫感染"));
+
+        assertEquals(3, index.search("感染", 10).size());
+        assertTrue(index.search("転倒", 10).isEmpty());
+        verify(manualRepository, times(1)).findAll();
+    }
+
+    private Manual manual(Long id, String title, String content) {
+        Manual manual = new Manual();
+        manual.setId(id);
+        manual.setTitle(title);
+        manual.setContent(content);
+        manual.setCategory("安全");
+        return manual;
+    }
+}
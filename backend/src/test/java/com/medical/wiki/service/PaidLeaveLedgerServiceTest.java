@@ -0,0 +1,194 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.PaidLeave;
+import com.medical.wiki.entity.PaidLeaveAccrual;
+import com.medical.wiki.entity.User;
+import com.medical.wiki.repository.PaidLeaveAccrualRepository;
+import com.medical.wiki.repository.PaidLeaveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaidLeaveLedgerServiceTest {
+
+    @Mock
+    private PaidLeaveAccrualRepository accrualRepository;
+
+    @Mock
+    private PaidLeaveRepository leaveRepository;
+
+    @InjectMocks
+    private PaidLeaveLedgerService ledgerService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+    }
+
+    @Test
+    void rebuild_ShouldConsumeEarliestValidGrantFirst() {
+        PaidLeaveAccrual first = accrual(LocalDate.of(2024, 10, 1), 10.0, null);
+        PaidLeaveAccrual second = accrual(LocalDate.of(2025, 10, 1), 11.0, null);
+        PaidLeave leave = leave(LocalDate.of(2025, 11, 3), LocalDate.of(2025, 11, 14), PaidLeave.LeaveType.FULL);
+
+        when(accrualRepository.findForUpdateByUserId(1L))
+                .thenReturn(List.of(first, second));
+        when(leaveRepository.findByUserIdAndStatusOrderByStartDateAsc(1L, PaidLeave.Status.APPROVED))
+                .thenReturn(List.of(leave));
+
+        boolean drifted = ledgerService.rebuild(1L);
+
+        assertFalse(drifted);
+        assertEquals(0.0, first.getRemainingDays());
+        assertEquals(9.0, second.getRemainingDays());
+    }
+
+    @Test
+    void rebuild_ShouldReportDrift_WhenLedgerDisagreesWithSimulation() {
+        PaidLeaveAccrual grant = accrual(LocalDate.of(2024, 10, 1), 10.0, 10.0);
+        PaidLeave leave = leave(LocalDate.of(2024, 12, 2), LocalDate.of(2024, 12, 2), PaidLeave.LeaveType.HALF_AM);
+
+        when(accrualRepository.findForUpdateByUserId(1L)).thenReturn(List.of(grant));
+        when(leaveRepository.findByUserIdAndStatusOrderByStartDateAsc(1L, PaidLeave.Status.APPROVED))
+                .thenReturn(List.of(leave));
+
+        assertTrue(ledgerService.rebuild(1L));
+        assertEquals(9.5, grant.getRemainingDays());
+    }
+
+    @Test
+    void applyApprovedLeave_ShouldSpillIntoNextGrant() {
+        PaidLeaveAccrual first = accrual(LocalDate.of(2024, 10, 1), 10.0, 1.0);
+        PaidLeaveAccrual second = accrual(LocalDate.of(2025, 10, 1), 11.0, 11.0);
+        PaidLeave leave = leave(LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 3), PaidLeave.LeaveType.FULL);
+
+        when(accrualRepository.countByUserIdAndDeletedAtIsNullAndRemainingDaysIsNull(1L)).thenReturn(0L);
+        when(accrualRepository.findConsumableBuckets(eq(1L), eq(leave.getStartDate()), any(), any()))
+                .thenReturn(List.of(first, second));
+        when(leaveRepository.findByUserIdAndStatusAndStartDateAfter(1L, PaidLeave.Status.APPROVED,
+                leave.getStartDate())).thenReturn(List.of());
+
+        ledgerService.applyApprovedLeave(leave);
+
+        assertEquals(0.0, first.getRemainingDays());
+        assertEquals(9.0, second.getRemainingDays());
+        verify(accrualRepository).saveAll(List.of(first, second));
+        verify(leaveRepository, never()).findByUserIdAndStatusOrderByStartDateAsc(any(), any());
+    }
+
+    @Test
+    void applyApprovedLeave_ShouldRebuild_WhenLedgerNotInitialized() {
+        PaidLeave leave = leave(LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 1), PaidLeave.LeaveType.FULL);
+
+        when(accrualRepository.countByUserIdAndDeletedAtIsNullAndRemainingDaysIsNull(1L)).thenReturn(2L);
+        when(accrualRepository.findForUpdateByUserId(1L)).thenReturn(List.of());
+        when(leaveRepository.findByUserIdAndStatusOrderByStartDateAsc(1L, PaidLeave.Status.APPROVED))
+                .thenReturn(List.of(leave));
+
+        ledgerService.applyApprovedLeave(leave);
+
+        verify(accrualRepository, never()).findConsumableBuckets(any(), any(), any(), any());
+        verify(accrualRepository).saveAll(anyList());
+    }
+
+    @Test
+    void applyApprovedLeave_ShouldRebuildInStartDateOrder_WhenBackdated() {
+        // Ledger after a later leave (2 days, 2026-01) was applied to the old grant, which had 1 day left
+        PaidLeaveAccrual first = accrual(LocalDate.of(2024, 10, 1), 10.0, 0.0);
+        PaidLeaveAccrual second = accrual(LocalDate.of(2025, 10, 1), 11.0, 10.0);
+        PaidLeave older = leave(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 14), PaidLeave.LeaveType.FULL);
+        PaidLeave later = leave(LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 6), PaidLeave.LeaveType.FULL);
+        PaidLeave backdated = leave(LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 1), PaidLeave.LeaveType.FULL);
+
+        when(accrualRepository.countByUserIdAndDeletedAtIsNullAndRemainingDaysIsNull(1L)).thenReturn(0L);
+        when(accrualRepository.findConsumableBuckets(eq(1L), eq(backdated.getStartDate()), any(), any()))
+                .thenReturn(List.of(second));
+        when(leaveRepository.findByUserIdAndStatusAndStartDateAfter(1L, PaidLeave.Status.APPROVED,
+                backdated.getStartDate())).thenReturn(List.of(later));
+        when(accrualRepository.findForUpdateByUserId(1L)).thenReturn(List.of(first, second));
+        when(leaveRepository.findByUserIdAndStatusOrderByStartDateAsc(1L, PaidLeave.Status.APPROVED))
+                .thenReturn(List.of(older, backdated, later));
+
+        ledgerService.applyApprovedLeave(backdated);
+
+        // Simulation order: older 9 + backdated 1 use up the first grant, later takes 2 from the second
+        assertEquals(0.0, first.getRemainingDays());
+        assertEquals(9.0, second.getRemainingDays());
+        double[] expected = PaidLeaveLedgerService.simulate(List.of(
+                accrual(LocalDate.of(2024, 10, 1), 10.0, null), accrual(LocalDate.of(2025, 10, 1), 11.0, null)),
+                List.of(older, backdated, later));
+        assertEquals(expected[1], second.getRemainingDays());
+    }
+
+    @Test
+    void reconcileNewGrants_ShouldDeductPreviouslyUncoveredLeaves() {
+        PaidLeaveAccrual expired = accrual(LocalDate.of(2024, 10, 1), 5.0, 0.0);
+        PaidLeaveAccrual granted = accrual(LocalDate.of(2026, 10, 15), 10.0, 10.0);
+        PaidLeave used = leave(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 7), PaidLeave.LeaveType.FULL);
+        // Approved while no grant was valid on its date: the simulation skipped it
+        PaidLeave uncovered = leave(LocalDate.of(2026, 11, 2), LocalDate.of(2026, 11, 4), PaidLeave.LeaveType.FULL);
+
+        when(accrualRepository.countByUserIdAndDeletedAtIsNullAndRemainingDaysIsNull(1L)).thenReturn(0L);
+        when(leaveRepository.findByUserIdAndStatusAndStartDateAfter(1L, PaidLeave.Status.APPROVED,
+                LocalDate.of(2026, 10, 14))).thenReturn(List.of(uncovered));
+        when(accrualRepository.findForUpdateByUserId(1L)).thenReturn(List.of(expired, granted));
+        when(leaveRepository.findByUserIdAndStatusOrderByStartDateAsc(1L, PaidLeave.Status.APPROVED))
+                .thenReturn(List.of(used, uncovered));
+
+        ledgerService.reconcileNewGrants(1L, List.of(granted));
+
+        assertEquals(0.0, expired.getRemainingDays());
+        assertEquals(7.0, granted.getRemainingDays());
+    }
+
+    @Test
+    void reconcileNewGrants_ShouldSkipRebuild_WhenNoLeaveStartsAfterGrant() {
+        PaidLeaveAccrual granted = accrual(LocalDate.of(2026, 10, 15), 10.0, 10.0);
+        when(accrualRepository.countByUserIdAndDeletedAtIsNullAndRemainingDaysIsNull(1L)).thenReturn(0L);
+        when(leaveRepository.findByUserIdAndStatusAndStartDateAfter(eq(1L), eq(PaidLeave.Status.APPROVED), any()))
+                .thenReturn(List.of());
+
+        ledgerService.reconcileNewGrants(1L, List.of(granted));
+
+        assertEquals(10.0, granted.getRemainingDays());
+        verify(accrualRepository, never()).findForUpdateByUserId(any());
+    }
+
+    private PaidLeaveAccrual accrual(LocalDate grantDate, double days, Double remaining) {
+        return PaidLeaveAccrual.builder()
+                .user(user)
+                .daysGranted(days)
+                .remainingDays(remaining)
+                .grantedAt(grantDate.atStartOfDay())
+                .deadline(grantDate.plusYears(2))
+                .build();
+    }
+
+    private PaidLeave leave(LocalDate start, LocalDate end, PaidLeave.LeaveType type) {
+        return PaidLeave.builder()
+                .user(user)
+                .startDate(start)
+                .endDate(end)
+                .status(PaidLeave.Status.APPROVED)
+                .leaveType(type)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.PaidLeave;
+import com.medical.wiki.entity.User;
+import com.medical.wiki.repository.PaidLeaveAccrualRepository;
+import com.medical.wiki.repository.PaidLeaveRepository;
+import com.medical.wiki.repository.UserFacilityMappingRepository;
+import com.medical.wiki.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaidLeaveServiceTest {
+
+    @Mock
+    private PaidLeaveRepository repository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserFacilityMappingRepository facilityMappingRepository;
+    @Mock
+    private PaidLeaveAccrualRepository accrualRepository;
+    @Mock
+    private PaidLeaveLedgerService ledgerService;
+    @Mock
+    private LeaveMonitoringService leaveMonitoringService;
+    @Mock
+    private PersonalDashboardService personalDashboardService;
+
+    @InjectMocks
+    private PaidLeaveService paidLeaveService;
+
+    @Test
+    void updateStatus_ShouldInvalidateRequesterDashboard() {
+        User user = new User();
+        user.setId(7L);
+        PaidLeave leave = PaidLeave.builder()
+                .id(3L)
+                .user(user)
+                .startDate(LocalDate.of(2026, 11, 2))
+                .endDate(LocalDate.of(2026, 11, 2))
+                .leaveType(PaidLeave.LeaveType.FULL)
+                .status(PaidLeave.Status.PENDING)
+                .build();
+        when(repository.findById(3L)).thenReturn(Optional.of(leave));
+        when(repository.save(any(PaidLeave.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        paidLeaveService.updateStatus(3L, PaidLeave.Status.REJECTED, "人員不足");
+
+        assertEquals(PaidLeave.Status.REJECTED, leave.getStatus());
+        verify(personalDashboardService).invalidate(7L);
+    }
+}
@@ -0,0 +1,68 @@
+package com.medical.wiki.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingPoolTest {
+
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    private final PasswordEncoder encoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence raw) {
+            threads.add(Thread.currentThread().getName());
+            if ("boom".contentEquals(raw)) {
+                throw new IllegalStateException("encoder failure");
+            }
+            return "h:" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            return encoded.equals("h:" + raw);
+        }
+    };
+
+    private final PasswordHashingPool pool = new PasswordHashingPool(encoder, 4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void encodeAll_ShouldKeepRowOrderAndUseThePool() {
+        List<String> raw = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            raw.add("p" + i);
+        }
+
+        List<String> hashes = pool.encodeAll(raw);
+
+        assertEquals(1000, hashes.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("h:p" + i, hashes.get(i));
+        }
+        assertTrue(threads.stream().anyMatch(name -> name.startsWith("password-hash-")));
+    }
+
+    @Test
+    void encodeAll_ShouldHandleEmptyInput() {
+        assertTrue(pool.encodeAll(List.of()).isEmpty());
+    }
+
+    @Test
+    void encodeAll_ShouldRethrowEncoderFailure() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> pool.encodeAll(List.of("a", "boom", "c")));
+        assertEquals("encoder failure", e.getMessage());
+    }
+}
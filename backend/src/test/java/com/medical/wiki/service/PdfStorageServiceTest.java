@@ -0,0 +1,105 @@
+package com.medical.wiki.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfStorageServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] pdf(String body) {
+        return ("%PDF-1.7\n" + body).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void store_ShouldWriteContentAddressedFile() throws Exception {
+        PdfStorageService storage = new PdfStorageService(dir.toString(), 1024, 60);
+        byte[] content = pdf("a");
+
+        PdfStorageService.StoredPdf stored = storage.store(new ByteArrayInputStream(content));
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals(expected, stored.sha256());
+        assertEquals("sha256/" + expected + ".pdf", stored.relativePath());
+        assertArrayEquals(content, Files.readAllBytes(storage.resolve(stored.relativePath())));
+        // No temp files left behind
+        try (var files = Files.list(dir)) {
+            assertTrue(files.noneMatch(p -> p.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void store_ShouldShareFile_ForIdenticalContent() throws Exception {
+        PdfStorageService storage = new PdfStorageService(dir.toString(), 1024, 60);
+
+        PdfStorageService.StoredPdf first = storage.store(new ByteArrayInputStream(pdf("same")));
+        PdfStorageService.StoredPdf second = storage.store(new ByteArrayInputStream(pdf("same")));
+
+        assertEquals(first.relativePath(), second.relativePath());
+        try (var files = Files.list(dir.resolve(PdfStorageService.CONTENT_DIR))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void store_ShouldRejectOversizedUpload_AndCleanUp() throws Exception {
+        PdfStorageService storage = new PdfStorageService(dir.toString(), 8, 60);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> storage.store(new ByteArrayInputStream(pdf("too large"))));
+
+        try (var files = Files.list(dir)) {
+            assertTrue(files.noneMatch(p -> p.getFileName().toString().endsWith(".tmp")));
+        }
+        try (var files = Files.list(dir.resolve(PdfStorageService.CONTENT_DIR))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void sweep_ShouldDeleteOnlyUnreferencedFilesPastGrace() throws Exception {
+        PdfStorageService storage = new PdfStorageService(dir.toString(), 1024, 60);
+        PdfStorageService.StoredPdf kept = storage.store(new ByteArrayInputStream(pdf("kept")));
+        PdfStorageService.StoredPdf orphan = storage.store(new ByteArrayInputStream(pdf("orphan")));
+        PdfStorageService.StoredPdf fresh = storage.store(new ByteArrayInputStream(pdf("fresh")));
+        FileTime old = FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS));
+        Files.setLastModifiedTime(storage.resolve(kept.relativePath()), old);
+        Files.setLastModifiedTime(storage.resolve(orphan.relativePath()), old);
+
+        int deleted = storage.sweep(Set.of(kept.relativePath()));
+
+        assertEquals(1, deleted);
+        assertTrue(Files.exists(storage.resolve(kept.relativePath())));
+        assertFalse(Files.exists(storage.resolve(orphan.relativePath())));
+        // Unreferenced but within the grace period: its manual update may not have committed yet
+        assertTrue(Files.exists(storage.resolve(fresh.relativePath())));
+    }
+
+    @Test
+    void store_ShouldRefreshReusedFile_SoSweepKeepsIt() throws Exception {
+        PdfStorageService storage = new PdfStorageService(dir.toString(), 1024, 60);
+        PdfStorageService.StoredPdf first = storage.store(new ByteArrayInputStream(pdf("reused")));
+        Files.setLastModifiedTime(storage.resolve(first.relativePath()),
+                FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+
+        // Dedup hit: the new reference is not committed yet when the sweep runs
+        storage.store(new ByteArrayInputStream(pdf("reused")));
+
+        assertEquals(0, storage.sweep(Set.of()));
+        assertTrue(Files.exists(storage.resolve(first.relativePath())));
+    }
+}
@@ -0,0 +1,109 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.dto.PersonalDashboardDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonalDashboardServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private AnnouncementService announcementService;
+
+    private PersonalDashboardService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PersonalDashboardService(jdbcTemplate, announcementService, 60, 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubQueries() {
+        when(jdbcTemplate.query(contains("FROM users u"), any(ResultSetExtractor.class), eq(1L)))
+                .thenAnswer(inv -> {
+                    java.sql.ResultSet rs = mock(java.sql.ResultSet.class);
+                    when(rs.next()).thenReturn(true);
+                    when(rs.getDouble(1)).thenReturn(12.5);
+                    when(rs.getInt(2)).thenReturn(40);
+                    when(rs.getInt(3)).thenReturn(3);
+                    return ((ResultSetExtractor<?>) inv.getArgument(1)).extractData(rs);
+                });
+        when(jdbcTemplate.queryForObject(contains("FROM progress"), any(RowMapper.class), any(), any(), eq(1L)))
+                .thenAnswer(inv -> {
+                    java.sql.ResultSet rs = mock(java.sql.ResultSet.class);
+                    when(rs.getInt(1)).thenReturn(10);
+                    when(rs.getInt(2)).thenReturn(4);
+                    when(rs.getTimestamp(3)).thenReturn(java.sql.Timestamp.valueOf("2026-10-16 09:30:00"));
+                    return ((RowMapper<?>) inv.getArgument(1)).mapRow(rs, 0);
+                });
+        when(jdbcTemplate.queryForObject(contains("paid_leaves"), any(RowMapper.class), eq(1L), eq(1L), eq(1L),
+                eq(1L))).thenAnswer(inv -> {
+                    java.sql.ResultSet rs = mock(java.sql.ResultSet.class);
+                    when(rs.getInt(1)).thenReturn(2);
+                    when(rs.getInt(2)).thenReturn(5);
+                    return ((RowMapper<?>) inv.getArgument(1)).mapRow(rs, 0);
+                });
+        when(announcementService.countAnnouncementsForUser(1L)).thenReturn(7);
+    }
+
+    @Test
+    void getSummary_ShouldAssembleAggregates() {
+        stubQueries();
+
+        PersonalDashboardDto summary = service.getSummary(1L);
+
+        assertEquals(10, summary.getCompletedManualsCount());
+        assertEquals(40, summary.getTotalManualsCount());
+        assertEquals(4, summary.getMonthlyReadCount());
+        assertEquals("2026/10/16", summary.getLastReadDate());
+        assertEquals(2, summary.getPendingLeaveRequestsCount());
+        assertEquals(5, summary.getApprovedLeaveRequestsCount());
+        assertEquals(12.5, summary.getPaidLeaveDays());
+        assertEquals(7, summary.getUnreadNotificationsCount());
+        assertEquals(3, summary.getCompletedTrainingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSummary_ShouldServeFromCache_UntilInvalidated() {
+        stubQueries();
+
+        PersonalDashboardDto first = service.getSummary(1L);
+        assertSame(first, service.getSummary(1L));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(ResultSetExtractor.class), eq(1L));
+
+        service.invalidate(1L);
+        assertNotSame(first, service.getSummary(1L));
+        verify(jdbcTemplate, times(2)).query(anyString(), any(ResultSetExtractor.class), eq(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSummary_ShouldPropagateUnknownUser() {
+        when(jdbcTemplate.query(contains("FROM users u"), any(ResultSetExtractor.class), eq(9L)))
+                .thenThrow(new RuntimeException("User not found"));
+        lenient().when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(null);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.getSummary(9L));
+        assertEquals("User not found", e.getMessage());
+    }
+}
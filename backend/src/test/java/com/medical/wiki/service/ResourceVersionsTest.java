@@ -0,0 +1,82 @@
+package com.medical.wiki.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceVersionsTest {
+
+    private final ResourceVersions versions = new ResourceVersions();
+
+    @Test
+    void etag_ShouldBeWeakAndChangeOnlyWhenItsResourceIsBumped() {
+        String facilities = versions.etag(ResourceVersions.Resource.FACILITIES);
+        String committees = versions.etag(ResourceVersions.Resource.COMMITTEES);
+        assertTrue(facilities.startsWith("W/\""));
+
+        versions.bump(ResourceVersions.Resource.FACILITIES);
+
+        assertNotEquals(facilities, versions.etag(ResourceVersions.Resource.FACILITIES));
+        assertEquals(committees, versions.etag(ResourceVersions.Resource.COMMITTEES));
+    }
+
+    @Test
+    void etag_ShouldVaryByScope() {
+        String admin = versions.etag(ResourceVersions.Resource.FACILITIES, "ADMIN", "本館");
+        String other = versions.etag(ResourceVersions.Resource.FACILITIES, "ADMIN", "別館");
+
+        assertNotEquals(admin, other);
+        assertTrue(admin.chars().allMatch(c -> c < 128));
+    }
+
+    @Test
+    void etag_ShouldNotCollide_ForDifferentUsersAndProgressVersions() {
+        // Same Arrays.hashCode: 961 + 31 * userId + version
+        String user1 = versions.etag(ResourceVersions.Resource.MANUALS, 1L, 31L);
+        String user2 = versions.etag(ResourceVersions.Resource.MANUALS, 2L, 0L);
+        String swapped = versions.etag(ResourceVersions.Resource.MANUALS, 13L, 1L);
+        String joined = versions.etag(ResourceVersions.Resource.MANUALS, 1L, 31L, null);
+
+        assertNotEquals(user1, user2);
+        assertNotEquals(user1, swapped);
+        assertNotEquals(user1, joined);
+    }
+
+    @Test
+    void bumpProgress_ShouldOnlyAffectThatUser() {
+        versions.bumpProgress(1L);
+
+        assertEquals(1, versions.progressVersion(1L));
+        assertEquals(0, versions.progressVersion(2L));
+    }
+
+    @Test
+    void checkNotModified_ShouldAnswer304ForMatchingTag() {
+        String etag = versions.etag(ResourceVersions.Resource.DEPARTMENTS);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/departments");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(versions.checkNotModified(new ServletWebRequest(request, response), etag));
+        assertEquals(304, response.getStatus());
+        assertEquals(ResourceVersions.CACHE_CONTROL, response.getHeader("Cache-Control"));
+        assertTrue(response.getHeaders("Vary").contains("X-User-Id"));
+    }
+
+    @Test
+    void checkNotModified_ShouldSetTagWhenStale() {
+        String stale = versions.etag(ResourceVersions.Resource.DEPARTMENTS);
+        versions.bump(ResourceVersions.Resource.DEPARTMENTS);
+        String current = versions.etag(ResourceVersions.Resource.DEPARTMENTS);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/departments");
+        request.addHeader("If-None-Match", stale);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(versions.checkNotModified(new ServletWebRequest(request, response), current));
+        assertEquals(200, response.getStatus());
+        assertEquals(current, response.getHeader("ETag"));
+    }
+}
@@ -2,26 +2,18 @@ package com.medical.wiki.service;
 
 import com.medical.wiki.entity.SecurityAnomaly;
 import com.medical.wiki.entity.SecurityAnomaly.AnomalyType;
-import com.medical.wiki.entity.SystemLog;
 import com.medical.wiki.entity.User;
 import com.medical.wiki.repository.SecurityAnomalyRepository;
-import com.medical.wiki.repository.SystemLogRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
-
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.Arrays;
-import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,14 +22,13 @@ class SecurityAnomalyServiceTest {
         @Mock
         private SecurityAnomalyRepository securityAnomalyRepository;
 
-        @Mock
-        private SystemLogRepository systemLogRepository;
+        // threshold 5 / 1 minute, 5 minute cooldown, 3 login failures
+        @Spy
+        private SlidingWindowAnomalyEngine anomalyEngine = new SlidingWindowAnomalyEngine(5, 1, 5, 3, 60, 10_000);
 
         @InjectMocks
         private SecurityAnomalyService securityAnomalyService;
 
-        private static final ZoneId JST = ZoneId.of("Asia/Tokyo");
-
         @Test
         void checkImportantActionAnomaly_ShouldCreateAnomaly_WhenThresholdExceeded() {
                 // Arrange
@@ -46,27 +37,15 @@ class SecurityAnomalyServiceTest {
                 user.setEmployeeId("TEST_USER");
                 String action = "MANUAL_DOWNLOAD";
 
-                ZonedDateTime nowJst = ZonedDateTime.now(JST);
-
-                try (MockedStatic<ZonedDateTime> mockedTime = Mockito.mockStatic(ZonedDateTime.class)) {
-                        mockedTime.when(() -> ZonedDateTime.now(JST)).thenReturn(nowJst);
-
-                        // Mock recent alerts (none)
-                        when(securityAnomalyRepository.countByUserIdAndTypeAndDetectedAtAfter(
-                                        eq(1L), eq(AnomalyType.RAPID_ACCESS), any(LocalDateTime.class)))
-                                        .thenReturn(0L);
-
-                        // Mock action count (5 times)
-                        when(systemLogRepository.countByPerformedByAndActionAndTimestampAfter(
-                                        eq("TEST_USER"), eq(action), any(LocalDateTime.class)))
-                                        .thenReturn(5L); // Threshold is 5
-
-                        // Act
+                // Act: 5 downloads within a minute (threshold is 5)
+                for (int i = 0; i < 5; i++) {
                         securityAnomalyService.checkImportantActionAnomaly(user, action, "127.0.0.1");
-
-                        // Assert
-                        verify(securityAnomalyRepository).save(any(SecurityAnomaly.class));
                 }
+
+                // Assert
+                ArgumentCaptor<SecurityAnomaly> saved = ArgumentCaptor.forClass(SecurityAnomaly.class);
+                verify(securityAnomalyRepository, times(1)).save(saved.capture());
+                assertEquals(AnomalyType.RAPID_ACCESS, saved.getValue().getType());
         }
 
         @Test
@@ -76,22 +55,13 @@ class SecurityAnomalyServiceTest {
                 user.setEmployeeId("TEST_USER");
                 String action = "MANUAL_DOWNLOAD";
 
-                ZonedDateTime nowJst = ZonedDateTime.now(JST);
-
-                try (MockedStatic<ZonedDateTime> mockedTime = Mockito.mockStatic(ZonedDateTime.class)) {
-                        mockedTime.when(() -> ZonedDateTime.now(JST)).thenReturn(nowJst);
-
-                        // Mock action count (4 times)
-                        when(systemLogRepository.countByPerformedByAndActionAndTimestampAfter(
-                                        eq("TEST_USER"), eq(action), any(LocalDateTime.class)))
-                                        .thenReturn(4L);
-
-                        // Act
+                // Act: 4 downloads
+                for (int i = 0; i < 4; i++) {
                         securityAnomalyService.checkImportantActionAnomaly(user, action, "127.0.0.1");
-
-                        // Assert
-                        verify(securityAnomalyRepository, never()).save(any());
                 }
+
+                // Assert
+                verify(securityAnomalyRepository, never()).save(any());
         }
 
         @Test
@@ -104,8 +74,20 @@ class SecurityAnomalyServiceTest {
                 securityAnomalyService.checkImportantActionAnomaly(user, action, "127.0.0.1");
 
                 // Assert
-                verify(systemLogRepository, never()).countByPerformedByAndActionAndTimestampAfter(anyString(),
-                                anyString(), any());
+                verify(anomalyEngine, never()).recordImportantAction(any(), any(), anyLong());
+        }
+
+        @Test
+        void checkImportantActionAnomaly_ShouldRaiseOnce_WithinCooldown() {
+                User user = new User();
+                user.setId(1L);
+                user.setEmployeeId("TEST_USER");
+
+                for (int i = 0; i < 12; i++) {
+                        securityAnomalyService.checkImportantActionAnomaly(user, "MANUAL_DOWNLOAD", "127.0.0.1");
+                }
+
+                verify(securityAnomalyRepository, times(1)).save(any(SecurityAnomaly.class));
         }
 
         @Test
@@ -113,28 +95,37 @@ class SecurityAnomalyServiceTest {
                 // Arrange
                 String employeeId = "TEST_LOGIN_FAIL";
 
-                // Mock 3 consecutive failures
-                SystemLog log1 = new SystemLog();
-                log1.setAction("LOGIN_FAILURE");
-                SystemLog log2 = new SystemLog();
-                log2.setAction("LOGIN_FAILURE");
-                SystemLog log3 = new SystemLog();
-                log3.setAction("LOGIN_FAILURE");
-                List<SystemLog> logs = Arrays.asList(log1, log2, log3);
+                // Act: 3 consecutive failures
+                securityAnomalyService.checkLoginFailure(employeeId, "127.0.0.1");
+                securityAnomalyService.checkLoginFailure(employeeId, "127.0.0.1");
+                verify(securityAnomalyRepository, never()).save(any());
+                securityAnomalyService.checkLoginFailure(employeeId, "127.0.0.1");
 
-                when(systemLogRepository.findTop3ByPerformedByOrderByTimestampDesc(employeeId))
-                                .thenReturn(logs);
+                // Assert
+                verify(securityAnomalyRepository).save(any(SecurityAnomaly.class));
+        }
 
-                ZonedDateTime now = ZonedDateTime.of(2026, 2, 1, 12, 0, 0, 0, JST);
+        @Test
+        void checkLoginFailure_ShouldNotCreateAnomaly_WhenSuccessBreaksTheRun() {
+                String employeeId = "TEST_LOGIN_FAIL";
 
-                try (MockedStatic<ZonedDateTime> mockedTime = Mockito.mockStatic(ZonedDateTime.class)) {
-                        mockedTime.when(() -> ZonedDateTime.now(JST)).thenReturn(now);
+                securityAnomalyService.checkLoginFailure(employeeId, "127.0.0.1");
+                securityAnomalyService.checkLoginFailure(employeeId, "127.0.0.1");
+                securityAnomalyService.recordLoginSuccess(employeeId);
+                securityAnomalyService.checkLoginFailure(employeeId, "127.0.0.1");
 
-                        // Act
-                        securityAnomalyService.checkLoginFailure(employeeId, "127.0.0.1");
+                verify(securityAnomalyRepository, never()).save(any());
+        }
 
-                        // Assert
-                        verify(securityAnomalyRepository).save(any(SecurityAnomaly.class));
+        @Test
+        void checkLoginFailure_ShouldIgnoreMissingEmployeeId() {
+                for (int i = 0; i < 5; i++) {
+                        securityAnomalyService.checkLoginFailure(null, "127.0.0.1");
+                        securityAnomalyService.checkLoginFailure(" ", "127.0.0.1");
                 }
+                securityAnomalyService.recordLoginSuccess(null);
+
+                verifyNoInteractions(securityAnomalyRepository);
+                verify(anomalyEngine, never()).recordLoginFailure(any());
         }
 }
@@ -0,0 +1,86 @@
+package com.medical.wiki.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowAnomalyEngineTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void recordImportantAction_ShouldOnlyCountEventsInsideWindow() {
+        SlidingWindowAnomalyEngine engine = new SlidingWindowAnomalyEngine(3, 1, 5, 3, 60, 10_000);
+        long t0 = 1_000_000L;
+
+        assertEquals(0, engine.recordImportantAction("u", "MANUAL_DOWNLOAD", t0));
+        assertEquals(0, engine.recordImportantAction("u", "MANUAL_DOWNLOAD", t0 + 10_000));
+        // first event has slid out of the window
+        assertEquals(0, engine.recordImportantAction("u", "MANUAL_DOWNLOAD", t0 + MINUTE + 1));
+        assertEquals(3, engine.recordImportantAction("u", "MANUAL_DOWNLOAD", t0 + MINUTE + 2));
+    }
+
+    @Test
+    void recordImportantAction_ShouldFireAgain_AfterCooldown() {
+        SlidingWindowAnomalyEngine engine = new SlidingWindowAnomalyEngine(2, 1, 5, 3, 60, 10_000);
+        long t0 = 1_000_000L;
+
+        engine.recordImportantAction("u", "USER_DELETE", t0);
+        assertEquals(2, engine.recordImportantAction("u", "USER_DELETE", t0 + 1));
+        engine.recordImportantAction("u", "USER_DELETE", t0 + 4 * MINUTE);
+        assertEquals(0, engine.recordImportantAction("u", "USER_DELETE", t0 + 4 * MINUTE + 1));
+        engine.recordImportantAction("u", "USER_DELETE", t0 + 6 * MINUTE);
+        assertEquals(2, engine.recordImportantAction("u", "USER_DELETE", t0 + 6 * MINUTE + 1));
+    }
+
+    @Test
+    void recordImportantAction_ShouldKeepUsersAndActionsSeparate() {
+        SlidingWindowAnomalyEngine engine = new SlidingWindowAnomalyEngine(2, 1, 5, 3, 60, 10_000);
+        long t0 = 1_000_000L;
+
+        engine.recordImportantAction("a", "MANUAL_DOWNLOAD", t0);
+        assertEquals(0, engine.recordImportantAction("b", "MANUAL_DOWNLOAD", t0));
+        assertEquals(0, engine.recordImportantAction("a", "MANUAL_DELETE", t0));
+    }
+
+    @Test
+    void recordLoginFailure_ShouldRestartCount_AfterIdlePeriod() {
+        SlidingWindowAnomalyEngine engine = new SlidingWindowAnomalyEngine(5, 1, 5, 3, 60, 10_000);
+        long t0 = 1_000_000L;
+
+        assertFalse(engine.recordLoginFailure("E001", t0));
+        assertFalse(engine.recordLoginFailure("E001", t0 + MINUTE));
+        // Third failure comes after more than an hour of silence: counting starts over
+        assertFalse(engine.recordLoginFailure("E001", t0 + 62 * MINUTE));
+        assertFalse(engine.recordLoginFailure("E001", t0 + 63 * MINUTE));
+        assertTrue(engine.recordLoginFailure("E001", t0 + 64 * MINUTE));
+    }
+
+    @Test
+    void evictIdle_ShouldDropIdleLoginFailures() {
+        SlidingWindowAnomalyEngine engine = new SlidingWindowAnomalyEngine(5, 1, 5, 3, 60, 10_000);
+        long t0 = 1_000_000L;
+        engine.recordLoginFailure("idle", t0);
+        engine.recordLoginFailure("recent", t0 + 30 * MINUTE);
+
+        engine.evictIdle(t0 + 61 * MINUTE);
+
+        assertEquals(1, engine.trackedLoginFailures());
+    }
+
+    @Test
+    void recordLoginFailure_ShouldCapTrackedIds_KeepingMostRecent() {
+        SlidingWindowAnomalyEngine engine = new SlidingWindowAnomalyEngine(5, 1, 5, 3, 60, 100);
+        long t0 = 1_000_000L;
+        engine.recordLoginFailure("target", t0 + 1_000);
+        engine.recordLoginFailure("target", t0 + 1_001);
+
+        // Spray of made-up ids, all older than the target's failures
+        for (int i = 0; i < 1_000; i++) {
+            engine.recordLoginFailure("spray-" + i, t0 + i % 500);
+        }
+
+        assertTrue(engine.trackedLoginFailures() <= 100);
+        assertTrue(engine.recordLoginFailure("target", t0 + 1_002));
+    }
+}
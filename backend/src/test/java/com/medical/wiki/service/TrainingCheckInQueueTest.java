@@ -0,0 +1,177 @@
+package com.medical.wiki.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.wiki.dto.CheckInReceiptDto;
+import com.medical.wiki.repository.TrainingEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingCheckInQueueTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TrainingEventRepository trainingEventRepository;
+    @Mock
+    private PersonalDashboardService personalDashboardService;
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TrainingCheckInQueue queue;
+    private Path deadLetterFile;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Writer thread not started: tests drive writes through flush()
+        deadLetterFile = tempDir.resolve("dead-letter.jsonl");
+        queue = new TrainingCheckInQueue(jdbcTemplate, trainingEventRepository, personalDashboardService,
+                new ObjectMapper(), meterRegistry, 2, 100, 10, 2, 0, deadLetterFile.toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_ShouldAcknowledgeAndLookUpEventOnce() {
+        when(trainingEventRepository.existsById(5L)).thenReturn(true);
+
+        CheckInReceiptDto first = queue.submit(1L, 5L, "{}");
+        CheckInReceiptDto second = queue.submit(2L, 5L, "{}");
+
+        assertEquals("ACCEPTED", first.getStatus());
+        assertEquals("ACCEPTED", second.getStatus());
+        assertNotEquals(first.getReceiptId(), second.getReceiptId());
+        verify(trainingEventRepository, times(1)).existsById(5L);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_ShouldReject_WhenCheckInIsAlreadyStored() {
+        when(trainingEventRepository.existsById(5L)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("EXISTS"), eq(Boolean.class), eq(5L), eq(1L))).thenReturn(true);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> queue.submit(1L, 5L, "{}"));
+
+        assertEquals(409, e.getStatusCode().value());
+        assertEquals(1.0, meterRegistry.counter("training.checkin.duplicates").count());
+        // Nothing queued: a flush writes nothing
+        queue.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void submit_ShouldCollapseQueuedDuplicates() {
+        when(trainingEventRepository.existsById(5L)).thenReturn(true);
+
+        queue.submit(1L, 5L, "{}");
+        CheckInReceiptDto duplicate = queue.submit(1L, 5L, "{}");
+
+        assertEquals("DUPLICATE", duplicate.getStatus());
+        assertEquals(1.0, meterRegistry.counter("training.checkin.duplicates").count());
+    }
+
+    @Test
+    void submit_ShouldReject_WhenQueueIsFull() {
+        when(trainingEventRepository.existsById(5L)).thenReturn(true);
+        queue.submit(1L, 5L, "{}");
+        queue.submit(2L, 5L, "{}");
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> queue.submit(3L, 5L, "{}"));
+        assertEquals(503, e.getStatusCode().value());
+        assertEquals(1.0, meterRegistry.counter("training.checkin.rejected").count());
+    }
+
+    @Test
+    void submit_ShouldFail_ForUnknownEvent() {
+        when(trainingEventRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> queue.submit(1L, 9L, "{}"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteOneBatch_AndCountIgnoredRowsAsDuplicates() {
+        when(trainingEventRepository.existsById(5L)).thenReturn(true);
+        // Second row already exists in the table: INSERT IGNORE reports 0
+        when(jdbcTemplate.batchUpdate(contains("INSERT IGNORE"), anyList(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][] { { 1, 0 } });
+        queue.submit(1L, 5L, "{}");
+        queue.submit(2L, 5L, "{}");
+
+        queue.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1.0, meterRegistry.counter("training.checkin.duplicates").count());
+        verify(personalDashboardService).invalidate(1L);
+        verify(personalDashboardService).invalidate(2L);
+        // Written pairs are no longer pending, so a resubmission is accepted again
+        assertEquals("ACCEPTED", queue.submit(1L, 5L, "{}").getStatus());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldRetryFailedBatch() {
+        when(trainingEventRepository.existsById(5L)).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(new int[][] { { 1 } });
+        queue.submit(1L, 5L, "{}");
+
+        queue.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1.0, meterRegistry.counter("training.checkin.retried").count());
+        assertEquals(0.0, meterRegistry.counter("training.checkin.failed").count());
+        verify(personalDashboardService).invalidate(1L);
+        assertFalse(Files.exists(deadLetterFile));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldDeadLetter_WhenRetriesAreExhausted() throws Exception {
+        when(trainingEventRepository.existsById(5L)).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        queue.submit(1L, 5L, "{\"q1\":\"yes\"}");
+        queue.submit(2L, 5L, "{}");
+
+        queue.flush();
+
+        // max-attempts = 2: one retry, then both rows go to the dead-letter file
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2.0, meterRegistry.counter("training.checkin.failed").count());
+        List<String> lines = Files.readAllLines(deadLetterFile);
+        assertEquals(2, lines.size());
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(1L, mapper.readTree(lines.get(0)).get("userId").asLong());
+        assertEquals("{\"q1\":\"yes\"}", mapper.readTree(lines.get(0)).get("answersJson").asText());
+        verifyNoInteractions(personalDashboardService);
+        // Dead-lettered pairs are no longer pending
+        assertEquals("ACCEPTED", queue.submit(1L, 5L, "{}").getStatus());
+    }
+}
@@ -0,0 +1,121 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.TrainingEvent;
+import com.medical.wiki.repository.TrainingEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingEventAudienceIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    @Mock
+    private TrainingEventRepository trainingEventRepository;
+
+    @InjectMocks
+    private TrainingEventAudienceIndex index;
+
+    private static TrainingEvent event(long id, Long facilityId, boolean allFacilities, Long committeeId,
+            String jobType, LocalDateTime start, LocalDateTime end) {
+        return TrainingEvent.builder()
+                .id(id)
+                .title("研修" + id)
+                .facilityId(facilityId)
+                .isAllFacilities(allFacilities)
+                .targetCommitteeId(committeeId)
+                .targetJobType(jobType)
+                .startTime(start)
+                .endTime(end)
+                .build();
+    }
+
+    private static List<Long> ids(List<TrainingEvent> events) {
+        return events.stream().map(TrainingEvent::getId).toList();
+    }
+
+    private void load(TrainingEvent... events) {
+        when(trainingEventRepository.findByDeletedAtIsNullAndEndTimeGreaterThanEqual(any()))
+                .thenReturn(new ArrayList<>(List.of(events)));
+    }
+
+    @Test
+    void findVisible_ShouldApplyFacilityCommitteeAndJobTypeRules() {
+        load(
+                event(1, null, false, null, null, NOW.minusDays(3), NOW.plusDays(1)), // global, untargeted
+                event(2, 10L, false, null, null, NOW.minusDays(2), NOW.plusDays(1)), // own facility
+                event(3, 20L, false, null, null, NOW.minusDays(1), NOW.plusDays(1)), // other facility
+                event(4, 20L, true, null, null, NOW.minusHours(5), NOW.plusDays(1)), // all facilities
+                event(5, 10L, false, 7L, null, NOW.minusHours(4), NOW.plusDays(1)), // own committee
+                event(6, 10L, false, 8L, null, NOW.minusHours(3), NOW.plusDays(1)), // other committee
+                event(7, 10L, false, null, "看護師", NOW.minusHours(2), NOW.plusDays(1)), // own job type
+                event(8, 10L, false, null, "医師", NOW.minusHours(1), NOW.plusDays(1)), // other job type
+                event(9, 10L, false, null, null, NOW.plusDays(1), NOW.plusDays(2))); // not started yet
+
+        List<TrainingEvent> visible = index.findVisible(10L, Set.of(7L), "看護師", NOW);
+
+        // Newest start first
+        assertEquals(List.of(7L, 5L, 4L, 2L, 1L), ids(visible));
+    }
+
+    @Test
+    void findVisible_ShouldOnlyMatchUntargetedJobType_WhenUserHasNone() {
+        load(event(1, null, false, null, null, NOW.minusDays(1), NOW.plusDays(1)),
+                event(2, null, false, null, "医師", NOW.minusDays(1), NOW.plusDays(1)));
+
+        assertEquals(List.of(1L), ids(index.findVisible(null, Set.of(), null, NOW)));
+    }
+
+    @Test
+    void index_ShouldApplyCreateUpdateAndDelete_AfterBuild() {
+        load(event(1, null, false, null, null, NOW.minusDays(1), NOW.plusDays(1)));
+        index.findVisible(null, Set.of(), null, NOW);
+
+        TrainingEvent created = event(2, null, false, null, null, NOW.minusHours(1), NOW.plusDays(1));
+        index.index(created);
+        assertEquals(List.of(2L, 1L), ids(index.findVisible(null, Set.of(), null, NOW)));
+
+        // Retargeted to a committee the user is not in
+        index.index(event(2, null, false, 9L, null, NOW.minusHours(1), NOW.plusDays(1)));
+        assertEquals(List.of(1L), ids(index.findVisible(null, Set.of(), null, NOW)));
+
+        TrainingEvent deleted = event(1, null, false, null, null, NOW.minusDays(1), NOW.plusDays(1));
+        deleted.setDeletedAt(NOW);
+        index.index(deleted);
+        assertEquals(List.of(), ids(index.findVisible(null, Set.of(), null, NOW)));
+
+        verify(trainingEventRepository, times(1)).findByDeletedAtIsNullAndEndTimeGreaterThanEqual(any());
+    }
+
+    @Test
+    void evictEnded_ShouldDropFinishedEvents() {
+        load(event(1, null, false, null, null, NOW.minusDays(3), LocalDateTime.now().minusMinutes(1)));
+        index.findVisible(null, Set.of(), null, NOW.minusDays(1));
+
+        index.evictEnded();
+
+        assertTrue(index.findVisible(null, Set.of(), null, NOW.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    void findVisible_ShouldMatchJobTypeIgnoringCase() {
+        load(event(1, null, false, null, "Nurse", NOW.minusDays(1), NOW.plusDays(1)));
+
+        assertEquals(List.of(1L), ids(index.findVisible(10L, Set.of(), "nurse", NOW)));
+        assertEquals(List.of(1L), ids(index.findVisible(10L, Set.of(), "NURSE ", NOW)));
+        assertTrue(index.findVisible(10L, Set.of(), "Doctor", NOW).isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+package com.medical.wiki.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.medical.wiki.dto.TrainingResponseAggregateDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingResponseExportServiceTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    @Test
+    void flatten_ShouldFlattenNestedObjectsAndArrays() {
+        Map<String, Object> answers = AnswerFlattener.flatten(factory,
+                "{\"comprehension\":5,\"clarity\":\"4\",\"detail\":{\"reason\":\"実例が多い\"},"
+                        + "\"topics\":[\"感染\",\"安全\"],\"comment\":null}");
+
+        assertEquals(List.of("comprehension", "clarity", "detail.reason", "topics", "comment"),
+                List.copyOf(answers.keySet()));
+        assertEquals(5L, answers.get("comprehension"));
+        assertEquals("4", answers.get("clarity"));
+        assertEquals("実例が多い", answers.get("detail.reason"));
+        assertEquals("感染; 安全", answers.get("topics"));
+        assertNull(answers.get("comment"));
+    }
+
+    @Test
+    void flatten_ShouldKeepRawText_WhenNotJson() {
+        Map<String, Object> answers = AnswerFlattener.flatten(factory, "とても良かった");
+
+        assertEquals(Map.of(AnswerFlattener.RAW_KEY, "とても良かった"), answers);
+        assertTrue(AnswerFlattener.flatten(factory, null).isEmpty());
+    }
+
+    @Test
+    void questionStats_ShouldAggregateNumericAndChoiceAnswers() {
+        TrainingResponseExportService.QuestionStats stats = new TrainingResponseExportService.QuestionStats();
+        stats.add(5L);
+        stats.add("3");
+        stats.add(4L);
+        stats.add("");
+        stats.add(null);
+
+        TrainingResponseAggregateDto.QuestionAggregate dto = stats.toDto("comprehension");
+
+        assertEquals(3, dto.getAnsweredCount());
+        assertEquals(3L, dto.getNumericCount());
+        assertEquals(4.0, dto.getMean());
+        assertEquals(3.0, dto.getMin());
+        assertEquals(5.0, dto.getMax());
+        assertEquals(Map.of("5", 1L, "3", 1L, "4", 1L), dto.getDistribution());
+    }
+
+    @Test
+    void questionStats_ShouldDropDistribution_ForFreeText() {
+        TrainingResponseExportService.QuestionStats stats = new TrainingResponseExportService.QuestionStats();
+        for (int i = 0; i <= TrainingResponseExportService.MAX_DISTRIBUTION; i++) {
+            stats.add("コメント" + i);
+        }
+
+        TrainingResponseAggregateDto.QuestionAggregate dto = stats.toDto("comment");
+
+        assertEquals(TrainingResponseExportService.MAX_DISTRIBUTION + 1, dto.getAnsweredCount());
+        assertNull(dto.getNumericCount());
+        assertNull(dto.getDistribution());
+    }
+}
@@ -0,0 +1,64 @@
+package com.medical.wiki.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserActivityTrackerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private UserActivityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tracker, "debounceMinutes", 5L);
+    }
+
+    @Test
+    void flush_ShouldWriteAllDirtyUsersInOneStatement() {
+        tracker.recordActivity("emp001");
+        tracker.recordActivity("emp002");
+        tracker.recordActivity("emp001");
+
+        tracker.flush();
+
+        verify(jdbcTemplate, times(1)).update(argThat((String sql) -> sql.startsWith("UPDATE users")
+                && sql.split("WHEN").length == 3), any(Object[].class));
+    }
+
+    @Test
+    void recordActivity_ShouldBeDebounced_AfterSuccessfulFlush() {
+        tracker.recordActivity("emp001");
+        tracker.flush();
+        tracker.recordActivity("emp001");
+        tracker.flush();
+
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void flush_ShouldRequeue_WhenUpdateFails() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(1);
+
+        tracker.recordActivity("emp001");
+        tracker.flush();
+        tracker.flush();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,85 @@
+package com.medical.wiki.service;
+
+import com.medical.wiki.entity.User;
+import com.medical.wiki.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserPrincipalCache(userRepository, meterRegistry, 60, 2);
+    }
+
+    @Test
+    void get_ShouldHitCache_OnSecondLookup() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, User.Role.USER)));
+
+        cache.get(1L);
+        UserPrincipalCache.CachedPrincipal principal = cache.get(1L).orElseThrow();
+
+        assertEquals("emp1", principal.employeeId());
+        verify(userRepository, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.counter("user.principal.cache.hits").count());
+        assertEquals(1.0, meterRegistry.counter("user.principal.cache.misses").count());
+    }
+
+    @Test
+    void invalidate_ShouldReloadChangedRole() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user(1L, User.Role.USER)))
+                .thenReturn(Optional.of(user(1L, User.Role.ADMIN)));
+
+        cache.get(1L);
+        cache.invalidate(1L);
+
+        assertEquals(User.Role.ADMIN, cache.get(1L).orElseThrow().role());
+    }
+
+    @Test
+    void get_ShouldNotCacheUnknownUser() {
+        when(userRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.get(9L).isEmpty());
+        assertTrue(cache.get(9L).isEmpty());
+        verify(userRepository, times(2)).findById(9L);
+    }
+
+    @Test
+    void get_ShouldStayWithinMaxSize() {
+        for (long id = 1; id <= 5; id++) {
+            when(userRepository.findById(id)).thenReturn(Optional.of(user(id, User.Role.USER)));
+            cache.get(id);
+        }
+
+        assertEquals(2.0, meterRegistry.get("user.principal.cache.size").gauge().value());
+    }
+
+    private User user(Long id, User.Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmployeeId("emp" + id);
+        user.setRole(role);
+        user.setPassword("hash");
+        return user;
+    }
+}
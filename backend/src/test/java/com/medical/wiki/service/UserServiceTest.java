@@ -1,20 +1,41 @@
 package com.medical.wiki.service;
 
+import com.medical.wiki.dto.BulkRegisterResultDto;
+import com.medical.wiki.dto.UserCreateDto;
 import com.medical.wiki.entity.User;
 import com.medical.wiki.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +43,18 @@ public class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private LoggingService loggingService;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private UserPrincipalCache principalCache;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PasswordHashingPool passwordHashingPool;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private UserService userService;
@@ -65,4 +98,92 @@ public class UserServiceTest {
         verify(userRepository).findAllByDeletedAtIsNull();
         verify(userRepository, never()).findByFacilityAndDeletedAtIsNull(any());
     }
+
+    private static UserCreateDto row(String employeeId) {
+        return new UserCreateDto(employeeId, "山田 太郎", "pass", "本館", "外科", User.Role.USER, null, null, null);
+    }
+
+    private static User existing(Long id, String employeeId, boolean deleted) {
+        User user = new User();
+        user.setId(id);
+        user.setEmployeeId(employeeId);
+        user.setName("旧姓 太郎");
+        user.setDeletedAt(deleted ? LocalDateTime.now() : null);
+        return user;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void validateBulkCsv_ShouldPrefetchExistingIdsInChunks() {
+        List<UserCreateDto> rows = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            rows.add(row(String.format("E%05d", i)));
+        }
+        when(userRepository.findByEmployeeIdInIncludingDeleted(anyCollection()))
+                .thenReturn(List.of(existing(1L, "E00001", false), existing(2L, "E00002", true)))
+                .thenReturn(List.of());
+
+        Map<String, Object> result = userService.validateBulkCsv(rows);
+
+        verify(userRepository, times(3)).findByEmployeeIdInIncludingDeleted(anyCollection());
+        verify(userRepository, never()).findByEmployeeIdIncludingDeleted(anyString());
+        assertEquals(1, ((List<String>) result.get("errors")).size());
+        assertEquals(1, ((List<?>) result.get("restorableUsers")).size());
+        assertEquals(2498, ((List<?>) result.get("validNewUsers")).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkRegisterUsers_ShouldWriteInsertsAndRestoresAsBatches() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(devUser));
+        when(userRepository.findByEmployeeIdInIncludingDeleted(anyCollection()))
+                .thenReturn(List.of(existing(7L, "E00003", true)));
+        when(passwordHashingPool.encodeAll(anyList()))
+                .thenAnswer(inv -> ((List<String>) inv.getArgument(0)).stream().map(p -> "hash-" + p).toList());
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        BulkRegisterResultDto result = userService.bulkRegisterUsers(
+                List.of(row("E00001"), row("E00002"), row("E00003")), 2L, List.of("E00003"));
+
+        ArgumentCaptor<Collection<Object[]>> inserts = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<Object[]>> restores = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), inserts.capture(), eq(UserService.IMPORT_BATCH_SIZE),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE"), restores.capture(), eq(UserService.IMPORT_BATCH_SIZE),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, inserts.getValue().size());
+        assertEquals(1, restores.getValue().size());
+        assertEquals(7L, restores.getValue().iterator().next()[6]);
+        assertEquals("hash-pass", restores.getValue().iterator().next()[4]);
+        assertTrue(inserts.getValue().stream().allMatch(r -> "hash-pass".equals(r[1])));
+        assertEquals(2, result.getNewCount());
+        assertEquals(1, result.getRestoredCount());
+        // Prefetch before hashing, re-check inside the write transaction
+        verify(userRepository, times(2)).findByEmployeeIdInIncludingDeleted(anyCollection());
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).save(any());
+        verify(principalCache).invalidate(7L);
+        verify(loggingService).log(eq("USER_RECOVERY"), eq("山田 太郎 (E00003)"), anyString(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkRegisterUsers_ShouldAbort_WhenIdWasTakenWhileHashing() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(devUser));
+        when(userRepository.findByEmployeeIdInIncludingDeleted(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(existing(9L, "E00001", false)));
+        when(passwordHashingPool.encodeAll(anyList())).thenReturn(List.of("hash"));
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        assertThrows(RuntimeException.class,
+                () -> userService.bulkRegisterUsers(List.of(row("E00001")), 2L, null));
+        verifyNoInteractions(jdbcTemplate);
+    }
 }
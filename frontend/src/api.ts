@@ -60,6 +60,22 @@ export interface TrainingResponse {
     attendedAt: string;
 }
 
+export interface CheckInReceipt {
+    receiptId: string;
+    eventId: number;
+    userId: number;
+    status: 'ACCEPTED' | 'DUPLICATE';
+    acceptedAt: string;
+}
+
+// 409 from submitTrainingResponse: the check-in is already stored
+export class AlreadySubmittedError extends Error {
+    constructor() {
+        super('Already submitted');
+        this.name = 'AlreadySubmittedError';
+    }
+}
+
 export interface Committee {
     id: number;
     name: string;
@@ -164,14 +180,14 @@ export const api = {
     },
 
     uploadPdf: async (userId: number, id: number, file: File): Promise<string> => {
-        const formData = new FormData();
-        formData.append('file', file);
+        // Raw body so the server can stream it to storage without multipart parsing
         const res = await fetch(`${API_BASE}/manuals/${id}/pdf`, {
             method: 'POST',
             headers: {
-                'X-User-Id': userId.toString()
+                'X-User-Id': userId.toString(),
+                'Content-Type': 'application/pdf'
             },
-            body: formData,
+            body: file,
         });
         return res.text();
     },
@@ -248,11 +264,15 @@ export const api = {
         return res.json();
     },
 
-    getAuditLogs: async (userId: number): Promise<any[]> => {
-        const res = await fetch(`${API_BASE}/admin/audit-logs`, {
+    // Newest first; pass the previous page's nextCursor to read older logs (null on the last page)
+    getAuditLogPage: async (userId: number, cursor?: string | null, size = 100): Promise<{ items: any[]; nextCursor: string | null }> => {
+        const params = new URLSearchParams();
+        params.append('size', String(size));
+        if (cursor) params.append('cursor', cursor);
+        const res = await fetch(`${API_BASE}/admin/audit-logs/page?${params.toString()}`, {
             headers: getHeaders(userId),
         });
-        if (!res.ok) return [];
+        if (!res.ok) return { items: [], nextCursor: null };
         return res.json();
     },
 
@@ -940,7 +960,8 @@ export const api = {
         return data.url;
     },
 
-    submitTrainingResponse: async (userId: number, eventId: number, answersJson: string): Promise<TrainingResponse> => {
+    // Returns a receipt; the response itself is written asynchronously
+    submitTrainingResponse: async (userId: number, eventId: number, answersJson: string): Promise<CheckInReceipt> => {
         const res = await fetch(`${API_BASE}/training/responses/${eventId}`, {
             method: 'POST',
             headers: {
@@ -949,6 +970,7 @@ export const api = {
             },
             body: JSON.stringify({ answersJson }),
         });
+        if (res.status === 409) throw new AlreadySubmittedError();
         if (!res.ok) throw new Error('Failed to submit response');
         return res.json();
     },
@@ -307,7 +307,7 @@ export default function ComplianceDashboard() {
                                                     <div className="flex flex-wrap gap-2">
                                                         {userProgress.progressList.length > 0 ? userProgress.progressList.map((p) => (
                                                             <span
-                                                                key={p.id}
+                                                                key={p.manualId}
                                                                 className="inline-flex items-center gap-1.5 px-3 py-1.5 bg-white border border-gray-200 rounded-lg text-xs font-medium text-gray-600 shadow-sm"
                                                             >
                                                                 <CheckCircle2 size={12} className="text-emerald-500" />
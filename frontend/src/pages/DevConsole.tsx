@@ -30,6 +30,7 @@ export default function DevConsole() {
 
     const [nodeStatuses, setNodeStatuses] = useState<Map<number, any>>(new Map());
     const [systemLogs, setSystemLogs] = useState<any[]>([]);
+    const [logsCursor, setLogsCursor] = useState<string | null>(null);
     const [loading, setLoading] = useState(true);
 
     useEffect(() => {
@@ -73,8 +74,18 @@ export default function DevConsole() {
 
     const fetchLogs = async () => {
         try {
-            const data = await api.getAuditLogs(1);
-            setSystemLogs(data);
+            const page = await api.getAuditLogPage(1);
+            setSystemLogs(page.items);
+            setLogsCursor(page.nextCursor);
+        } catch (e) { console.error(e); }
+    };
+
+    const fetchMoreLogs = async () => {
+        if (!logsCursor) return;
+        try {
+            const page = await api.getAuditLogPage(1, logsCursor);
+            setSystemLogs(prev => [...prev, ...page.items]);
+            setLogsCursor(page.nextCursor);
         } catch (e) { console.error(e); }
     };
 
@@ -269,6 +280,14 @@ export default function DevConsole() {
                                 </span>
                             </div>
                         ))}
+                        {logsCursor && (
+                            <button
+                                onClick={fetchMoreLogs}
+                                className="w-full py-2 text-slate-500 hover:text-slate-300 transition-colors"
+                            >
+                                Load older logs ({systemLogs.length} shown)
+                            </button>
+                        )}
                         {systemLogs.length === 0 && (
                             <div className="text-center py-12 text-slate-600 text-xs">
                                 No audit logs available
@@ -80,6 +80,7 @@ export default function DeveloperDashboard() {
     const [editForm, setEditForm] = useState<Partial<User>>({});
     const [logs, setLogs] = useState<LogEntry[]>([]);
     const [systemLogs, setSystemLogs] = useState<any[]>([]);
+    const [systemLogsCursor, setSystemLogsCursor] = useState<string | null>(null);
     const [lastSync, setLastSync] = useState<string>('Never');
     const [loading, setLoading] = useState(false);
     const [selectedUsers, setSelectedUsers] = useState<number[]>([]);
@@ -226,8 +227,18 @@ export default function DeveloperDashboard() {
 
     const fetchSystemLogs = async () => {
         try {
-            const data = await api.getAuditLogs(1);
-            setSystemLogs(data);
+            const page = await api.getAuditLogPage(1);
+            setSystemLogs(page.items);
+            setSystemLogsCursor(page.nextCursor);
+        } catch (e) { console.error(e); }
+    };
+
+    const fetchMoreSystemLogs = async () => {
+        if (!systemLogsCursor) return;
+        try {
+            const page = await api.getAuditLogPage(1, systemLogsCursor);
+            setSystemLogs(prev => [...prev, ...page.items]);
+            setSystemLogsCursor(page.nextCursor);
         } catch (e) { console.error(e); }
     };
 
@@ -1212,6 +1223,14 @@ export default function DeveloperDashboard() {
                                                 </div>
                                             </div>
                                         ))}
+                                        {systemLogsCursor && (
+                                            <div className="flex items-center justify-center gap-4 pt-2">
+                                                <span className="text-[10px] font-bold text-m3-outline">{systemLogs.length} 件表示中</span>
+                                                <Button variant="outlined" onClick={fetchMoreSystemLogs}>
+                                                    さらに読み込む
+                                                </Button>
+                                            </div>
+                                        )}
                                         {systemLogs.length === 0 && (
                                             <div className="text-center py-20 px-4">
                                                 <div className="w-20 h-20 bg-m3-surface-container rounded-full flex items-center justify-center mx-auto mb-6">
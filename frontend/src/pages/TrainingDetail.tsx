@@ -1,6 +1,6 @@
 import { useEffect, useState, useMemo } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
-import { api, TrainingEvent } from '../api';
+import { api, AlreadySubmittedError, TrainingEvent, TrainingResponse } from '../api';
 import { BookOpen, Calendar, Clock, FileText, CheckCircle2, PlayCircle, Video, ArrowLeft, Download, Send, Star, MessageSquare, Edit2 } from 'lucide-react';
 
 const getYoutubeId = (url: string) => {
@@ -43,7 +43,7 @@ export default function TrainingDetail() {
     const navigate = useNavigate();
     const [event, setEvent] = useState<TrainingEvent | null>(null);
     const [loading, setLoading] = useState(true);
-    const [responses, setResponses] = useState<any[]>([]);
+    const [responses, setResponses] = useState<TrainingResponse[]>([]);
     const [submitting, setSubmitting] = useState(false);
     const [error, setError] = useState<string | null>(null);
     const [userRole, setUserRole] = useState<string | null>(null);
@@ -105,15 +105,31 @@ export default function TrainingDetail() {
                 clarity,
                 comment
             });
-            await api.submitTrainingResponse(userData.id, event.id, answers);
+            const receipt = await api.submitTrainingResponse(userData.id, event.id, answers);
 
-            // Reload responses
+            // Reload responses; the queued check-in may not be written yet, so mark it completed locally
             const myResponses = await api.getMyTrainingResponses(userData.id);
-            setResponses(myResponses);
+            const pending: TrainingResponse = {
+                id: 0,
+                eventId: event.id,
+                userId: userData.id,
+                attendeeName: userData.name ?? '',
+                answersJson: answers,
+                attendedAt: receipt.acceptedAt
+            };
+            setResponses(myResponses.some(r => r.eventId === event.id)
+                ? myResponses
+                : [...myResponses, pending]);
 
             // Scroll to top to show completion status
             window.scrollTo({ top: 0, behavior: 'smooth' });
         } catch (err) {
+            if (err instanceof AlreadySubmittedError) {
+                // Already recorded (e.g. from another device): show the stored check-in
+                setResponses(await api.getMyTrainingResponses(userData.id));
+                alert("この研修には既に回答済みです。");
+                return;
+            }
             console.error("Failed to submit response", err);
             alert("送信に失敗しました。もう一度お試しください。");
         } finally {
@@ -121,9 +137,10 @@ export default function TrainingDetail() {
         }
     };
 
-    const isCompleted = useMemo(() => {
-        return event ? responses.some((r: any) => r.eventId === event.id) : false;
+    const myResponse = useMemo(() => {
+        return event ? responses.find(r => r.eventId === event.id) : undefined;
     }, [responses, event]);
+    const isCompleted = myResponse !== undefined;
 
     const activeVideos = useMemo(() => {
         if (!event) return [];
@@ -438,7 +455,7 @@ export default function TrainingDetail() {
                     </div>
 
                     {/* Completion Status Overlay (Floating) */}
-                    {isCompleted && (
+                    {myResponse && (
                         <div className="sticky top-24 bg-gradient-to-br from-emerald-500 to-teal-700 rounded-[3rem] p-10 text-white shadow-2xl shadow-emerald-500/20 overflow-hidden group">
                             <div className="absolute -right-10 -top-10 w-40 h-40 bg-white/10 rounded-full blur-3xl group-hover:scale-150 transition-transform duration-1000" />
                             <div className="relative z-10 text-center space-y-6">
@@ -448,7 +465,7 @@ export default function TrainingDetail() {
                                 <div>
                                     <h4 className="font-black text-3xl tracking-tight">受講完了</h4>
                                     <p className="text-white/60 text-xs font-bold uppercase tracking-widest mt-2 px-6">
-                                        回答済: {new Date(responses.find((r: any) => r.eventId === event.id)?.attendedAt).toLocaleDateString('ja-JP')} {new Date(responses.find((r: any) => r.eventId === event.id)?.attendedAt).toLocaleTimeString('ja-JP', { hour: '2-digit', minute: '2-digit' })}
+                                        回答済: {new Date(myResponse.attendedAt).toLocaleDateString('ja-JP')} {new Date(myResponse.attendedAt).toLocaleTimeString('ja-JP', { hour: '2-digit', minute: '2-digit' })}
                                     </p>
                                 </div>
                                 <div className="pt-4">